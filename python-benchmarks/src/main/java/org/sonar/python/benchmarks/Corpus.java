@@ -0,0 +1,145 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.sonar.plugins.python.api.PythonFile;
+
+/**
+ * Source code the benchmarks are run on. Besides the generated corpora below, the path of any Python file or notebook
+ * can be given as value of the "corpus" parameter, e.g. {@code -p corpus=/path/to/module.py}.
+ */
+final class Corpus {
+
+  static final String LARGE_GENERATED_MODULE = "large_generated_module";
+  static final String DEEPLY_NESTED = "deeply_nested";
+  static final String HUGE_STRING_LITERALS = "huge_string_literals";
+  static final String NOTEBOOK = "notebook";
+
+  private Corpus() {
+  }
+
+  static String source(String corpus) {
+    return switch (corpus) {
+      case LARGE_GENERATED_MODULE -> largeGeneratedModule(2_000);
+      case DEEPLY_NESTED -> deeplyNested(60);
+      case HUGE_STRING_LITERALS -> hugeStringLiterals(50, 20_000);
+      case NOTEBOOK -> notebook(200);
+      default -> read(Paths.get(corpus));
+    };
+  }
+
+  static PythonFile pythonFile(String corpus, String content) {
+    return new BenchmarkPythonFile(corpus.endsWith(".ipynb") || NOTEBOOK.equals(corpus) ? "corpus.ipynb" : "corpus.py", content);
+  }
+
+  /**
+   * Module similar to the output of code generators (e.g. protobuf or ORM bindings): many small classes and functions.
+   */
+  private static String largeGeneratedModule(int classCount) {
+    StringBuilder sb = new StringBuilder("import typing\nfrom collections import OrderedDict\n\n");
+    for (int i = 0; i < classCount; i++) {
+      sb.append("class Message").append(i).append("(object):\n")
+        .append("  \"\"\"Generated message ").append(i).append("\"\"\"\n")
+        .append("  FIELDS = OrderedDict([('id', int), ('name', str), ('values', list)])\n\n")
+        .append("  def __init__(self, id: int = 0, name: str = '', values: typing.List[int] = None):\n")
+        .append("    self.id = id\n")
+        .append("    self.name = name\n")
+        .append("    self.values = values if values is not None else []\n\n")
+        .append("  def serialize(self):\n")
+        .append("    result = {}\n")
+        .append("    for field, field_type in self.FIELDS.items():\n")
+        .append("      value = getattr(self, field)\n")
+        .append("      if not isinstance(value, field_type):\n")
+        .append("        raise TypeError('Unexpected type for %s' % field)\n")
+        .append("      result[field] = value\n")
+        .append("    return result\n\n");
+    }
+    return sb.toString();
+  }
+
+  private static String deeplyNested(int depth) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      String indent = "  ".repeat(2 * i);
+      sb.append(indent).append("def level").append(i).append("(x").append(i).append("):\n")
+        .append(indent).append("  if x").append(i).append(" > ").append(i).append(":\n");
+    }
+    String indent = "  ".repeat(2 * depth);
+    sb.append(indent).append("return [[(a, b) for a in range(x0) if a % 2] for b in (lambda y: {y: (y, [y, {y}])})(x0)]\n");
+    for (int i = depth - 1; i >= 0; i--) {
+      sb.append("  ".repeat(2 * i)).append("  return level").append(i + 1 < depth ? i + 1 : i).append("\n");
+    }
+    return sb.toString();
+  }
+
+  private static String hugeStringLiterals(int literalCount, int literalLength) {
+    String line = "Lorem ipsum dolor sit amet, consectetur adipiscing elit \\n {value} %s\n";
+    String literal = line.repeat(literalLength / line.length());
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < literalCount; i++) {
+      sb.append("TEXT").append(i).append(" = \"\"\"").append(literal).append("\"\"\"\n");
+      sb.append("FORMATTED").append(i).append(" = f\"{TEXT").append(i).append("!r:>10} ").append("x".repeat(literalLength / 10)).append("\"\n");
+    }
+    return sb.toString();
+  }
+
+  private static String notebook(int cellCount) {
+    StringBuilder sb = new StringBuilder("{\n \"cells\": [\n");
+    for (int i = 0; i < cellCount; i++) {
+      sb.append("  {\n   \"cell_type\": \"code\",\n   \"execution_count\": ").append(i).append(",\n   \"metadata\": {},\n   \"outputs\": [],\n")
+        .append("   \"source\": [\n")
+        .append("    \"import numpy as np\\n\",\n")
+        .append("    \"values").append(i).append(" = np.arange(").append(i).append(")\\n\",\n")
+        .append("    \"%matplotlib inline\\n\",\n")
+        .append("    \"print(\\\"mean: %s\\\" % values").append(i).append(".mean())\"\n")
+        .append("   ]\n  }").append(i + 1 < cellCount ? "," : "").append("\n");
+    }
+    sb.append(" ],\n \"metadata\": {\"language_info\": {\"name\": \"python\"}},\n \"nbformat\": 4,\n \"nbformat_minor\": 2\n}\n");
+    return sb.toString();
+  }
+
+  private static String read(Path path) {
+    try {
+      return Files.readString(path, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read corpus " + path, e);
+    }
+  }
+
+  private record BenchmarkPythonFile(String fileName, String content) implements PythonFile {
+
+    @Override
+    public URI uri() {
+      return URI.create("file:///benchmarks/" + fileName);
+    }
+
+    @Override
+    public String key() {
+      return fileName;
+    }
+  }
+}
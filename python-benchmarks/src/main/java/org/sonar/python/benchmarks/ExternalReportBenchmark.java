@@ -0,0 +1,132 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.plugins.python.bandit.BanditJsonReportReader;
+import org.sonar.plugins.python.ruff.RuffJsonReportReader;
+
+/**
+ * Reading of large Bandit and Ruff JSON reports, generated beforehand with the given number of issues. Saving the issues
+ * is not part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ExternalReportBenchmark {
+
+  @Param({"1000000"})
+  public int issues;
+
+  private Path banditReport;
+  private Path ruffReport;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    banditReport = Files.createTempFile("bandit-report", ".json");
+    ruffReport = Files.createTempFile("ruff-report", ".json");
+    writeBanditReport(banditReport, issues);
+    writeRuffReport(ruffReport, issues);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(banditReport);
+    Files.deleteIfExists(ruffReport);
+  }
+
+  @Benchmark
+  public void banditReport(Blackhole blackhole) throws IOException {
+    try (InputStream in = Files.newInputStream(banditReport)) {
+      BanditJsonReportReader.read(in, blackhole::consume);
+    }
+  }
+
+  @Benchmark
+  public void ruffReport(Blackhole blackhole) throws IOException {
+    try (InputStream in = Files.newInputStream(ruffReport)) {
+      RuffJsonReportReader.read(in, blackhole::consume);
+    }
+  }
+
+  private static void writeBanditReport(Path report, int issueCount) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+      writer.write("{\n  \"errors\": [],\n  \"generated_at\": \"2024-01-01T00:00:00Z\",\n  \"results\": [\n");
+      for (int i = 0; i < issueCount; i++) {
+        writer.write(i == 0 ? "    {\n" : ",\n    {\n");
+        writer.write("      \"code\": \"" + i + " import subprocess\\n\",\n");
+        writer.write("      \"filename\": \"vendor/module" + (i % 1_000) + ".py\",\n");
+        writer.write("      \"issue_confidence\": \"HIGH\",\n");
+        writer.write("      \"issue_severity\": \"LOW\",\n");
+        writer.write("      \"issue_text\": \"Consider possible security implications associated with the subprocess module.\",\n");
+        writer.write("      \"line_number\": " + (i % 500 + 1) + ",\n");
+        writer.write("      \"line_range\": [" + (i % 500 + 1) + "],\n");
+        writer.write("      \"more_info\": \"https://bandit.readthedocs.io/en/latest/blacklists/blacklist_imports.html\",\n");
+        writer.write("      \"test_id\": \"B404\",\n");
+        writer.write("      \"test_name\": \"blacklist\"\n");
+        writer.write("    }");
+      }
+      writer.write("\n  ]\n}\n");
+    }
+  }
+
+  private static void writeRuffReport(Path report, int issueCount) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+      writer.write("[\n");
+      for (int i = 0; i < issueCount; i++) {
+        int row = i % 500 + 1;
+        writer.write(i == 0 ? "  {\n" : ",\n  {\n");
+        writer.write("    \"code\": \"E501\",\n");
+        writer.write("    \"end_location\": {\"column\": 120, \"row\": " + row + "},\n");
+        writer.write("    \"filename\": \"vendor/module" + (i % 1_000) + ".py\",\n");
+        writer.write("    \"fix\": null,\n");
+        writer.write("    \"location\": {\"column\": 89, \"row\": " + row + "},\n");
+        writer.write("    \"message\": \"Line too long (119 > 88 characters)\",\n");
+        writer.write("    \"noqa_row\": " + row + ",\n");
+        writer.write("    \"url\": \"https://docs.astral.sh/ruff/rules/line-too-long\"\n");
+        writer.write("  }");
+      }
+      writer.write("\n]\n");
+    }
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import com.sonar.sslr.api.AstNode;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.Lexer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
+import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.FunctionDef;
+import org.sonar.python.cfg.ControlFlowGraphBuilder;
+import org.sonar.python.lexer.LexerState;
+import org.sonar.python.lexer.PythonLexer;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.semantic.SymbolTableBuilder;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
+import org.sonar.python.semantic.v2.SymbolTable;
+import org.sonar.python.semantic.v2.SymbolTableBuilderV2;
+import org.sonar.python.semantic.v2.TypeInferenceV2;
+import org.sonar.python.tree.PythonTreeMaker;
+
+/**
+ * Benchmarks of the analysis steps of a single file, from lexing to type inference.
+ * Steps which annotate the tree (symbol tables, type inference) are measured on a fresh tree for each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrontendBenchmark {
+
+  @Param({Corpus.LARGE_GENERATED_MODULE, Corpus.DEEPLY_NESTED, Corpus.HUGE_STRING_LITERALS})
+  public String corpus;
+
+  private String source;
+  private PythonFile pythonFile;
+  private PythonParser parser;
+  private AstNode astNode;
+  private FileInput fileInput;
+  private List<FunctionDef> functionDefs;
+  private FileInput freshFileInput;
+  private ProjectLevelTypeTable projectLevelTypeTable;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() {
+    source = Corpus.source(corpus);
+    pythonFile = Corpus.pythonFile(corpus, source);
+    parser = PythonParser.create();
+    astNode = parser.parse(source);
+    fileInput = new PythonTreeMaker().fileInput(astNode);
+    List<FunctionDef> allFunctionDefs = new ArrayList<>();
+    fileInput.accept(new BaseTreeVisitor() {
+      @Override
+      public void visitFunctionDef(FunctionDef functionDef) {
+        allFunctionDefs.add(functionDef);
+        super.visitFunctionDef(functionDef);
+      }
+    });
+    functionDefs = allFunctionDefs;
+    projectLevelTypeTable = new ProjectLevelTypeTable(ProjectLevelSymbolTable.empty());
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    freshFileInput = new PythonTreeMaker().fileInput(astNode);
+  }
+
+  @Benchmark
+  public List<Token> lexer() {
+    LexerState lexerState = new LexerState();
+    lexerState.reset();
+    Lexer lexer = PythonLexer.create(lexerState);
+    return lexer.lex(source);
+  }
+
+  @Benchmark
+  public AstNode parser() {
+    return parser.parse(source);
+  }
+
+  @Benchmark
+  public FileInput treeMaker() {
+    return new PythonTreeMaker().fileInput(astNode);
+  }
+
+  @Benchmark
+  public FileInput symbolTableBuilder() {
+    new SymbolTableBuilder("", pythonFile).visitFileInput(freshFileInput);
+    return freshFileInput;
+  }
+
+  @Benchmark
+  public SymbolTable symbolTableBuilderV2() {
+    return new SymbolTableBuilderV2(freshFileInput).build();
+  }
+
+  @Benchmark
+  public FileInput typeInferenceV2() {
+    // the V2 symbol table is a prerequisite of type inference: it is part of the measurement
+    SymbolTable symbolTable = new SymbolTableBuilderV2(freshFileInput).build();
+    new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable).inferTypes(freshFileInput);
+    return freshFileInput;
+  }
+
+  @Benchmark
+  public int controlFlowGraphBuilder() {
+    // the builder is used directly, as ControlFlowGraph.build caches the graphs on the tree
+    int blocks = new ControlFlowGraphBuilder(fileInput.statements()).getCfg().blocks().size();
+    for (FunctionDef functionDef : functionDefs) {
+      ControlFlowGraph cfg = new ControlFlowGraphBuilder(functionDef.body()).getCfg();
+      blocks += cfg.blocks().size();
+    }
+    return blocks;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.plugins.python.GeneratedIPythonFile;
+import org.sonar.plugins.python.IpynbNotebookParser;
+import org.sonar.plugins.python.PythonInputFile;
+import org.sonar.plugins.python.PythonInputFileImpl;
+
+/**
+ * Conversion of Jupyter notebooks into the Python code which is then analyzed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotebookBenchmark {
+
+  @Param({Corpus.NOTEBOOK})
+  public String corpus;
+
+  private PythonInputFile inputFile;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    inputFile = new PythonInputFileImpl(TestInputFileBuilder.create("moduleKey", "corpus.ipynb")
+      .setCharset(StandardCharsets.UTF_8)
+      .setLanguage("ipynb")
+      .setContents(Corpus.source(corpus))
+      .build());
+  }
+
+  @Benchmark
+  public Optional<GeneratedIPythonFile> ipynbNotebookParser() {
+    return IpynbNotebookParser.parseNotebook(inputFile);
+  }
+}
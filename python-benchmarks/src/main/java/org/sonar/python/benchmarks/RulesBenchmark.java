@@ -0,0 +1,109 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.SonarProduct;
+import org.sonar.plugins.python.api.PythonCheck;
+import org.sonar.plugins.python.api.PythonFile;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.python.SubscriptionVisitor;
+import org.sonar.python.caching.CacheContextImpl;
+import org.sonar.python.checks.CheckList;
+import org.sonar.python.parser.PythonParser;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+import org.sonar.python.tree.PythonTreeMaker;
+
+/**
+ * Execution of all the rules of {@link CheckList} on a single file. Semantic information is computed beforehand and
+ * is not part of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RulesBenchmark {
+
+  @Param({Corpus.LARGE_GENERATED_MODULE, Corpus.DEEPLY_NESTED, Corpus.HUGE_STRING_LITERALS})
+  public String corpus;
+
+  private String source;
+  private PythonFile pythonFile;
+  private PythonParser parser;
+  private ProjectLevelSymbolTable projectLevelSymbolTable;
+  private final List<PythonSubscriptionCheck> subscriptionChecks = new ArrayList<>();
+  private final List<PythonCheck> otherChecks = new ArrayList<>();
+  private PythonVisitorContext visitorContext;
+
+  @Setup(Level.Trial)
+  public void setUpTrial() throws ReflectiveOperationException {
+    source = Corpus.source(corpus);
+    pythonFile = Corpus.pythonFile(corpus, source);
+    parser = PythonParser.create();
+    projectLevelSymbolTable = ProjectLevelSymbolTable.empty();
+    for (Class<?> checkClass : CheckList.getChecks()) {
+      PythonCheck check = newCheck(checkClass);
+      if (check instanceof PythonSubscriptionCheck subscriptionCheck) {
+        subscriptionChecks.add(subscriptionCheck);
+      } else {
+        otherChecks.add(check);
+      }
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void setUpInvocation() {
+    visitorContext = new PythonVisitorContext(new PythonTreeMaker().fileInput(parser.parse(source)), pythonFile, null, "",
+      projectLevelSymbolTable, CacheContextImpl.dummyCache(), SonarProduct.SONARQUBE);
+  }
+
+  @Benchmark
+  public int subscriptionVisitor() {
+    otherChecks.forEach(check -> check.scanFile(visitorContext));
+    SubscriptionVisitor.analyze(subscriptionChecks, visitorContext);
+    return visitorContext.getIssues().size();
+  }
+
+  private static PythonCheck newCheck(Class<?> checkClass) throws ReflectiveOperationException {
+    try {
+      return (PythonCheck) checkClass.getDeclaredConstructor().newInstance();
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException("Unable to instantiate " + checkClass, e.getCause());
+    }
+  }
+}
@@ -54,6 +54,11 @@ public class ArgumentNumberCheck extends PythonSubscriptionCheck {
 
   private static final String FUNCTION_DEFINITION = "Function definition.";
 
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
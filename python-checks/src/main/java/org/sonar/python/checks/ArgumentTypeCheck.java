@@ -54,6 +54,11 @@ public class ArgumentTypeCheck extends PythonSubscriptionCheck {
     final Set<LocationInFile> secondaryLocations = new HashSet<>();
   }
 
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
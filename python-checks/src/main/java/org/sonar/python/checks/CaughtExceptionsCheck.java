@@ -50,6 +50,11 @@ public class CaughtExceptionsCheck extends PythonSubscriptionCheck {
   private static final String MESSAGE = "Change this expression to be a class deriving from BaseException or a tuple of such classes.";
   public static final String QUICK_FIX_MESSAGE_FORMAT = "Make \"%s\" deriving from \"Exception\"";
 
+  @Override
+  public boolean requiresTypeInferenceV2() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(EXCEPT_CLAUSE, CaughtExceptionsCheck::checkExceptClause);
@@ -47,6 +47,11 @@ public class ChangeMethodContractCheck extends PythonSubscriptionCheck {
     "overload"
   );
 
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(FUNCDEF, ctx -> {
@@ -50,6 +50,16 @@ import static org.sonar.python.types.InferredTypes.typeSymbols;
 
 @Rule(key = "S5864")
 public class ConfusingTypeCheckingCheck extends PythonSubscriptionCheck {
+  @Override
+  public boolean requiresTypeInferenceV2() {
+    return true;
+  }
+
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     new NonCallableCalledCheck().initialize(context);
@@ -53,6 +53,11 @@ public class ConstantConditionCheck extends PythonVisitorCheck {
   private static final List<String> ACCEPTED_DECORATORS = List.of("overload", "staticmethod", "classmethod");
   private ReachingDefinitionsAnalysis reachingDefinitionsAnalysis;
 
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   public void visitFileInput(FileInput fileInput) {
     reachingDefinitionsAnalysis = new ReachingDefinitionsAnalysis(getContext().pythonFile());
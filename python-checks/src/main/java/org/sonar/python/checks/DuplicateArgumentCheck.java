@@ -60,6 +60,11 @@ import static org.sonar.python.semantic.SymbolUtils.pathOf;
 @Rule(key = "S5549")
 public class DuplicateArgumentCheck extends PythonSubscriptionCheck {
 
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
@@ -35,6 +35,11 @@ import org.sonar.python.types.v2.TriBool;
 @Rule(key = "S5707")
 public class ExceptionCauseTypeCheck extends PythonSubscriptionCheck {
 
+  @Override
+  public boolean requiresTypeInferenceV2() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Kind.RAISE_STMT, ctx -> {
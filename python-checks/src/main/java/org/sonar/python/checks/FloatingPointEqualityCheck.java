@@ -62,6 +62,11 @@ public class FloatingPointEqualityCheck extends PythonSubscriptionCheck {
   private boolean isMathImported = false;
   private TypeChecker typeChecker;
 
+  @Override
+  public boolean requiresTypeInferenceV2() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, this::initializeAnalysis);
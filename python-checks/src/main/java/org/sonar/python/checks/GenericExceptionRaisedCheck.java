@@ -34,6 +34,11 @@ import static org.sonar.plugins.python.api.types.BuiltinTypes.EXCEPTION;
 @Rule(key = "S112")
 public class GenericExceptionRaisedCheck extends PythonSubscriptionCheck {
 
+  @Override
+  public boolean requiresTypeInferenceV2() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Kind.RAISE_STMT, ctx -> {
@@ -40,6 +40,11 @@ import static org.sonar.python.types.InferredTypes.typeClassLocation;
 @Rule(key = "S5644")
 public class ItemOperationsTypeCheck extends ItemOperationsType {
 
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   public boolean isValidSubscription(Expression subscriptionObject, String requiredMethod, @Nullable String classRequiredMethod,
                                      Map<LocationInFile, String> secondaries) {
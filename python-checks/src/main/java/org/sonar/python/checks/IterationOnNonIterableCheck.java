@@ -70,6 +70,11 @@ public class IterationOnNonIterableCheck extends IterationOnNonIterable {
     return type.canHaveMember("__iter__") || type.canHaveMember("__getitem__");
   }
 
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   boolean isAsyncIterable(Expression expression) {
     if (expression.is(Tree.Kind.CALL_EXPR)) {
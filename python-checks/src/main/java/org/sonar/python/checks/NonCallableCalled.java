@@ -30,6 +30,16 @@ import org.sonar.python.types.v2.TriBool;
 import static org.sonar.python.tree.TreeUtils.nameFromExpression;
 
 public abstract class NonCallableCalled extends PythonSubscriptionCheck {
+  @Override
+  public boolean requiresTypeInferenceV2() {
+    return true;
+  }
+
+  @Override
+  public boolean requiresReanalysisOnDependencyChange() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
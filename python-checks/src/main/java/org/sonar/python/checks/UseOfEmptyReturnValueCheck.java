@@ -39,6 +39,11 @@ public class UseOfEmptyReturnValueCheck extends PythonSubscriptionCheck {
 
   private static final String MESSAGE = "Remove this use of the output from \"%s\"; \"%s\" doesn’t return anything.";
 
+  @Override
+  public boolean requiresTypeInferenceV2() {
+    return true;
+  }
+
   @Override
   public void initialize(Context context) {
     context.registerSyntaxNodeConsumer(ASSIGNMENT_STMT, ctx -> checkReturnValue(((AssignmentStatement) ctx.syntaxNode()).assignedValue(), ctx));
@@ -42,7 +42,6 @@ import org.sonar.plugins.python.api.tree.StringElement;
 import org.sonar.plugins.python.api.tree.StringLiteral;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.checks.utils.Expressions;
-import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonar.python.regex.RegexContext;
 import org.sonar.python.tree.TreeUtils;
 import org.sonarsource.analyzer.commons.regex.RegexIssueLocation;
@@ -81,7 +80,13 @@ public abstract class AbstractRegexCheck extends PythonSubscriptionCheck {
 
   @Override
   public void initialize(Context context) {
-    context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, this::checkCall);
+    context.registerCallExpressionConsumer(lookedUpFunctions().keySet(), this::checkCall);
+  }
+
+  @Override
+  public void leaveFile() {
+    // parse results, and thus their elements, may be shared with other files
+    reportedRegexTrees.clear();
   }
 
   public abstract void checkRegex(RegexParseResult regexParseResult, CallExpression regexFunctionCall);
@@ -214,7 +219,7 @@ public abstract class AbstractRegexCheck extends PythonSubscriptionCheck {
   public PreciseIssue addIssue(RegexSyntaxElement regexTree, String message, @Nullable Integer cost, List<RegexIssueLocation> secondaries) {
     if (reportedRegexTrees.add(regexTree)) {
       PreciseIssue issue = regexContext.addIssue(regexTree, message);
-      secondaries.stream().map(PythonRegexIssueLocation::preciseLocation).forEach(issue::secondary);
+      secondaries.stream().map(regexContext::preciseLocation).forEach(issue::secondary);
       // TODO: Add cost to the issue SONARPY-893
       return issue;
     }
@@ -27,7 +27,6 @@ import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.quickfix.PythonQuickFix;
 import org.sonar.plugins.python.api.quickfix.PythonTextEdit;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.RegexSyntaxElement;
@@ -53,7 +52,7 @@ public class MultipleWhitespaceCheck extends AbstractRegexCheck {
 
     var whitespacesCount = regexTree.getRange().getEndingOffset() - regexTree.getRange().getBeginningOffset() + 1;
     var quickFixReplacement = String.format("{%d}", whitespacesCount);
-    var issueLocation = PythonRegexIssueLocation.preciseLocation(regexTree, null);
+    var issueLocation = regexContext.preciseLocation(regexTree, null);
     var textEdit = new PythonTextEdit(quickFixReplacement,
       issueLocation.startLine(),
       issueLocation.startLineOffset(),
@@ -27,7 +27,6 @@ import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.quickfix.PythonQuickFix;
 import org.sonar.plugins.python.api.quickfix.PythonTextEdit;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.RegexSyntaxElement;
@@ -50,7 +49,7 @@ public class SingleCharCharacterClassCheck extends AbstractRegexCheck {
   public PreciseIssue addIssue(RegexSyntaxElement regexTree, String message, @Nullable Integer cost, List<RegexIssueLocation> secondaries) {
     var issue = super.addIssue(regexTree, message, cost, secondaries);
     var quickFixReplacement = regexTree.getText();
-    var issueLocation = PythonRegexIssueLocation.preciseLocation(regexTree, null);
+    var issueLocation = regexContext.preciseLocation(regexTree, null);
     var textEdit = new PythonTextEdit(quickFixReplacement,
       issueLocation.startLine(), issueLocation.startLineOffset() - 1,
       issueLocation.endLine(), issueLocation.endLineOffset() + 1);
@@ -24,7 +24,6 @@ import java.util.Map;
 import java.util.regex.Pattern;
 import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.RegexTree;
 import org.sonarsource.analyzer.commons.regex.ast.SequenceTree;
@@ -51,7 +50,7 @@ public class StringReplaceCheck extends AbstractRegexCheck {
 
     if (isPlainString(regex)) {
       regexContext.addIssue(callExpression.callee(), MESSAGE)
-        .secondary(PythonRegexIssueLocation.preciseLocation(regex, SECONDARY_MESSAGE));
+        .secondary(regexContext.preciseLocation(regex, SECONDARY_MESSAGE));
     }
   }
 
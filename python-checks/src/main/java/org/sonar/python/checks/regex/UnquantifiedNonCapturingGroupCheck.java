@@ -27,7 +27,6 @@ import org.sonar.check.Rule;
 import org.sonar.plugins.python.api.quickfix.PythonQuickFix;
 import org.sonar.plugins.python.api.quickfix.PythonTextEdit;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.NonCapturingGroupTree;
@@ -53,7 +52,7 @@ public class UnquantifiedNonCapturingGroupCheck extends AbstractRegexCheck {
       .filter(group -> Objects.nonNull(group.getElement()))
       .map(group -> {
         var quickFixReplacement = group.getElement().getText();
-        var issueLocation = PythonRegexIssueLocation.preciseLocation(group, null);
+        var issueLocation = regexContext.preciseLocation(group, null);
         var textEdit = new PythonTextEdit(quickFixReplacement,
           issueLocation.startLine(),
           issueLocation.startLineOffset(),
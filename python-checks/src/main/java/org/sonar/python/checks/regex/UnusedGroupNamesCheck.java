@@ -41,7 +41,6 @@ import org.sonar.plugins.python.api.tree.QualifiedExpression;
 import org.sonar.plugins.python.api.tree.RegularArgument;
 import org.sonar.plugins.python.api.tree.StringLiteral;
 import org.sonar.plugins.python.api.tree.Tree;
-import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonar.python.tree.TreeUtils;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.CapturingGroupTree;
@@ -128,12 +127,12 @@ public class UnusedGroupNamesCheck extends AbstractRegexCheck {
         var issue = regexContext.addIssue(argumentExpression, message);
 
         if (groupsCollector.byName.isEmpty()) {
-          var secondaryLocation = PythonRegexIssueLocation.preciseLocation(regexParseResult.getResult(), NO_GROUP_NAMES_SECONDARY_MESSAGE);
+          var secondaryLocation = regexContext.preciseLocation(regexParseResult.getResult(), NO_GROUP_NAMES_SECONDARY_MESSAGE);
           issue.secondary(secondaryLocation);
         } else {
           groupsCollector.byName.forEach((groupName, group) -> {
             var secondaryMessage = String.format(GROUP_NAME_SECONDARY_MESSAGE_FORMAT, groupName);
-            var secondaryLocation = PythonRegexIssueLocation.preciseLocation(group, secondaryMessage);
+            var secondaryLocation = regexContext.preciseLocation(group, secondaryMessage);
             issue.secondary(secondaryLocation);
           });
         }
@@ -150,7 +149,7 @@ public class UnusedGroupNamesCheck extends AbstractRegexCheck {
         var message = getUseNameInsteadNumberMessage(group);
         var issue = regexContext.addIssue(argumentExpression, message);
         var secondaryMessage = String.format(GROUP_NUMBER_SECONDARY_MESSAGE_FORMAT, group.getGroupNumber());
-        var secondaryLocation = PythonRegexIssueLocation.preciseLocation(group, secondaryMessage);
+        var secondaryLocation = regexContext.preciseLocation(group, secondaryMessage);
         issue.secondary(secondaryLocation);
       });
   }
@@ -30,7 +30,6 @@ import org.sonar.plugins.python.api.IssueLocation;
 import org.sonar.plugins.python.api.quickfix.PythonQuickFix;
 import org.sonar.plugins.python.api.quickfix.PythonTextEdit;
 import org.sonar.plugins.python.api.tree.CallExpression;
-import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.CharacterRangeTree;
@@ -65,7 +64,7 @@ public class VerboseRegexCheck extends AbstractRegexCheck {
         Matcher matcher = issueMessagePattern.matcher(message);
         String quickFixReplacement = matcher.replaceFirst("$1");
 
-        IssueLocation issueLocation = PythonRegexIssueLocation.preciseLocation(regexTree, null);
+        IssueLocation issueLocation = regexContext.preciseLocation(regexTree, null);
 
         var textEdit = new PythonTextEdit(quickFixReplacement,
           issueLocation.startLine(),
@@ -85,7 +84,7 @@ public class VerboseRegexCheck extends AbstractRegexCheck {
       var upper = tree.getUpperBound().getText();
       if (upper.equals(lower)) {
         var quickFixReplacement = lower;
-        var issueLocation = PythonRegexIssueLocation.preciseLocation(tree, null);
+        var issueLocation = regexContext.preciseLocation(tree, null);
         var textEdit = new PythonTextEdit(quickFixReplacement,
           issueLocation.startLine(),
           issueLocation.startLineOffset(),
@@ -114,7 +113,7 @@ public class VerboseRegexCheck extends AbstractRegexCheck {
           var treeText = tree.getText();
           var nextTreeText = repetition.getElement().getText();
           if (treeText.equals(nextTreeText)) {
-            var repetitionLocation = PythonRegexIssueLocation.preciseLocation(repetition, null);
+            var repetitionLocation = regexContext.preciseLocation(repetition, null);
             var quickFixReplacement = "+";
             var textEdit = new PythonTextEdit(quickFixReplacement,
               repetitionLocation.startLine(),
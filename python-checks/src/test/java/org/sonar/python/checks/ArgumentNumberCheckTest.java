@@ -23,6 +23,8 @@ import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 import org.sonar.python.checks.utils.PythonCheckVerifier;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class ArgumentNumberCheckTest {
 
   @Test
@@ -36,4 +38,9 @@ class ArgumentNumberCheckTest {
       Arrays.asList("src/test/resources/checks/argumentNumberWithImport.py", "src/test/resources/checks/argumentNumberImported.py"),
       new ArgumentNumberCheck());
   }
+
+  @Test
+  void requires_reanalysis_on_dependency_change() {
+    assertThat(new ArgumentNumberCheck().requiresReanalysisOnDependencyChange()).isTrue();
+  }
 }
@@ -37,6 +37,25 @@ public interface PythonCheck {
     return true;
   }
 
+  /**
+   * Checks relying on {@link org.sonar.plugins.python.api.tree.Expression#typeV2()} or {@link SubscriptionContext#typeChecker()}
+   * must return true. When none of the checks executed on a file requires it, the corresponding type inference may be skipped.
+   */
+  @Beta
+  default boolean requiresTypeInferenceV2() {
+    return false;
+  }
+
+  /**
+   * On unchanged files, checks are only executed again when the API exported by one of the modules they depend on changed, e.g. a function
+   * signature. Checks relying on more than this API, like the definition locations of imported symbols, must return true to be executed
+   * again whenever one of these modules is modified.
+   */
+  @Beta
+  default boolean requiresReanalysisOnDependencyChange() {
+    return false;
+  }
+
   class PreciseIssue {
 
     private final PythonCheck check;
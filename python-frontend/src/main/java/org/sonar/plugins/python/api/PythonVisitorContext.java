@@ -28,6 +28,7 @@ import org.sonar.api.SonarProduct;
 import org.sonar.plugins.python.api.PythonCheck.PreciseIssue;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.python.AnalysisStatistics;
 import org.sonar.python.types.v2.TypeChecker;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.semantic.ProjectLevelSymbolTable;
@@ -64,21 +65,44 @@ public class PythonVisitorContext extends PythonInputFileContext {
 
     var symbolTable = new SymbolTableBuilderV2(rootTree)
       .build();
-    var projectLevelTypeTable = new ProjectLevelTypeTable(projectLevelSymbolTable);
+    var projectLevelTypeTable = projectLevelSymbolTable.projectLevelTypeTable();
     new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable).inferTypes(rootTree);
     this.typeChecker = new TypeChecker(projectLevelTypeTable);
   }
 
   public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
     ProjectLevelSymbolTable projectLevelSymbolTable, CacheContext cacheContext, SonarProduct sonarProduct) {
+    this(rootTree, pythonFile, workingDirectory, packageName, projectLevelSymbolTable, cacheContext, sonarProduct, true);
+  }
+
+  /**
+   * @param inferTypesV2 when false, {@link org.sonar.plugins.python.api.tree.Expression#typeV2()} is not computed,
+   *                     see {@link PythonCheck#requiresTypeInferenceV2()}
+   */
+  public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
+    ProjectLevelSymbolTable projectLevelSymbolTable, CacheContext cacheContext, SonarProduct sonarProduct, boolean inferTypesV2) {
+    this(rootTree, pythonFile, workingDirectory, packageName, projectLevelSymbolTable, cacheContext, sonarProduct, inferTypesV2, null);
+  }
+
+  /**
+   * @param statistics when not null, the computation of symbols and types is measured
+   */
+  public PythonVisitorContext(FileInput rootTree, PythonFile pythonFile, @Nullable File workingDirectory, String packageName,
+    ProjectLevelSymbolTable projectLevelSymbolTable, CacheContext cacheContext, SonarProduct sonarProduct, boolean inferTypesV2,
+    @Nullable AnalysisStatistics statistics) {
     super(pythonFile, workingDirectory, cacheContext, sonarProduct);
     this.rootTree = rootTree;
     this.parsingException = null;
-    new SymbolTableBuilder(packageName, pythonFile, projectLevelSymbolTable).visitFileInput(rootTree);
-    var symbolTable = new SymbolTableBuilderV2(rootTree)
-      .build();
-    var projectLevelTypeTable = new ProjectLevelTypeTable(projectLevelSymbolTable);
-    new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable).inferTypes(rootTree);
+    AnalysisStatistics.measure(statistics, AnalysisStatistics.SYMBOLS,
+      () -> new SymbolTableBuilder(packageName, pythonFile, projectLevelSymbolTable).visitFileInput(rootTree));
+    var projectLevelTypeTable = projectLevelSymbolTable.projectLevelTypeTable();
+    if (inferTypesV2) {
+      AnalysisStatistics.measure(statistics, AnalysisStatistics.TYPES, () -> {
+        var symbolTable = new SymbolTableBuilderV2(rootTree)
+          .build();
+        new TypeInferenceV2(projectLevelTypeTable, pythonFile, symbolTable).inferTypes(rootTree);
+      });
+    }
     this.typeChecker = new TypeChecker(projectLevelTypeTable);
   }
 
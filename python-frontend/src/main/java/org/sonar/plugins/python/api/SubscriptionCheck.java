@@ -19,7 +19,12 @@
  */
 package org.sonar.plugins.python.api;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.function.Consumer;
+import org.sonar.api.Beta;
+import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.Tree;
 
 public interface SubscriptionCheck {
@@ -29,5 +34,24 @@ public interface SubscriptionCheck {
 
     void registerSyntaxNodeConsumer(Tree.Kind elementType, Consumer<SubscriptionContext> consumer);
 
+    /**
+     * Registers a consumer of the call expressions whose callee symbol has one of the given fully qualified names. A name ending with
+     * a dot is a prefix: e.g. "hashlib." matches the calls of all the functions and classes of the hashlib module.
+     * The fully qualified name of a callee is resolved once per call and looked up in an index shared by all the checks, which is
+     * cheaper than registering a consumer of {@link Tree.Kind#CALL_EXPR} doing this lookup in each check.
+     */
+    @Beta
+    default void registerCallExpressionConsumer(Collection<String> calleeFullyQualifiedNames, Consumer<SubscriptionContext> consumer) {
+      Set<String> names = Set.copyOf(calleeFullyQualifiedNames);
+      registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> {
+        Symbol calleeSymbol = ((CallExpression) ctx.syntaxNode()).calleeSymbol();
+        String fullyQualifiedName = calleeSymbol != null ? calleeSymbol.fullyQualifiedName() : null;
+        if (fullyQualifiedName != null
+          && names.stream().anyMatch(name -> name.equals(fullyQualifiedName) || (name.endsWith(".") && fullyQualifiedName.startsWith(name)))) {
+          consumer.accept(ctx);
+        }
+      });
+    }
+
   }
 }
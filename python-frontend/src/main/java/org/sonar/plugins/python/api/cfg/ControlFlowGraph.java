@@ -20,14 +20,13 @@
 package org.sonar.plugins.python.api.cfg;
 
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
@@ -38,6 +37,7 @@ import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.StatementList;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.cfg.ControlFlowGraphBuilder;
+import org.sonar.python.tree.FileInputImpl;
 
 public class ControlFlowGraph {
 
@@ -47,9 +47,6 @@ public class ControlFlowGraph {
   private final CfgBlock start;
   private final CfgBlock end;
 
-  // we shouldn't prevent trees from being garbage collected
-  private static Set<Tree> treesWithCfgErrors = Collections.newSetFromMap(new WeakHashMap<>());
-
   public ControlFlowGraph(Set<CfgBlock> blocks, CfgBlock start, CfgBlock end) {
     this.blocks = blocks;
     this.start = start;
@@ -58,25 +55,44 @@ public class ControlFlowGraph {
 
   @CheckForNull
   private static ControlFlowGraph build(@Nullable StatementList statementList, PythonFile file) {
-    if (!treesWithCfgErrors.contains(statementList)) {
-      try {
-        return new ControlFlowGraphBuilder(statementList).getCfg();
-      } catch (Exception e) {
-        treesWithCfgErrors.add(statementList);
-        LOG.warn("Failed to build control flow graph in file [{}]: {}", file, e.getMessage());
-      }
+    try {
+      return new ControlFlowGraphBuilder(statementList).getCfg();
+    } catch (Exception e) {
+      LOG.warn("Failed to build control flow graph in file [{}]: {}", file, e.getMessage());
     }
     return null;
   }
 
+  /**
+   * CFGs are built once per function: type inference and checks share the same instance, which is released together
+   * with the tree of the file. Failures are recorded in the same per-file cache, so that they are not retried.
+   */
   @CheckForNull
   public static ControlFlowGraph build(FunctionDef functionDef, PythonFile file) {
-    return build(functionDef.body(), file);
+    return cached(functionDef, () -> build(functionDef.body(), file));
   }
 
   @CheckForNull
   public static ControlFlowGraph build(FileInput fileInput, PythonFile file) {
-    return build(fileInput.statements(), file);
+    return cached(fileInput, () -> build(fileInput.statements(), file));
+  }
+
+  @CheckForNull
+  private static ControlFlowGraph cached(Tree tree, Supplier<ControlFlowGraph> cfgBuilder) {
+    Tree root = tree;
+    while (root.parent() != null) {
+      root = root.parent();
+    }
+    if (!(root instanceof FileInputImpl fileInput)) {
+      return cfgBuilder.get();
+    }
+    Map<Tree, ControlFlowGraph> controlFlowGraphs = fileInput.controlFlowGraphs();
+    if (controlFlowGraphs.containsKey(tree)) {
+      return controlFlowGraphs.get(tree);
+    }
+    ControlFlowGraph cfg = cfgBuilder.get();
+    controlFlowGraphs.put(tree, cfg);
+    return cfg;
   }
 
   public CfgBlock start() {
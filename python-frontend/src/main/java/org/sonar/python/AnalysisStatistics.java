@@ -0,0 +1,154 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.tree.Tree;
+
+/**
+ * Opt-in instrumentation of the analysis: wall time, number of invocations and, when supported by the JVM, bytes
+ * allocated by the frontend phases and by each check, aggregated over all the analyzed files.
+ * Measures may be recorded concurrently from several threads.
+ */
+public class AnalysisStatistics {
+
+  public static final String PARSE = "parse";
+  public static final String TREE = "tree";
+  // V1 symbol table, including V1 type inference
+  public static final String SYMBOLS = "symbols";
+  // V2 symbol table and type inference
+  public static final String TYPES = "types";
+
+  @CheckForNull
+  private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN = threadMXBean();
+
+  private final Map<String, Statistic> phases = new ConcurrentHashMap<>();
+  private final Map<Class<?>, CheckStatistics> checks = new ConcurrentHashMap<>();
+
+  public static void measure(@Nullable AnalysisStatistics statistics, String phase, Runnable runnable) {
+    if (statistics == null) {
+      runnable.run();
+      return;
+    }
+    long startNanos = System.nanoTime();
+    long startAllocatedBytes = currentThreadAllocatedBytes();
+    try {
+      runnable.run();
+    } finally {
+      statistics.recordPhase(phase, startNanos, startAllocatedBytes);
+    }
+  }
+
+  public static boolean isAllocatedBytesSupported() {
+    return THREAD_MX_BEAN != null;
+  }
+
+  /**
+   * Bytes allocated so far by the current thread, 0 when not supported by the JVM.
+   */
+  public static long currentThreadAllocatedBytes() {
+    return THREAD_MX_BEAN != null ? THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() : 0;
+  }
+
+  public void recordPhase(String phase, long startNanos, long startAllocatedBytes) {
+    phases.computeIfAbsent(phase, p -> new Statistic()).record(startNanos, startAllocatedBytes);
+  }
+
+  /**
+   * @param kind kind of the node on which the check has been executed, null for the execution of the whole check on a file
+   */
+  public void recordCheck(Class<?> checkClass, @Nullable Tree.Kind kind, long startNanos, long startAllocatedBytes) {
+    checks.computeIfAbsent(checkClass, c -> new CheckStatistics()).record(kind, startNanos, startAllocatedBytes);
+  }
+
+  public Map<String, Statistic> phases() {
+    return Collections.unmodifiableMap(phases);
+  }
+
+  public Map<Class<?>, CheckStatistics> checks() {
+    return Collections.unmodifiableMap(checks);
+  }
+
+  @CheckForNull
+  private static com.sun.management.ThreadMXBean threadMXBean() {
+    try {
+      if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean
+        && threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled()) {
+        return threadMXBean;
+      }
+    } catch (LinkageError | UnsupportedOperationException e) {
+      // com.sun.management is not available on this JVM
+    }
+    return null;
+  }
+
+  public static class Statistic {
+    private final LongAdder count = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    void record(long startNanos, long startAllocatedBytes) {
+      long endAllocatedBytes = currentThreadAllocatedBytes();
+      long endNanos = System.nanoTime();
+      add(endNanos - startNanos, endAllocatedBytes - startAllocatedBytes);
+    }
+
+    void add(long elapsedNanos, long allocated) {
+      count.increment();
+      nanos.add(elapsedNanos);
+      allocatedBytes.add(allocated);
+    }
+
+    public long count() {
+      return count.sum();
+    }
+
+    public long nanos() {
+      return nanos.sum();
+    }
+
+    public long allocatedBytes() {
+      return allocatedBytes.sum();
+    }
+  }
+
+  public static class CheckStatistics extends Statistic {
+    private final Map<Tree.Kind, Statistic> byKind = new ConcurrentHashMap<>();
+
+    void record(@Nullable Tree.Kind kind, long startNanos, long startAllocatedBytes) {
+      long endAllocatedBytes = currentThreadAllocatedBytes();
+      long endNanos = System.nanoTime();
+      add(endNanos - startNanos, endAllocatedBytes - startAllocatedBytes);
+      if (kind != null) {
+        byKind.computeIfAbsent(kind, k -> new Statistic()).add(endNanos - startNanos, endAllocatedBytes - startAllocatedBytes);
+      }
+    }
+
+    public Map<Tree.Kind, Statistic> byKind() {
+      return Collections.unmodifiableMap(byKind);
+    }
+  }
+}
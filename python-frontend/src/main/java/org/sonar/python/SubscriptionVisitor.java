@@ -22,12 +22,16 @@ package org.sonar.python;
 import java.io.File;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import javax.annotation.CheckForNull;
@@ -40,9 +44,11 @@ import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVersionUtils;
 import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.SubscriptionCheck;
 import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
+import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.StringElement;
 import org.sonar.plugins.python.api.tree.Token;
@@ -52,52 +58,141 @@ import org.sonar.python.types.v2.TypeChecker;
 import org.sonar.python.regex.PythonAnalyzerRegexSource;
 import org.sonar.python.regex.PythonRegexIssueLocation;
 import org.sonar.python.regex.RegexContext;
+import org.sonar.python.regex.RegexParseCache;
 import org.sonar.python.types.TypeShed;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.RegexParser;
+import org.sonarsource.analyzer.commons.regex.RegexSource;
 import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
 import org.sonarsource.analyzer.commons.regex.ast.RegexSyntaxElement;
 
 public class SubscriptionVisitor {
 
-  private final EnumMap<Kind, List<SubscriptionContextImpl>> consumers = new EnumMap<>(Kind.class);
+  private static final SubscriptionContextImpl[] NO_CONSUMERS = new SubscriptionContextImpl[0];
+
+  // consumers indexed by the ordinal of the kind they subscribed to
+  private final SubscriptionContextImpl[][] consumers = new SubscriptionContextImpl[Kind.values().length][];
+  // tokens are leaves: they are not pushed on the stack when no check subscribed to them
+  private final boolean visitTokens;
+  // FILE_INPUT can only be the root: the tree is not traversed when no check subscribed to another kind
+  private final boolean visitDescendants;
+  // consumers of call expressions, in registration order, and indexed by the fully qualified names or prefixes of the callees they handle
+  private final List<SubscriptionContextImpl> callConsumers = new ArrayList<>();
+  private final Map<String, List<SubscriptionContextImpl>> callConsumersByName = new HashMap<>();
+  private final Map<String, List<SubscriptionContextImpl>> callConsumersByPrefix = new HashMap<>();
+  // consumers matching each callee met in the file
+  private final Map<String, SubscriptionContextImpl[]> callConsumersByCallee = new HashMap<>();
   private final PythonVisitorContext pythonVisitorContext;
   private Tree currentElement;
   private final HashMap<String, RegexParseResult> regexCache = new HashMap<>();
+  // file-specific views of the sources of the regex parse results shared with other files
+  private final Map<RegexSource, PythonAnalyzerRegexSource> regexSourceViews = new IdentityHashMap<>();
+  @Nullable
+  private final AnalysisStatistics statistics;
 
   public static void analyze(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext) {
-    SubscriptionVisitor subscriptionVisitor = new SubscriptionVisitor(checks, pythonVisitorContext);
+    analyze(checks, pythonVisitorContext, null);
+  }
+
+  /**
+   * @param statistics when not null, the execution of each check is measured
+   */
+  public static void analyze(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext, @Nullable AnalysisStatistics statistics) {
+    SubscriptionVisitor subscriptionVisitor = new SubscriptionVisitor(checks, pythonVisitorContext, statistics);
     FileInput rootTree = pythonVisitorContext.rootTree();
     if (rootTree != null) {
       subscriptionVisitor.scan(rootTree);
-      checks.forEach(PythonSubscriptionCheck::leaveFile);
+      if (statistics == null) {
+        checks.forEach(PythonSubscriptionCheck::leaveFile);
+      } else {
+        checks.forEach(check -> {
+          long startNanos = System.nanoTime();
+          long startAllocatedBytes = AnalysisStatistics.currentThreadAllocatedBytes();
+          check.leaveFile();
+          statistics.recordCheck(check.getClass(), null, startNanos, startAllocatedBytes);
+        });
+      }
     }
   }
 
-  private SubscriptionVisitor(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext) {
+  private SubscriptionVisitor(Collection<PythonSubscriptionCheck> checks, PythonVisitorContext pythonVisitorContext, @Nullable AnalysisStatistics statistics) {
     this.pythonVisitorContext = pythonVisitorContext;
+    this.statistics = statistics;
+    EnumMap<Kind, List<SubscriptionContextImpl>> consumersByKind = new EnumMap<>(Kind.class);
     for (PythonSubscriptionCheck check : checks) {
-      check.initialize((elementType, consumer) -> {
-        List<SubscriptionContextImpl> elementConsumers = consumers.computeIfAbsent(elementType, c -> new ArrayList<>());
-        elementConsumers.add(new SubscriptionContextImpl(check, consumer));
+      check.initialize(new SubscriptionCheck.Context() {
+        @Override
+        public void registerSyntaxNodeConsumer(Kind elementType, Consumer<SubscriptionContext> consumer) {
+          List<SubscriptionContextImpl> elementConsumers = consumersByKind.computeIfAbsent(elementType, c -> new ArrayList<>());
+          elementConsumers.add(new SubscriptionContextImpl(check, consumer));
+        }
+
+        @Override
+        public void registerCallExpressionConsumer(Collection<String> calleeFullyQualifiedNames, Consumer<SubscriptionContext> consumer) {
+          SubscriptionContextImpl callConsumer = new SubscriptionContextImpl(check, consumer);
+          callConsumers.add(callConsumer);
+          for (String name : calleeFullyQualifiedNames) {
+            Map<String, List<SubscriptionContextImpl>> index = name.endsWith(".") ? callConsumersByPrefix : callConsumersByName;
+            index.computeIfAbsent(name, n -> new ArrayList<>()).add(callConsumer);
+          }
+        }
       });
     }
+    Arrays.fill(consumers, NO_CONSUMERS);
+    consumersByKind.forEach((kind, kindConsumers) -> consumers[kind.ordinal()] = kindConsumers.toArray(NO_CONSUMERS));
+    this.visitTokens = consumersByKind.containsKey(Kind.TOKEN);
+    this.visitDescendants = !callConsumers.isEmpty() || consumersByKind.keySet().stream().anyMatch(kind -> kind != Kind.FILE_INPUT);
   }
 
   private void scan(Tree element) {
+    if (!visitDescendants) {
+      visit(element);
+      return;
+    }
     Deque<Tree> stack = new ArrayDeque<>();
     stack.push(element);
     while (!stack.isEmpty()) {
-      currentElement = stack.pop();
-      consumers.getOrDefault(currentElement.getKind(), Collections.emptyList()).forEach(SubscriptionContextImpl::execute);
-      for (int i = currentElement.children().size() - 1; i >= 0; i--) {
-        if (currentElement.children().get(i) != null) {
-          stack.push(currentElement.children().get(i));
+      Tree tree = stack.pop();
+      visit(tree);
+      List<Tree> children = tree.children();
+      for (int i = children.size() - 1; i >= 0; i--) {
+        Tree child = children.get(i);
+        if (child != null && (visitTokens || child.getKind() != Kind.TOKEN)) {
+          stack.push(child);
+        }
+      }
+    }
+  }
+
+  private void visit(Tree tree) {
+    currentElement = tree;
+    for (SubscriptionContextImpl consumer : consumers[tree.getKind().ordinal()]) {
+      consumer.execute();
+    }
+    if (!callConsumers.isEmpty() && tree.getKind() == Kind.CALL_EXPR) {
+      Symbol calleeSymbol = ((CallExpression) tree).calleeSymbol();
+      String calleeFullyQualifiedName = calleeSymbol != null ? calleeSymbol.fullyQualifiedName() : null;
+      if (calleeFullyQualifiedName != null) {
+        for (SubscriptionContextImpl consumer : callConsumersByCallee.computeIfAbsent(calleeFullyQualifiedName, this::matchingCallConsumers)) {
+          consumer.execute();
         }
       }
     }
   }
 
+  private SubscriptionContextImpl[] matchingCallConsumers(String calleeFullyQualifiedName) {
+    Set<SubscriptionContextImpl> matching = new HashSet<>(callConsumersByName.getOrDefault(calleeFullyQualifiedName, List.of()));
+    if (!callConsumersByPrefix.isEmpty()) {
+      for (int dot = calleeFullyQualifiedName.indexOf('.'); dot >= 0; dot = calleeFullyQualifiedName.indexOf('.', dot + 1)) {
+        matching.addAll(callConsumersByPrefix.getOrDefault(calleeFullyQualifiedName.substring(0, dot + 1), List.of()));
+      }
+    }
+    if (matching.isEmpty()) {
+      return NO_CONSUMERS;
+    }
+    return callConsumers.stream().filter(matching::contains).toArray(SubscriptionContextImpl[]::new);
+  }
+
   private class SubscriptionContextImpl implements SubscriptionContext, RegexContext {
     private final PythonCheck check;
     private final Consumer<SubscriptionContext> consumer;
@@ -108,7 +203,17 @@ public class SubscriptionVisitor {
     }
 
     public void execute() {
-      consumer.accept(this);
+      if (statistics == null) {
+        consumer.accept(this);
+        return;
+      }
+      long startNanos = System.nanoTime();
+      long startAllocatedBytes = AnalysisStatistics.currentThreadAllocatedBytes();
+      try {
+        consumer.accept(this);
+      } finally {
+        statistics.recordCheck(check.getClass(), currentElement.getKind(), startNanos, startAllocatedBytes);
+      }
     }
 
     @Override
@@ -138,7 +243,14 @@ public class SubscriptionVisitor {
 
     @Override
     public PythonCheck.PreciseIssue addIssue(RegexSyntaxElement element, @Nullable String message) {
-      return addIssue(PythonRegexIssueLocation.preciseLocation(element, message));
+      return addIssue(preciseLocation(element, message));
+    }
+
+    @Override
+    public IssueLocation preciseLocation(List<RegexSyntaxElement> syntaxElements, @Nullable String message) {
+      RegexSource source = syntaxElements.get(0).getSource();
+      PythonAnalyzerRegexSource view = regexSourceViews.getOrDefault(source, (PythonAnalyzerRegexSource) source);
+      return PythonRegexIssueLocation.preciseLocation(view, syntaxElements, message);
     }
 
     @Override
@@ -188,9 +300,19 @@ public class SubscriptionVisitor {
       return pythonVisitorContext.typeChecker();
     }
 
+    @Override
     public RegexParseResult regexForStringElement(StringElement stringElement, FlagSet flagSet) {
-      return regexCache.computeIfAbsent(stringElement.hashCode() + "-" + flagSet.getMask(),
-        s -> new RegexParser(new PythonAnalyzerRegexSource(stringElement), flagSet).parse());
+      return regexCache.computeIfAbsent(stringElement.hashCode() + "-" + flagSet.getMask(), s -> parseRegex(stringElement, flagSet));
+    }
+
+    private RegexParseResult parseRegex(StringElement stringElement, FlagSet flagSet) {
+      PythonAnalyzerRegexSource view = new PythonAnalyzerRegexSource(stringElement);
+      RegexParseCache.Entry shared = RegexParseCache.shared().parse(stringElement.trimmedQuotesValue(), stringElement.prefix(), flagSet);
+      if (regexSourceViews.putIfAbsent(shared.source(), view) == null) {
+        return shared.result();
+      }
+      // the shared elements are already located at another string element of this file
+      return new RegexParser(view, flagSet).parse();
     }
   }
 }
@@ -21,7 +21,9 @@ package org.sonar.python.caching;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.sonar.plugins.python.api.tree.Token;
@@ -62,6 +64,17 @@ public class CpdSerializer {
       this.data = data;
       this.stringTable = stringTable;
     }
+
+    /**
+     * Both parts of the result in a single cache entry: the length of the string table, the string table, then the data.
+     */
+    public byte[] toByteArray() {
+      return ByteBuffer.allocate(Integer.BYTES + stringTable.length + data.length)
+        .putInt(stringTable.length)
+        .put(stringTable)
+        .put(data)
+        .array();
+    }
   }
 
   public static SerializationResult serialize(List<Token> tokens) throws IOException {
@@ -72,6 +85,18 @@ public class CpdSerializer {
     return new Deserializer(new VarLengthInputStream(dataBytes), new VarLengthInputStream(stringTableBytes)).convert();
   }
 
+  /**
+   * @param bytes the result of {@link SerializationResult#toByteArray()}
+   */
+  public static List<TokenInfo> deserialize(byte[] bytes) throws IOException {
+    int stringTableLength = bytes.length < Integer.BYTES ? -1 : ByteBuffer.wrap(bytes).getInt();
+    if (stringTableLength < 0 || stringTableLength > bytes.length - Integer.BYTES) {
+      throw new IOException("Can't read data from cache, format corrupted");
+    }
+    int dataOffset = Integer.BYTES + stringTableLength;
+    return deserialize(Arrays.copyOfRange(bytes, dataOffset, bytes.length), Arrays.copyOfRange(bytes, Integer.BYTES, dataOffset));
+  }
+
   private static class Serializer {
     private final ByteArrayOutputStream stream;
     private final VarLengthOutputStream out;
@@ -21,6 +21,7 @@ package org.sonar.python.caching;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.CheckForNull;
 import org.sonar.api.batch.sensor.cache.ReadCache;
 import org.slf4j.Logger;
@@ -31,6 +32,8 @@ public class PythonReadCacheImpl implements PythonReadCache {
   private static final Logger LOG = LoggerFactory.getLogger(PythonReadCacheImpl.class);
 
   private final ReadCache readCache;
+  private final AtomicLong entriesRead = new AtomicLong();
+  private final AtomicLong bytesRead = new AtomicLong();
 
   public PythonReadCacheImpl(ReadCache readCache) {
     this.readCache = readCache;
@@ -46,7 +49,10 @@ public class PythonReadCacheImpl implements PythonReadCache {
   public byte[] readBytes(String key) {
     if (readCache.contains(key)) {
       try (var in = read(key)) {
-        return in.readAllBytes();
+        byte[] bytes = in.readAllBytes();
+        entriesRead.incrementAndGet();
+        bytesRead.addAndGet(bytes.length);
+        return bytes;
       } catch (IOException e) {
         LOG.debug("Unable to read data for key: \"{}\"", key);
       }
@@ -60,4 +66,15 @@ public class PythonReadCacheImpl implements PythonReadCache {
   public boolean contains(String key) {
     return readCache.contains(key);
   }
+
+  /**
+   * Number of entries and bytes read through {@link #readBytes(String)} since the creation of this cache.
+   */
+  public long entriesRead() {
+    return entriesRead.get();
+  }
+
+  public long bytesRead() {
+    return bytesRead.get();
+  }
 }
@@ -19,12 +19,16 @@
  */
 package org.sonar.python.caching;
 
+import java.util.concurrent.atomic.AtomicLong;
 import org.sonar.api.batch.sensor.cache.WriteCache;
 import org.sonar.plugins.python.api.caching.PythonWriteCache;
 
 public class PythonWriteCacheImpl implements PythonWriteCache {
 
   private WriteCache writeCache;
+  private final AtomicLong entriesWritten = new AtomicLong();
+  private final AtomicLong bytesWritten = new AtomicLong();
+  private final AtomicLong entriesCopied = new AtomicLong();
 
   public PythonWriteCacheImpl(WriteCache writeCache) {
     this.writeCache = writeCache;
@@ -33,10 +37,25 @@ public class PythonWriteCacheImpl implements PythonWriteCache {
   @Override
   public void write(String key, byte[] data) {
     this.writeCache.write(key, data);
+    entriesWritten.incrementAndGet();
+    bytesWritten.addAndGet(data.length);
   }
 
   @Override
   public void copyFromPrevious(String key) {
     this.writeCache.copyFromPrevious(key);
+    entriesCopied.incrementAndGet();
+  }
+
+  public long entriesWritten() {
+    return entriesWritten.get();
+  }
+
+  public long bytesWritten() {
+    return bytesWritten.get();
+  }
+
+  public long entriesCopied() {
+    return entriesCopied.get();
   }
 }
@@ -0,0 +1,143 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.index;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Hash of the API exported by a module, i.e. of the descriptors of its global symbols.
+ * The fingerprint does not depend on the iteration order of the descriptors nor on the location of their definitions:
+ * editing the body of a function, or adding lines above it, leaves the fingerprint of the module unchanged.
+ */
+public final class DescriptorFingerprint {
+
+  private DescriptorFingerprint() {
+  }
+
+  public static byte[] of(Collection<Descriptor> descriptors) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return digest.digest(canonicalForm(descriptors).getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  static String canonicalForm(Collection<Descriptor> descriptors) {
+    StringBuilder sb = new StringBuilder();
+    appendDescriptors(sb, descriptors);
+    return sb.toString();
+  }
+
+  private static void appendDescriptors(StringBuilder sb, Collection<Descriptor> descriptors) {
+    sb.append('[');
+    descriptors.stream()
+      .map(descriptor -> {
+        StringBuilder descriptorBuilder = new StringBuilder();
+        appendDescriptor(descriptorBuilder, descriptor);
+        return descriptorBuilder.toString();
+      })
+      .sorted()
+      .forEach(sb::append);
+    sb.append(']');
+  }
+
+  private static void appendDescriptor(StringBuilder sb, Descriptor descriptor) {
+    sb.append(descriptor.kind().name().charAt(0));
+    appendString(sb, descriptor.name());
+    appendString(sb, descriptor.fullyQualifiedName());
+    if (descriptor instanceof VariableDescriptor variableDescriptor) {
+      appendString(sb, variableDescriptor.annotatedType());
+    } else if (descriptor instanceof FunctionDescriptor functionDescriptor) {
+      appendFunction(sb, functionDescriptor);
+    } else if (descriptor instanceof ClassDescriptor classDescriptor) {
+      appendClass(sb, classDescriptor);
+    } else if (descriptor instanceof AmbiguousDescriptor ambiguousDescriptor) {
+      appendDescriptors(sb, ambiguousDescriptor.alternatives());
+    } else if (descriptor instanceof ModuleDescriptor moduleDescriptor) {
+      Map<String, Descriptor> members = moduleDescriptor.members();
+      appendDescriptors(sb, members.values());
+    }
+  }
+
+  private static void appendFunction(StringBuilder sb, FunctionDescriptor functionDescriptor) {
+    sb.append('(');
+    for (FunctionDescriptor.Parameter parameter : functionDescriptor.parameters()) {
+      appendString(sb, parameter.name());
+      appendString(sb, parameter.annotatedType());
+      appendFlags(sb, parameter.hasDefaultValue(), parameter.isKeywordOnly(), parameter.isPositionalOnly(), parameter.isPositionalVariadic(),
+        parameter.isKeywordVariadic());
+    }
+    sb.append(')');
+    appendFlags(sb, functionDescriptor.isAsynchronous(), functionDescriptor.isInstanceMethod(), functionDescriptor.hasDecorators());
+    appendStrings(sb, functionDescriptor.decorators());
+    appendString(sb, functionDescriptor.annotatedReturnTypeName());
+    appendTypeAnnotation(sb, functionDescriptor.typeAnnotationDescriptor());
+  }
+
+  private static void appendClass(StringBuilder sb, ClassDescriptor classDescriptor) {
+    appendStrings(sb, classDescriptor.superClasses());
+    appendDescriptors(sb, classDescriptor.members());
+    appendFlags(sb, classDescriptor.hasDecorators(), classDescriptor.hasSuperClassWithoutDescriptor(), classDescriptor.hasMetaClass(),
+      classDescriptor.supportsGenerics());
+    appendString(sb, classDescriptor.metaclassFQN());
+  }
+
+  private static void appendTypeAnnotation(StringBuilder sb, @Nullable TypeAnnotationDescriptor typeAnnotationDescriptor) {
+    if (typeAnnotationDescriptor == null) {
+      sb.append('-');
+      return;
+    }
+    sb.append('<');
+    appendString(sb, typeAnnotationDescriptor.prettyPrintedName());
+    appendString(sb, typeAnnotationDescriptor.kind().name());
+    appendString(sb, typeAnnotationDescriptor.fullyQualifiedName());
+    typeAnnotationDescriptor.args().forEach(arg -> appendTypeAnnotation(sb, arg));
+    sb.append('>');
+  }
+
+  private static void appendStrings(StringBuilder sb, Collection<String> strings) {
+    sb.append('(');
+    strings.forEach(s -> appendString(sb, s));
+    sb.append(')');
+  }
+
+  private static void appendFlags(StringBuilder sb, boolean... flags) {
+    for (boolean flag : flags) {
+      sb.append(flag ? '1' : '0');
+    }
+  }
+
+  /**
+   * Strings are prefixed by their length so that the canonical form cannot be ambiguous, whatever characters they contain.
+   */
+  private static void appendString(StringBuilder sb, @Nullable String s) {
+    if (s == null) {
+      sb.append('-');
+      return;
+    }
+    sb.append(s.length()).append(':').append(s);
+  }
+}
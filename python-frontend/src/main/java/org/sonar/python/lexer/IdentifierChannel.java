@@ -0,0 +1,98 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.lexer;
+
+import com.sonar.sslr.api.GenericTokenType;
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.TokenType;
+import com.sonar.sslr.impl.Lexer;
+import java.util.HashMap;
+import java.util.Map;
+import org.sonar.python.api.PythonKeyword;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+/**
+ * Identifiers and keywords, without regular expressions: ASCII characters are classified through a lookup table
+ * and any non-ASCII character is accepted, like the {@code [^\u0000-\u007F]} alternative of the former regular expression.
+ *
+ * http://docs.python.org/reference/lexical_analysis.html#identifiers
+ */
+public class IdentifierChannel extends Channel<Lexer> {
+
+  private static final char EOF = (char) -1;
+  private static final boolean[] ASCII_IDENTIFIER_START = new boolean[128];
+  private static final boolean[] ASCII_IDENTIFIER_PART = new boolean[128];
+
+  static {
+    for (char ch = 'a'; ch <= 'z'; ch++) {
+      ASCII_IDENTIFIER_START[ch] = true;
+      ASCII_IDENTIFIER_START[Character.toUpperCase(ch)] = true;
+    }
+    ASCII_IDENTIFIER_START['_'] = true;
+    System.arraycopy(ASCII_IDENTIFIER_START, 0, ASCII_IDENTIFIER_PART, 0, ASCII_IDENTIFIER_START.length);
+    for (char ch = '0'; ch <= '9'; ch++) {
+      ASCII_IDENTIFIER_PART[ch] = true;
+    }
+  }
+
+  private final Map<String, TokenType> keywords = new HashMap<>();
+  private final StringBuilder sb = new StringBuilder();
+
+  public IdentifierChannel() {
+    for (PythonKeyword keyword : PythonKeyword.values()) {
+      keywords.put(keyword.getValue(), keyword);
+    }
+  }
+
+  @Override
+  public boolean consume(CodeReader code, Lexer output) {
+    if (!isIdentifierChar(code.charAt(0), ASCII_IDENTIFIER_START)) {
+      return false;
+    }
+    int length = 1;
+    while (isIdentifierChar(code.charAt(length), ASCII_IDENTIFIER_PART)) {
+      length++;
+    }
+    int line = code.getLinePosition();
+    int column = code.getColumnPosition();
+    for (int i = 0; i < length; i++) {
+      sb.append((char) code.pop());
+    }
+    String value = sb.toString();
+    sb.setLength(0);
+    output.addToken(Token.builder()
+      .setLine(line)
+      .setColumn(column)
+      .setURI(output.getURI())
+      .setValueAndOriginalValue(value)
+      .setType(keywords.getOrDefault(value, GenericTokenType.IDENTIFIER))
+      .build());
+    return true;
+  }
+
+  private static boolean isIdentifierChar(char ch, boolean[] asciiTable) {
+    if (ch < 128) {
+      return asciiTable[ch];
+    }
+    return ch != EOF;
+  }
+
+}
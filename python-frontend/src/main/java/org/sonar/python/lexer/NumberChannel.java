@@ -0,0 +1,192 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.lexer;
+
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.impl.Lexer;
+import org.sonar.python.api.PythonTokenType;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+/**
+ * Hand-written equivalent of the number regular expressions, tried in the same order:
+ * <ol>
+ *   <li>{@code [0-9]++(_?[0-9])*+\.[0-9]*+(_?[0-9])*+EXP?+J?+}</li>
+ *   <li>{@code \.[0-9]++(_?[0-9])*+EXP?+J?+}</li>
+ *   <li>{@code [0-9]++(_?[0-9])*+EXP J?+}</li>
+ *   <li>{@code [0-9]++(_?[0-9])*+J}</li>
+ *   <li>{@code 0[oO]?+(_?[0-7])++L?+}, {@code 0[xX](_?[0-9a-fA-F])++L?+}, {@code 0[bB](_?[01])++L?+}</li>
+ *   <li>{@code [1-9](_?[0-9])*+L?+}, {@code 0(_?0)*+L?+}</li>
+ * </ol>
+ * where {@code EXP} is {@code [Ee][+-]?+[0-9_]++}, {@code J} is {@code [jJ]} and {@code L} is {@code [lL]}.
+ *
+ * http://docs.python.org/reference/lexical_analysis.html#floating-point-literals
+ * http://docs.python.org/reference/lexical_analysis.html#imaginary-literals
+ * http://docs.python.org/reference/lexical_analysis.html#integer-and-long-integer-literals
+ * https://www.python.org/dev/peps/pep-0515/
+ */
+public class NumberChannel extends Channel<Lexer> {
+
+  private final StringBuilder sb = new StringBuilder();
+
+  @Override
+  public boolean consume(CodeReader code, Lexer output) {
+    int length = numberLength(code);
+    if (length == 0) {
+      return false;
+    }
+    int line = code.getLinePosition();
+    int column = code.getColumnPosition();
+    for (int i = 0; i < length; i++) {
+      sb.append((char) code.pop());
+    }
+    output.addToken(Token.builder()
+      .setLine(line)
+      .setColumn(column)
+      .setURI(output.getURI())
+      .setValueAndOriginalValue(sb.toString())
+      .setType(PythonTokenType.NUMBER)
+      .build());
+    sb.setLength(0);
+    return true;
+  }
+
+  private static int numberLength(CodeReader code) {
+    char first = code.charAt(0);
+    if (first == '.') {
+      if (!isDigit(code.charAt(1))) {
+        return 0;
+      }
+      return imaginarySuffix(code, exponent(code, digitPart(code, 1)));
+    }
+    if (!isDigit(first)) {
+      return 0;
+    }
+    int integerEnd = digitPart(code, 0);
+    if (code.charAt(integerEnd) == '.') {
+      return imaginarySuffix(code, exponent(code, digitPart(code, integerEnd + 1)));
+    }
+    int exponentEnd = exponent(code, integerEnd);
+    if (exponentEnd > integerEnd) {
+      return imaginarySuffix(code, exponentEnd);
+    }
+    if (isImaginarySuffix(code.charAt(integerEnd))) {
+      return integerEnd + 1;
+    }
+    return integerLength(code, first);
+  }
+
+  private static int integerLength(CodeReader code, char first) {
+    if (first != '0') {
+      return longSuffix(code, digitPart(code, 1));
+    }
+    char second = code.charAt(1);
+    int prefixEnd = (second == 'o' || second == 'O') ? 2 : 1;
+    int end = radixDigits(code, prefixEnd, 8);
+    if (end > prefixEnd) {
+      return longSuffix(code, end);
+    }
+    if (second == 'x' || second == 'X') {
+      end = radixDigits(code, 2, 16);
+      if (end > 2) {
+        return longSuffix(code, end);
+      }
+    }
+    if (second == 'b' || second == 'B') {
+      end = radixDigits(code, 2, 2);
+      if (end > 2) {
+        return longSuffix(code, end);
+      }
+    }
+    return longSuffix(code, radixDigits(code, 1, 1));
+  }
+
+  /**
+   * {@code (_?[0-9])*+} starting at {@code index}.
+   */
+  private static int digitPart(CodeReader code, int index) {
+    return radixDigits(code, index, 10);
+  }
+
+  /**
+   * {@code (_?d)*+} starting at {@code index}, where {@code d} is a digit of the given radix.
+   * Radix 1 stands for the "0" digit only.
+   */
+  private static int radixDigits(CodeReader code, int index, int radix) {
+    int i = index;
+    while (true) {
+      if (isRadixDigit(code.charAt(i), radix)) {
+        i++;
+      } else if (code.charAt(i) == '_' && isRadixDigit(code.charAt(i + 1), radix)) {
+        i += 2;
+      } else {
+        return i;
+      }
+    }
+  }
+
+  /**
+   * {@code ([Ee][+-]?+[0-9_]++)?+} starting at {@code index}.
+   */
+  private static int exponent(CodeReader code, int index) {
+    char ch = code.charAt(index);
+    if (ch != 'e' && ch != 'E') {
+      return index;
+    }
+    int i = index + 1;
+    ch = code.charAt(i);
+    if (ch == '+' || ch == '-') {
+      i++;
+    }
+    int digitsStart = i;
+    while (isDigit(code.charAt(i)) || code.charAt(i) == '_') {
+      i++;
+    }
+    return i > digitsStart ? i : index;
+  }
+
+  private static int imaginarySuffix(CodeReader code, int index) {
+    return isImaginarySuffix(code.charAt(index)) ? (index + 1) : index;
+  }
+
+  private static int longSuffix(CodeReader code, int index) {
+    char ch = code.charAt(index);
+    return (ch == 'l' || ch == 'L') ? (index + 1) : index;
+  }
+
+  private static boolean isImaginarySuffix(char ch) {
+    return ch == 'j' || ch == 'J';
+  }
+
+  private static boolean isDigit(char ch) {
+    return ch >= '0' && ch <= '9';
+  }
+
+  private static boolean isRadixDigit(char ch, int radix) {
+    return switch (radix) {
+      case 1 -> ch == '0';
+      case 2 -> ch == '0' || ch == '1';
+      case 8 -> ch >= '0' && ch <= '7';
+      case 16 -> isDigit(ch) || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F');
+      default -> isDigit(ch);
+    };
+  }
+
+}
@@ -49,23 +49,70 @@ public final class PythonLexer {
 
   private static final String NUMBER_REGEX = "[0-9]++(_?[0-9])*+";
 
+  /**
+   * JVM system property (e.g. {@code -Dorg.sonar.python.lexer.regexpChannels=true} in {@code SONAR_SCANNER_OPTS}), not an
+   * analysis property: when set to true, whitespaces, comments, numbers and identifiers are lexed by the former regular
+   * expression channels instead of the hand-written ones. It is read each time a lexer is created.
+   */
+  public static final String REGEXP_CHANNELS_SYSTEM_PROPERTY = "org.sonar.python.lexer.regexpChannels";
+
   private PythonLexer() {
   }
 
   public static Lexer create(LexerState lexerState) {
+    return create(lexerState, useRegexpChannels());
+  }
+
+  static Lexer create(LexerState lexerState, boolean regexpChannels) {
     Lexer.Builder builder = Lexer.builder().withFailIfNoChannelToConsumeOneCharacter(true);
-    addCommonChannels(builder, lexerState);
+    addCommonChannels(builder, lexerState, regexpChannels);
     return builder.build();
   }
 
   public static Lexer ipynbLexer(LexerState lexerState) {
+    return ipynbLexer(lexerState, useRegexpChannels());
+  }
+
+  static Lexer ipynbLexer(LexerState lexerState, boolean regexpChannels) {
     Lexer.Builder builder = Lexer.builder().withFailIfNoChannelToConsumeOneCharacter(true);
     builder.withChannel(new IPynbCellDelimiterChannel(lexerState));
-    addCommonChannels(builder, lexerState);
+    addCommonChannels(builder, lexerState, regexpChannels);
     return builder.build();
   }
 
-  private static void addCommonChannels(Lexer.Builder builder, LexerState lexerState) {
+  private static boolean useRegexpChannels() {
+    return Boolean.getBoolean(REGEXP_CHANNELS_SYSTEM_PROPERTY);
+  }
+
+  private static void addCommonChannels(Lexer.Builder builder, LexerState lexerState, boolean regexpChannels) {
+    if (regexpChannels) {
+      addRegexpChannels(builder, lexerState);
+      return;
+    }
+    builder
+      .withChannel(new NewLineChannel(lexerState))
+
+      .withChannel(new IndentationChannel(lexerState))
+
+      .withChannel(new WhitespaceChannel())
+
+      .withChannel(new CommentChannel())
+
+      .withChannel(new StringLiteralsChannel())
+
+      .withChannel(new FStringChannel(lexerState))
+
+      // bytes literals are handled by StringLiteralsChannel
+      .withChannel(new NumberChannel())
+
+      .withChannel(new IdentifierChannel())
+
+      .withChannel(new PunctuatorChannel(PythonPunctuator.values()))
+
+      .withChannel(new UnknownCharacterChannel());
+  }
+
+  private static void addRegexpChannels(Lexer.Builder builder, LexerState lexerState) {
     builder
       .withChannel(new NewLineChannel(lexerState))
 
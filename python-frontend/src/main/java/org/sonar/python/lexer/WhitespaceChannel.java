@@ -0,0 +1,52 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.lexer;
+
+import com.sonar.sslr.impl.Lexer;
+import org.sonar.sslr.channel.Channel;
+import org.sonar.sslr.channel.CodeReader;
+
+/**
+ * Skips whitespaces. Line terminators are handled by {@link NewLineChannel}, so a run of horizontal whitespaces
+ * is consumed at once, while a remaining line terminator is consumed on its own.
+ */
+public class WhitespaceChannel extends Channel<Lexer> {
+
+  @Override
+  public boolean consume(CodeReader code, Lexer output) {
+    char ch = code.charAt(0);
+    if (ch == '\n' || ch == '\r') {
+      code.pop();
+      return true;
+    }
+    if (!isHorizontalWhitespace(ch)) {
+      return false;
+    }
+    do {
+      code.pop();
+    } while (isHorizontalWhitespace(code.charAt(0)));
+    return true;
+  }
+
+  private static boolean isHorizontalWhitespace(char ch) {
+    return ch == ' ' || ch == '\t' || ch == '\u000B' || ch == '\f';
+  }
+
+}
@@ -43,33 +43,33 @@ public class ComplexityVisitor extends BaseTreeVisitor {
 
   @Override
   public void visitFunctionDef(FunctionDef pyFunctionDefTree) {
-    complexity++;
+    incrementComplexity();
     super.visitFunctionDef(pyFunctionDefTree);
   }
 
   @Override
   public void visitForStatement(ForStatement pyForStatementTree) {
-    complexity++;
+    incrementComplexity();
     super.visitForStatement(pyForStatementTree);
   }
 
   @Override
   public void visitWhileStatement(WhileStatement pyWhileStatementTree) {
-    complexity++;
+    incrementComplexity();
     super.visitWhileStatement(pyWhileStatementTree);
   }
 
   @Override
   public void visitIfStatement(IfStatement pyIfStatementTree) {
     if (!pyIfStatementTree.isElif()) {
-      complexity++;
+      incrementComplexity();
     }
     super.visitIfStatement(pyIfStatementTree);
   }
 
   @Override
   public void visitConditionalExpression(ConditionalExpression pyConditionalExpressionTree) {
-    complexity++;
+    incrementComplexity();
     super.visitConditionalExpression(pyConditionalExpressionTree);
   }
 
@@ -77,17 +77,21 @@ public class ComplexityVisitor extends BaseTreeVisitor {
   public void visitBinaryExpression(BinaryExpression pyBinaryExpressionTree) {
     TokenType type = pyBinaryExpressionTree.operator().type();
     if (type.equals(PythonKeyword.AND) || type.equals(PythonKeyword.OR)) {
-      complexity++;
+      incrementComplexity();
     }
     super.visitBinaryExpression(pyBinaryExpressionTree);
   }
 
   @Override
   public void visitComprehensionIf(ComprehensionIf tree) {
-    complexity++;
+    incrementComplexity();
     super.visitComprehensionIf(tree);
   }
 
+  void incrementComplexity() {
+    complexity++;
+  }
+
   public int getComplexity() {
     return complexity;
   }
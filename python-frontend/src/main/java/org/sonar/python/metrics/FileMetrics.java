@@ -20,41 +20,71 @@
 package org.sonar.python.metrics;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVisitorContext;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
-import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
+import org.sonar.python.SubscriptionVisitor;
 
 public class FileMetrics {
 
   private int numberOfStatements;
   private int numberOfClasses;
-  private final ComplexityVisitor complexityVisitor = new ComplexityVisitor();
+  private final FileComplexityVisitor complexityVisitor = new FileComplexityVisitor();
   private final CognitiveComplexityVisitor cognitiveComplexityVisitor = new CognitiveComplexityVisitor(null);
   private final FileLinesVisitor fileLinesVisitor;
   private List<Integer> functionComplexities = new ArrayList<>();
 
   public FileMetrics(PythonVisitorContext context, boolean isNotebook) {
+    this(context, isNotebook, Collections.emptyList());
+  }
+
+  /**
+   * @param fileVisitors visitors executed during the same traversal of the tree as the one computing the lines metrics
+   */
+  public FileMetrics(PythonVisitorContext context, boolean isNotebook, Collection<? extends PythonSubscriptionCheck> fileVisitors) {
     FileInput fileInput = context.rootTree();
     fileLinesVisitor = new FileLinesVisitor(isNotebook);
-    fileLinesVisitor.scanFile(context);
+    List<PythonSubscriptionCheck> visitors = new ArrayList<>();
+    visitors.add(fileLinesVisitor);
+    visitors.addAll(fileVisitors);
+    SubscriptionVisitor.analyze(visitors, context);
     numberOfStatements = fileLinesVisitor.getStatements();
     numberOfClasses = fileLinesVisitor.getClassDefs();
     fileInput.accept(complexityVisitor);
     fileInput.accept(cognitiveComplexityVisitor);
-    fileInput.accept(new FunctionVisitor());
   }
 
   public FileMetrics(PythonVisitorContext context) {
     this(context, false);
   }
 
-  private class FunctionVisitor extends BaseTreeVisitor {
+  /**
+   * Computes the complexity of the file and, in the same traversal, the complexity of each function: a function accounts
+   * for the increments of its own subtree, except for the ones of nested functions.
+   */
+  private class FileComplexityVisitor extends ComplexityVisitor {
+    // index in functionComplexities of the innermost function being visited, -1 outside of functions
+    private int currentFunction = -1;
+
     @Override
     public void visitFunctionDef(FunctionDef pyFunctionDefTree) {
-      functionComplexities.add(ComplexityVisitor.complexity(pyFunctionDefTree));
+      int enclosingFunction = currentFunction;
+      currentFunction = functionComplexities.size();
+      functionComplexities.add(0);
       super.visitFunctionDef(pyFunctionDefTree);
+      currentFunction = enclosingFunction;
+    }
+
+    @Override
+    void incrementComplexity() {
+      super.incrementComplexity();
+      if (currentFunction >= 0) {
+        functionComplexities.set(currentFunction, functionComplexities.get(currentFunction) + 1);
+      }
     }
   }
 
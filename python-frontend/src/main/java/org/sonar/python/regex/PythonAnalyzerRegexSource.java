@@ -33,6 +33,7 @@ import org.sonarsource.analyzer.commons.regex.python.PythonRegexSource;
 public class PythonAnalyzerRegexSource extends PythonRegexSource {
 
   private static final IndexRange OPENER_RANGE = new IndexRange(-1, 0);
+  private static final int UNLOCATED = -1;
   private final int sourceLine;
   private final int sourceStartOffset;
   private final int[] lineStartOffsets;
@@ -40,21 +41,43 @@ public class PythonAnalyzerRegexSource extends PythonRegexSource {
   private final boolean isRawString;
 
   public PythonAnalyzerRegexSource(StringElement s) {
-    super(s.trimmedQuotesValue());
-    String prefix = s.prefix();
-    Token firstToken = s.firstToken();
-    sourceLine = firstToken.line();
-    sourceStartOffset = firstToken.column() + (s.isTripleQuoted() ? 3 : 1) + prefix.length();
+    this(s.trimmedQuotesValue(), s.prefix(), s.firstToken().line(), startOffset(s));
+  }
+
+  private PythonAnalyzerRegexSource(String text, String prefix, int sourceLine, int sourceStartOffset) {
+    super(text);
+    this.sourceLine = sourceLine;
+    this.sourceStartOffset = sourceStartOffset;
     lineStartOffsets = lineStartOffsets(getSourceText());
     isRawString = prefix.toLowerCase(Locale.ROOT).contains("r");
   }
 
+  /**
+   * Source of a regex which does not belong to any file, so that its parse result can be shared between string elements with the same
+   * text and prefix. Elements parsed from it have to be located through the {@link PythonAnalyzerRegexSource} of a string element.
+   */
+  public static PythonAnalyzerRegexSource unlocated(String text, String prefix) {
+    return new PythonAnalyzerRegexSource(text, prefix, UNLOCATED, UNLOCATED);
+  }
+
+  private static int startOffset(StringElement s) {
+    Token firstToken = s.firstToken();
+    return firstToken.column() + (s.isTripleQuoted() ? 3 : 1) + s.prefix().length();
+  }
+
   @Override
   public CharacterParser createCharacterParser() {
     return new PythonStringCharacterParser(this);
   }
 
+  public boolean isLocated() {
+    return sourceLine != UNLOCATED;
+  }
+
   public LocationInFile locationInFileFor(IndexRange range) {
+    if (!isLocated()) {
+      throw new IllegalStateException("Regex elements of a shared parse result must be located through the RegexContext of the file.");
+    }
     if (OPENER_RANGE.equals(range)) {
       return new LocationInFile(null, sourceLine, sourceStartOffset - 2, sourceLine, sourceStartOffset - 1);
     }
@@ -42,8 +42,14 @@ public class PythonRegexIssueLocation {
   }
 
   public static IssueLocation preciseLocation(List<RegexSyntaxElement> syntaxElements, String message) {
+    return preciseLocation((PythonAnalyzerRegexSource) syntaxElements.get(0).getSource(), syntaxElements, message);
+  }
+
+  /**
+   * Locates the elements through the given source, which must have the text of the source they were parsed from.
+   */
+  public static IssueLocation preciseLocation(PythonAnalyzerRegexSource source, List<RegexSyntaxElement> syntaxElements, String message) {
     RegexSyntaxElement firstElement = syntaxElements.get(0);
-    PythonAnalyzerRegexSource source = (PythonAnalyzerRegexSource) firstElement.getSource();
     IndexRange current = firstElement.getRange();
 
     for (RegexSyntaxElement syntaxElement : syntaxElements.subList(1, syntaxElements.size())) {
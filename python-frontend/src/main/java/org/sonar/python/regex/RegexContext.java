@@ -19,10 +19,14 @@
  */
 package org.sonar.python.regex;
 
+import java.util.Collections;
+import java.util.List;
 import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.IssueLocation;
 import org.sonar.plugins.python.api.PythonCheck;
 import org.sonar.plugins.python.api.tree.StringElement;
 import org.sonar.plugins.python.api.tree.Tree;
+import org.sonarsource.analyzer.commons.regex.RegexIssueLocation;
 import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
 import org.sonarsource.analyzer.commons.regex.ast.RegexSyntaxElement;
@@ -34,4 +38,18 @@ public interface RegexContext {
   PythonCheck.PreciseIssue addIssue(Tree element, @Nullable String message);
 
   PythonCheck.PreciseIssue addIssue(RegexSyntaxElement element, @Nullable String message);
+
+  /**
+   * Parse results may be shared between files: their elements have to be located through this method rather than through
+   * {@link PythonRegexIssueLocation}, so that the location is the one of the string element in the current file.
+   */
+  IssueLocation preciseLocation(List<RegexSyntaxElement> syntaxElements, @Nullable String message);
+
+  default IssueLocation preciseLocation(RegexSyntaxElement syntaxElement, @Nullable String message) {
+    return preciseLocation(Collections.singletonList(syntaxElement), message);
+  }
+
+  default IssueLocation preciseLocation(RegexIssueLocation regexIssueLocation) {
+    return preciseLocation(regexIssueLocation.syntaxElements(), regexIssueLocation.message());
+  }
 }
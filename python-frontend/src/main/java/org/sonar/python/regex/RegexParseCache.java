@@ -0,0 +1,103 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.regex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.sonarsource.analyzer.commons.regex.RegexParseResult;
+import org.sonarsource.analyzer.commons.regex.RegexParser;
+import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
+
+/**
+ * Bounded cache of regex parse results shared between files, with least recently used eviction.
+ * Results are keyed on the text and the prefix of the string, and on the flags: they are parsed from an
+ * {@link PythonAnalyzerRegexSource#unlocated unlocated} source, and their elements are located in each file through the
+ * {@link PythonAnalyzerRegexSource} of the string element they are used for. Parse results are not modified once parsed, so they
+ * can be used concurrently.
+ */
+public class RegexParseCache {
+
+  static final int DEFAULT_CAPACITY = 2_000;
+
+  private static final RegexParseCache SHARED = new RegexParseCache(DEFAULT_CAPACITY);
+
+  // guarded by itself
+  private final Map<Key, Entry> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  RegexParseCache(int capacity) {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  public static RegexParseCache shared() {
+    return SHARED;
+  }
+
+  public Entry parse(String text, String prefix, FlagSet flagSet) {
+    Key key = new Key(text, prefix, flagSet.getMask());
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+    }
+    if (entry != null) {
+      hits.increment();
+      return entry;
+    }
+    misses.increment();
+    PythonAnalyzerRegexSource source = PythonAnalyzerRegexSource.unlocated(text, prefix);
+    // the parsed elements keep the flags they were parsed with: they must not depend on the caller's instance
+    Entry parsed = new Entry(source, new RegexParser(source, new FlagSet(flagSet.getMask())).parse());
+    synchronized (entries) {
+      // another thread may have parsed the same regex in the meantime
+      entry = entries.putIfAbsent(key, parsed);
+    }
+    return entry != null ? entry : parsed;
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * A parse result, with the unlocated source its elements were parsed from.
+   */
+  public record Entry(PythonAnalyzerRegexSource source, RegexParseResult result) {
+  }
+
+  private record Key(String text, String prefix, int flags) {
+  }
+}
@@ -56,13 +56,13 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
   private final List<Symbol> superClasses = new ArrayList<>();
   private List<String> superClassesFqns = new ArrayList<>();
   private List<String> inlinedSuperClassFqn = new ArrayList<>();
-  private Set<Symbol> allSuperClasses = null;
-  private Set<Symbol> allSuperClassesIncludingAmbiguousSymbols = null;
+  private volatile Set<Symbol> allSuperClasses = null;
+  private volatile Set<Symbol> allSuperClassesIncludingAmbiguousSymbols = null;
   private boolean hasSuperClassWithoutSymbol = false;
   private final Set<Symbol> members = new HashSet<>();
-  private Map<String, Symbol> membersByName = null;
-  private boolean hasAlreadyReadSuperClasses = false;
-  private boolean hasAlreadyReadMembers = false;
+  private volatile Map<String, Symbol> membersByName = null;
+  private volatile boolean hasAlreadyReadSuperClasses = false;
+  private volatile boolean hasAlreadyReadMembers = false;
   private boolean hasDecorators = false;
   private boolean hasMetaClass = false;
   private final LocationInFile classDefinitionLocation;
@@ -203,21 +203,30 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
     return superClassesFqns;
   }
 
-  public boolean shouldSearchHierarchyInTypeshed() {
+  public synchronized boolean shouldSearchHierarchyInTypeshed() {
     return !hasAlreadyReadSuperClasses && superClasses.isEmpty() && !superClassesFqns.isEmpty();
   }
 
   @Override
   public List<Symbol> superClasses() {
-    // In case of symbols coming from TypeShed protobuf, we resolve superclasses lazily
-    if (!hasAlreadyReadSuperClasses && superClasses.isEmpty() && !superClassesFqns.isEmpty()) {
-      superClassesFqns.stream().map(SymbolUtils::typeshedSymbolWithFQN).forEach(this::addSuperClass);
+    // In case of symbols coming from TypeShed protobuf, we resolve superclasses lazily.
+    // TypeShed symbols are shared between analysis threads: resolution happens outside the lock (it may load other
+    // TypeShed modules) and only its result is published under the lock, by the first thread to get there.
+    if (shouldSearchHierarchyInTypeshed()) {
+      List<Symbol> resolvedSuperClasses = superClassesFqns.stream().map(SymbolUtils::typeshedSymbolWithFQN).toList();
+      synchronized (this) {
+        if (!hasAlreadyReadSuperClasses && superClasses.isEmpty()) {
+          superClasses.addAll(resolvedSuperClasses);
+        }
+      }
+    }
+    synchronized (this) {
+      hasAlreadyReadSuperClasses = true;
     }
-    hasAlreadyReadSuperClasses = true;
     return Collections.unmodifiableList(superClasses);
   }
 
-  public void addSuperClass(Symbol symbol) {
+  public synchronized void addSuperClass(Symbol symbol) {
     if (hasAlreadyReadSuperClasses) {
       throw new IllegalStateException("Cannot call addSuperClass, super classes were already read");
     }
@@ -245,7 +254,9 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
 
   @Override
   public Set<Symbol> declaredMembers() {
-    hasAlreadyReadMembers = true;
+    if (!hasAlreadyReadMembers) {
+      hasAlreadyReadMembers = true;
+    }
     return members;
   }
 
@@ -332,13 +343,15 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
   }
 
   private Map<String, Symbol> membersByName() {
-    if (membersByName == null) {
-      membersByName = declaredMembers().stream().collect(Collectors.toMap(Symbol::name, m -> m, (s1, s2) -> s1));
+    Map<String, Symbol> result = membersByName;
+    if (result == null) {
+      result = declaredMembers().stream().collect(Collectors.toMap(Symbol::name, m -> m, (s1, s2) -> s1));
+      membersByName = result;
     }
-    return membersByName;
+    return result;
   }
 
-  public void addMembers(Collection<Symbol> members) {
+  public synchronized void addMembers(Collection<Symbol> members) {
     if (hasAlreadyReadMembers) {
       throw new IllegalStateException("Cannot call addMembers, members were already read");
     }
@@ -366,18 +379,23 @@ public class ClassSymbolImpl extends SymbolImpl implements ClassSymbol {
   }
 
   private Set<Symbol> allSuperClasses(boolean includeAmbiguousSymbols) {
+    // Sets are fully computed before being published, as TypeShed symbols can be read concurrently
     if (!includeAmbiguousSymbols) {
-      if (allSuperClasses == null) {
-        allSuperClasses = new LinkedHashSet<>();
-        exploreSuperClasses(this, allSuperClasses, false);
+      Set<Symbol> result = allSuperClasses;
+      if (result == null) {
+        result = new LinkedHashSet<>();
+        exploreSuperClasses(this, result, false);
+        allSuperClasses = result;
       }
-      return allSuperClasses;
+      return result;
     }
-    if (allSuperClassesIncludingAmbiguousSymbols == null) {
-      allSuperClassesIncludingAmbiguousSymbols = new LinkedHashSet<>();
-      exploreSuperClasses(this, allSuperClassesIncludingAmbiguousSymbols, true);
+    Set<Symbol> result = allSuperClassesIncludingAmbiguousSymbols;
+    if (result == null) {
+      result = new LinkedHashSet<>();
+      exploreSuperClasses(this, result, true);
+      allSuperClassesIncludingAmbiguousSymbols = result;
     }
-    return allSuperClassesIncludingAmbiguousSymbols;
+    return result;
   }
 
   private static void exploreSuperClasses(Symbol symbol, Set<Symbol> set, boolean includeAmbiguousSymbols) {
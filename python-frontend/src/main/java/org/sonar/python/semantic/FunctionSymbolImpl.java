@@ -68,7 +68,7 @@ public class FunctionSymbolImpl extends SymbolImpl implements FunctionSymbol {
   private static final String CLASS_METHOD_DECORATOR = "classmethod";
   private static final String STATIC_METHOD_DECORATOR = "staticmethod";
   private boolean isDjangoView = false;
-  private boolean hasReadDeclaredReturnType = false;
+  private volatile boolean hasReadDeclaredReturnType = false;
 
   FunctionSymbolImpl(FunctionDef functionDef, @Nullable String fullyQualifiedName, PythonFile pythonFile) {
     super(functionDef.name().name(), fullyQualifiedName);
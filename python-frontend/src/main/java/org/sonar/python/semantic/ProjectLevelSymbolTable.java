@@ -19,13 +19,16 @@
  */
 package org.sonar.python.semantic;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -41,6 +44,7 @@ import org.sonar.python.index.AmbiguousDescriptor;
 import org.sonar.python.index.Descriptor;
 import org.sonar.python.index.DescriptorUtils;
 import org.sonar.python.index.VariableDescriptor;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
 import org.sonar.python.semantic.v2.typeshed.TypeShedDescriptorsProvider;
 
 import static org.sonar.python.tree.TreeUtils.getSymbolFromTree;
@@ -50,10 +54,16 @@ public class ProjectLevelSymbolTable {
 
   private final Map<String, Set<Descriptor>> globalDescriptorsByModuleName;
   private Map<String, Descriptor> globalDescriptorsByFQN;
+  // descriptors of all modules sharing each FQN, from which ambiguous descriptors of globalDescriptorsByFQN are computed
+  private Map<String, List<Descriptor>> moduleDescriptorsByFQN;
   private final Set<String> djangoViewsFQN = new HashSet<>();
   private final Map<String, Set<String>> importsByModule = new HashMap<>();
-  private final Set<String> projectBasePackages = new HashSet<>();
+  private final Set<String> projectBasePackages = ConcurrentHashMap.newKeySet();
   private TypeShedDescriptorsProvider typeShedDescriptorsProvider = null;
+  // incremented on each change of the table, to recompute the type tables derived from a previous version
+  private final AtomicInteger version = new AtomicInteger();
+  // type table of each thread: a ThreadLocal would retain them, as they reference this table, for as long as the threads live
+  private final Map<Thread, VersionedTypeTable> projectLevelTypeTables = new ConcurrentHashMap<>();
 
   public static ProjectLevelSymbolTable empty() {
     return new ProjectLevelSymbolTable(Collections.emptyMap());
@@ -79,17 +89,38 @@ public class ProjectLevelSymbolTable {
 
   public void removeModule(String packageName, String fileName) {
     String fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, fileName);
-    globalDescriptorsByModuleName.remove(fullyQualifiedModuleName);
-    // ensure globalDescriptorsByFQN is re-computed
-    this.globalDescriptorsByFQN = null;
+    Set<Descriptor> removedDescriptors = globalDescriptorsByModuleName.remove(fullyQualifiedModuleName);
+    updateGlobalDescriptorsByFQN(removedDescriptors, Collections.emptySet());
+    version.incrementAndGet();
   }
 
   public void addModule(FileInput fileInput, String packageName, PythonFile pythonFile) {
+    addModule(moduleSymbols(fileInput, packageName, pythonFile));
+  }
+
+  /**
+   * Adds a module whose symbols have been computed with {@link #moduleSymbols(FileInput, String, PythonFile)}.
+   * Adding the same modules in the same order produces the same symbol table, whatever the threads which computed them.
+   */
+  public void addModule(ModuleSymbols moduleSymbols) {
+    String fullyQualifiedModuleName = moduleSymbols.fullyQualifiedModuleName();
+    importsByModule.put(fullyQualifiedModuleName, moduleSymbols.importedModulesFQN());
+    Set<Descriptor> previousDescriptors = globalDescriptorsByModuleName.put(fullyQualifiedModuleName, moduleSymbols.globalDescriptors());
+    updateGlobalDescriptorsByFQN(previousDescriptors, moduleSymbols.globalDescriptors());
+    version.incrementAndGet();
+    djangoViewsFQN.addAll(moduleSymbols.djangoViewsFQN());
+  }
+
+  /**
+   * Computes the symbols that a module contributes to the project-level symbol table. This does not depend on any project-level
+   * state, hence modules can be processed concurrently before being added with {@link #addModule(ModuleSymbols)}.
+   * The only shared state it reads are the TypeShed symbols, whose lazily resolved parts are safe to read from several threads.
+   */
+  public static ModuleSymbols moduleSymbols(FileInput fileInput, String packageName, PythonFile pythonFile) {
     SymbolTableBuilder symbolTableBuilder = new SymbolTableBuilder(packageName, pythonFile);
     String fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, pythonFile.fileName());
     fileInput.accept(symbolTableBuilder);
     Set<Descriptor> globalDescriptors = new HashSet<>();
-    importsByModule.put(fullyQualifiedModuleName, symbolTableBuilder.importedModulesFQN());
     for (Symbol globalVariable : fileInput.globalVariables()) {
       String fullyQualifiedVariableName = globalVariable.fullyQualifiedName();
       if (((fullyQualifiedVariableName != null) && !fullyQualifiedVariableName.startsWith(fullyQualifiedModuleName)) ||
@@ -108,34 +139,69 @@ public class ProjectLevelSymbolTable {
         }
       }
     }
-    globalDescriptorsByModuleName.put(fullyQualifiedModuleName, globalDescriptors);
-    if (globalDescriptorsByFQN != null) {
-      // TODO: build globalSymbolsByFQN incrementally
-      addModuleToGlobalSymbolsByFQN(globalDescriptors);
-    }
     DjangoViewsVisitor djangoViewsVisitor = new DjangoViewsVisitor();
     fileInput.accept(djangoViewsVisitor);
+    return new ModuleSymbols(fullyQualifiedModuleName, globalDescriptors, symbolTableBuilder.importedModulesFQN(), djangoViewsVisitor.djangoViewsFQN);
   }
 
-  private void addModuleToGlobalSymbolsByFQN(Set<Descriptor> descriptors) {
-    Map<String, Descriptor> moduleDescriptorsByFQN = descriptors.stream()
-      .filter(d -> d.fullyQualifiedName() != null)
-      .collect(Collectors.toMap(Descriptor::fullyQualifiedName, Function.identity(), AmbiguousDescriptor::create));
-    globalDescriptorsByFQN.putAll(moduleDescriptorsByFQN);
-
+  /**
+   * Applies the descriptors removed from and added to a module to the FQN index, once it is built.
+   * Only the FQNs of these descriptors are re-computed: removing a module undoes the ambiguities it introduced.
+   */
+  private synchronized void updateGlobalDescriptorsByFQN(@Nullable Set<Descriptor> removedDescriptors, Set<Descriptor> addedDescriptors) {
+    if (globalDescriptorsByFQN == null) {
+      return;
+    }
+    Set<String> updatedFQNs = new HashSet<>();
+    if (removedDescriptors != null) {
+      for (Descriptor descriptor : removedDescriptors) {
+        String fullyQualifiedName = descriptor.fullyQualifiedName();
+        List<Descriptor> descriptors = fullyQualifiedName == null ? null : moduleDescriptorsByFQN.get(fullyQualifiedName);
+        if (descriptors != null) {
+          descriptors.removeIf(d -> d == descriptor);
+          updatedFQNs.add(fullyQualifiedName);
+        }
+      }
+    }
+    for (Descriptor descriptor : addedDescriptors) {
+      String fullyQualifiedName = descriptor.fullyQualifiedName();
+      if (fullyQualifiedName != null) {
+        moduleDescriptorsByFQN.computeIfAbsent(fullyQualifiedName, k -> new ArrayList<>()).add(descriptor);
+        updatedFQNs.add(fullyQualifiedName);
+      }
+    }
+    for (String fullyQualifiedName : updatedFQNs) {
+      List<Descriptor> descriptors = moduleDescriptorsByFQN.get(fullyQualifiedName);
+      if (descriptors.isEmpty()) {
+        moduleDescriptorsByFQN.remove(fullyQualifiedName);
+        globalDescriptorsByFQN.remove(fullyQualifiedName);
+      } else {
+        globalDescriptorsByFQN.put(fullyQualifiedName, merge(descriptors));
+      }
+    }
   }
 
-  private Map<String, Descriptor> globalDescriptorsByFQN() {
+  private synchronized Map<String, Descriptor> globalDescriptorsByFQN() {
     if (globalDescriptorsByFQN == null) {
-      globalDescriptorsByFQN = globalDescriptorsByModuleName.values()
+      moduleDescriptorsByFQN = globalDescriptorsByModuleName.values()
         .stream()
         .flatMap(Collection::stream)
         .filter(descriptor -> descriptor.fullyQualifiedName() != null)
-        .collect(Collectors.toMap(Descriptor::fullyQualifiedName, Function.identity(), AmbiguousDescriptor::create));
+        .collect(Collectors.groupingBy(Descriptor::fullyQualifiedName, HashMap::new, Collectors.toCollection(ArrayList::new)));
+      globalDescriptorsByFQN = new HashMap<>();
+      moduleDescriptorsByFQN.forEach((fullyQualifiedName, descriptors) -> globalDescriptorsByFQN.put(fullyQualifiedName, merge(descriptors)));
     }
     return globalDescriptorsByFQN;
   }
 
+  private static Descriptor merge(List<Descriptor> descriptors) {
+    if (descriptors.size() == 1) {
+      return descriptors.get(0);
+    }
+    Set<Descriptor> distinctDescriptors = new HashSet<>(descriptors);
+    return distinctDescriptors.size() == 1 ? distinctDescriptors.iterator().next() : AmbiguousDescriptor.create(distinctDescriptors);
+  }
+
   @CheckForNull
   public Symbol getSymbol(@Nullable String fullyQualifiedName) {
     return getSymbol(fullyQualifiedName, null);
@@ -169,7 +235,9 @@ public class ProjectLevelSymbolTable {
   }
 
   public void insertEntry(String moduleName, Set<Descriptor> descriptors) {
-    this.globalDescriptorsByModuleName.put(moduleName, descriptors);
+    Set<Descriptor> previousDescriptors = this.globalDescriptorsByModuleName.put(moduleName, descriptors);
+    updateGlobalDescriptorsByFQN(previousDescriptors, descriptors);
+    version.incrementAndGet();
   }
 
   @CheckForNull
@@ -189,14 +257,49 @@ public class ProjectLevelSymbolTable {
     return projectBasePackages;
   }
 
-  public TypeShedDescriptorsProvider typeShedDescriptorsProvider() {
+  public synchronized TypeShedDescriptorsProvider typeShedDescriptorsProvider() {
     if (typeShedDescriptorsProvider == null) {
       typeShedDescriptorsProvider = new TypeShedDescriptorsProvider(projectBasePackages);
     }
     return typeShedDescriptorsProvider;
   }
 
-  private class DjangoViewsVisitor extends BaseTreeVisitor {
+  /**
+   * Returns the type table derived from this project-level symbol table.
+   * Types of builtins, Typeshed modules and project modules are converted once and reused by all files of the analysis
+   * rather than being re-created for each of them. The table is recomputed whenever the project-level symbol table changes.
+   * Types are lazily resolved and completed as they are looked up, hence each thread gets its own instance of the table.
+   */
+  public ProjectLevelTypeTable projectLevelTypeTable() {
+    Thread thread = Thread.currentThread();
+    int currentVersion = version.get();
+    VersionedTypeTable typeTable = projectLevelTypeTables.get(thread);
+    if (typeTable == null || typeTable.version() != currentVersion) {
+      // tables of terminated threads and of previous versions are not used anymore
+      projectLevelTypeTables.entrySet().removeIf(e -> !e.getKey().isAlive() || e.getValue().version() != currentVersion);
+      typeTable = new VersionedTypeTable(currentVersion, new ProjectLevelTypeTable(this));
+      projectLevelTypeTables.put(thread, typeTable);
+    }
+    return typeTable.typeTable();
+  }
+
+  /**
+   * Releases the type tables of all threads, typically at the end of an analysis. They are created again when needed.
+   */
+  public void releaseProjectLevelTypeTables() {
+    projectLevelTypeTables.clear();
+  }
+
+  private record VersionedTypeTable(int version, ProjectLevelTypeTable typeTable) {
+  }
+
+  public record ModuleSymbols(String fullyQualifiedModuleName, Set<Descriptor> globalDescriptors, Set<String> importedModulesFQN,
+    Set<String> djangoViewsFQN) {
+  }
+
+  private static class DjangoViewsVisitor extends BaseTreeVisitor {
+    private final Set<String> djangoViewsFQN = new HashSet<>();
+
     @Override
     public void visitCallExpression(CallExpression callExpression) {
       Symbol calleeSymbol = callExpression.calleeSymbol();
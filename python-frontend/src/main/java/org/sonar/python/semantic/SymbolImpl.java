@@ -60,7 +60,7 @@ public class SymbolImpl implements Symbol {
    */
   private SymbolsProtos.Type deserializedType = null;
 
-  private boolean hasReadDeserializedType = false;
+  private volatile boolean hasReadDeserializedType = false;
 
   protected Set<String> validForPythonVersions = Collections.emptySet();
 
@@ -19,35 +19,28 @@
  */
 package org.sonar.python.semantic.v2.typeshed;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
-import javax.annotation.CheckForNull;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.api.ProjectPythonVersion;
 import org.sonar.plugins.python.api.PythonVersionUtils;
 import org.sonar.python.index.ClassDescriptor;
 import org.sonar.python.index.Descriptor;
 import org.sonar.python.index.ModuleDescriptor;
-import org.sonar.python.types.protobuf.SymbolsProtos.ModuleSymbol;
+import org.sonar.python.types.TypeShedBundle;
 
 import static org.sonar.plugins.python.api.types.BuiltinTypes.NONE_TYPE;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_CUSTOM_STUBS;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_THIRD_PARTY;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_THIRD_PARTY_MYPY;
 
 public class TypeShedDescriptorsProvider {
-  private static final Logger LOG = LoggerFactory.getLogger(TypeShedDescriptorsProvider.class);
 
-  private static final String PROTOBUF_BASE_RESOURCE_PATH = "/org/sonar/python/types/";
-  private static final String PROTOBUF_CUSTOM_STUBS = PROTOBUF_BASE_RESOURCE_PATH + "custom_protobuf/";
-  private static final String PROTOBUF = PROTOBUF_BASE_RESOURCE_PATH + "stdlib_protobuf/";
-  private static final String PROTOBUF_THIRD_PARTY = PROTOBUF_BASE_RESOURCE_PATH + "third_party_protobuf/";
-  private static final String PROTOBUF_THIRD_PARTY_MYPY = PROTOBUF_BASE_RESOURCE_PATH + "third_party_protobuf_mypy/";
   public static final String BUILTINS_FQN = "builtins";
   // This is needed for some Python 2 modules whose name differ from their Python 3 counterpart by capitalization only.
   private static final Map<String, String> MODULES_TO_DISAMBIGUATE = Map.of(
@@ -57,7 +50,7 @@ public class TypeShedDescriptorsProvider {
   );
   private final ModuleSymbolToDescriptorConverter moduleConverter;
 
-  private Map<String, Descriptor> builtins;
+  private volatile Map<String, Descriptor> builtins;
   private final Set<String> projectBasePackages;
   private final Map<String, Map<String, Descriptor>> cachedDescriptors;
 
@@ -67,7 +60,7 @@ public class TypeShedDescriptorsProvider {
 
   public TypeShedDescriptorsProvider(Set<String> projectBasePackages, Set<PythonVersionUtils.Version> projectPythonVersions) {
     moduleConverter = new ModuleSymbolToDescriptorConverter(projectPythonVersions);
-    cachedDescriptors = new HashMap<>();
+    cachedDescriptors = new ConcurrentHashMap<>();
     this.projectBasePackages = projectBasePackages;
   }
 
@@ -76,16 +69,23 @@ public class TypeShedDescriptorsProvider {
   //================================================================================
 
   public Map<String, Descriptor> builtinDescriptors() {
-    if (builtins == null) {
-      Map<String, Descriptor> symbols = getModuleDescriptors(BUILTINS_FQN, PROTOBUF);
-      symbols.put(NONE_TYPE, new ClassDescriptor.ClassDescriptorBuilder().withName(NONE_TYPE).withFullyQualifiedName(NONE_TYPE).build());
-      builtins = Collections.unmodifiableMap(symbols);
+    Map<String, Descriptor> loadedBuiltins = builtins;
+    if (loadedBuiltins != null) {
+      return loadedBuiltins;
+    }
+    synchronized (this) {
+      if (builtins == null) {
+        Map<String, Descriptor> symbols = getModuleDescriptors(BUILTINS_FQN, PROTOBUF);
+        symbols.put(NONE_TYPE, new ClassDescriptor.ClassDescriptorBuilder().withName(NONE_TYPE).withFullyQualifiedName(NONE_TYPE).build());
+        builtins = Collections.unmodifiableMap(symbols);
+      }
+      return builtins;
     }
-    return builtins;
   }
 
   /**
-   * Returns map of exported symbols by name for a given module
+   * Returns map of exported symbols by name for a given module.
+   * Each module is deserialized at most once, even when requested concurrently.
    */
   public Map<String, Descriptor> descriptorsForModule(String moduleName) {
     if (searchedModuleMatchesCurrentProject(moduleName)) {
@@ -112,23 +112,12 @@ public class TypeShedDescriptorsProvider {
 
   private Map<String, Descriptor> getModuleDescriptors(String moduleName, String dirName) {
     String fileName = MODULES_TO_DISAMBIGUATE.getOrDefault(moduleName, moduleName);
-    InputStream resource = this.getClass().getResourceAsStream(dirName + fileName + ".protobuf");
-    if (resource == null) {
+    var moduleSymbol = TypeShedBundle.get().module(dirName, fileName);
+    if (moduleSymbol == null) {
       return Collections.emptyMap();
     }
-    var moduleSymbol = deserializedModule(moduleName, resource);
     var moduleDescriptor = moduleConverter.convert(moduleSymbol);
     return Optional.ofNullable(moduleDescriptor).map(ModuleDescriptor::members).orElseGet(Map::of);
   }
 
-  @CheckForNull
-  static ModuleSymbol deserializedModule(String moduleName, InputStream resource) {
-    try {
-      return ModuleSymbol.parseFrom(resource);
-    } catch (IOException e) {
-      LOG.debug("Error while deserializing protobuf for module {}", moduleName, e);
-      return null;
-    }
-  }
-
 }
@@ -19,13 +19,19 @@
  */
 package org.sonar.python.tree;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import org.sonar.plugins.python.api.cfg.ControlFlowGraph;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.StatementList;
@@ -40,6 +46,12 @@ public class FileInputImpl extends PyTree implements FileInput {
   private final Token endOfFile;
   private final StringLiteral docstring;
   private final Set<Symbol> globalVariables = new HashSet<>();
+  // CFGs of this file and of its functions (null when the CFG could not be built), released together with the tree
+  private final Map<Tree, ControlFlowGraph> controlFlowGraphs = new HashMap<>();
+  // Tokens of this file in depth-first order, built on first use and shared by all the consumers of the tree
+  private List<Token> tokens;
+  // Position of each token of the table, null when the tokens are not sorted by position
+  private long[] tokenPositions;
 
   public FileInputImpl(@Nullable StatementList statements, Token endOfFile, @Nullable StringLiteral docstring) {
     this.statements = statements;
@@ -73,6 +85,149 @@ public class FileInputImpl extends PyTree implements FileInput {
     globalVariables.add(globalVariable);
   }
 
+  public Map<Tree, ControlFlowGraph> controlFlowGraphs() {
+    return controlFlowGraphs;
+  }
+
+  /**
+   * All the tokens of this file, in the order of {@link TreeUtils#tokens(Tree)}. The tokens of any tree of this file are a view of this
+   * table: trees and tokens are located in it through the position of the tokens, so that they don't have to record their index.
+   */
+  public List<Token> tokens() {
+    if (tokens == null) {
+      List<Token> fileTokens = new ArrayList<>();
+      collectTokens(this, fileTokens);
+      tokenPositions = positions(fileTokens);
+      tokens = Collections.unmodifiableList(fileTokens);
+    }
+    return tokens;
+  }
+
+  /**
+   * Returns null when the tree is not reachable from the children of this file.
+   */
+  @CheckForNull
+  List<Token> tokens(Tree tree) {
+    Token first = firstToken(tree);
+    if (first == null) {
+      return Collections.emptyList();
+    }
+    int start = indexOf(first);
+    int end = indexOf(lastToken(tree));
+    if (start < 0 || end < 0) {
+      return null;
+    }
+    return tokens().subList(start, end + 1);
+  }
+
+  /**
+   * Returns the token at the given offset from the given one in this file, null when there is none.
+   */
+  @CheckForNull
+  Token tokenAt(Token token, int offset) {
+    int tokenIndex = indexOf(token);
+    int index = tokenIndex + offset;
+    if (tokenIndex < 0 || index < 0 || index >= tokens.size()) {
+      return null;
+    }
+    return tokens.get(index);
+  }
+
+  private int indexOf(Token token) {
+    List<Token> fileTokens = tokens();
+    if (tokenPositions == null) {
+      return identityIndexOf(fileTokens, token, 0, fileTokens.size());
+    }
+    long position = position(token);
+    int index = Arrays.binarySearch(tokenPositions, position);
+    if (index < 0) {
+      return -1;
+    }
+    // zero-width tokens (e.g. DEDENT) share the position of the following token
+    int start = index;
+    while (start > 0 && tokenPositions[start - 1] == position) {
+      start--;
+    }
+    int end = index;
+    while (end < tokenPositions.length && tokenPositions[end] == position) {
+      end++;
+    }
+    return identityIndexOf(fileTokens, token, start, end);
+  }
+
+  private static int identityIndexOf(List<Token> fileTokens, Token token, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (fileTokens.get(i) == token) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns null when the tokens are not sorted by position, in which case they are searched linearly.
+   */
+  @CheckForNull
+  private static long[] positions(List<Token> fileTokens) {
+    long[] positions = new long[fileTokens.size()];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = position(fileTokens.get(i));
+      if (i > 0 && positions[i] < positions[i - 1]) {
+        return null;
+      }
+    }
+    return positions;
+  }
+
+  private static long position(Token token) {
+    return ((long) token.pythonLine() << 32) | token.pythonColumn();
+  }
+
+  private static void collectTokens(Tree tree, List<Token> fileTokens) {
+    if (tree.is(Kind.TOKEN)) {
+      fileTokens.add((Token) tree);
+      return;
+    }
+    for (Tree child : tree.children()) {
+      collectTokens(child, fileTokens);
+    }
+  }
+
+  /**
+   * First token of the tree in depth-first order, which is not always {@link Tree#firstToken()}.
+   */
+  @CheckForNull
+  private static Token firstToken(Tree tree) {
+    if (tree.is(Kind.TOKEN)) {
+      return (Token) tree;
+    }
+    for (Tree child : tree.children()) {
+      Token token = firstToken(child);
+      if (token != null) {
+        return token;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Last token of the tree in depth-first order, which is not always {@link Tree#lastToken()} (e.g. for statements ending with a newline).
+   */
+  @CheckForNull
+  private static Token lastToken(Tree tree) {
+    if (tree.is(Kind.TOKEN)) {
+      return (Token) tree;
+    }
+    List<Tree> children = tree.children();
+    for (int i = children.size() - 1; i >= 0; i--) {
+      Token token = lastToken(children.get(i));
+      if (token != null) {
+        return token;
+      }
+    }
+    return null;
+  }
+
   @Override
   public void accept(TreeVisitor visitor) {
     visitor.visitFileInput(this);
@@ -77,6 +77,14 @@ public class IPythonTreeMaker extends PythonTreeMaker {
     return pyFileInputTree;
   }
 
+  /**
+   * Notebooks are small enough for the AST to be kept until the end of the conversion.
+   */
+  @Override
+  public FileInput fileInputReleasingAst(AstNode astNode) {
+    return fileInput(astNode);
+  }
+
   private Stream<Statement> getStatementsFromCell(AstNode cell) {
     if (cell.is(IPythonGrammar.CELL)) {
       return getStatements(cell).stream().map(this::statement);
@@ -116,8 +116,35 @@ public class PythonTreeMaker {
 
   public FileInput fileInput(AstNode astNode) {
     List<Statement> statements = getStatements(astNode).stream().map(this::statement).toList();
-    StatementListImpl statementList = statements.isEmpty() ? null : new StatementListImpl(statements);
     Token endOfFile = toPyToken(astNode.getFirstChild(GenericTokenType.EOF).getToken());
+    return fileInput(statements, endOfFile);
+  }
+
+  /**
+   * Same as {@link #fileInput(AstNode)}, except that every top-level statement is detached from the given AST as soon as it is
+   * converted. The AST of the converted statements can then be garbage collected while the rest of the file is converted,
+   * instead of keeping both complete trees in memory until the end of the conversion.
+   * The given AST is left without children and must not be used afterward.
+   */
+  public FileInput fileInputReleasingAst(AstNode astNode) {
+    Token endOfFile = toPyToken(astNode.getFirstChild(GenericTokenType.EOF).getToken());
+    List<Statement> statements = new ArrayList<>();
+    List<AstNode> children = astNode.getChildren();
+    for (int i = 0; i < children.size(); i++) {
+      AstNode child = children.get(i);
+      if (child.is(PythonGrammar.STATEMENT)) {
+        children.set(i, null);
+        for (StatementWithSeparator statementWithSeparator : addStatements(child, new ArrayList<>())) {
+          statements.add(statement(statementWithSeparator));
+        }
+      }
+    }
+    children.clear();
+    return fileInput(statements, endOfFile);
+  }
+
+  private FileInput fileInput(List<Statement> statements, Token endOfFile) {
+    StatementListImpl statementList = statements.isEmpty() ? null : new StatementListImpl(statements);
     FileInputImpl pyFileInputTree = new FileInputImpl(statementList, endOfFile, DocstringExtractor.extractDocstring(statementList));
     setParents(pyFileInputTree);
     pyFileInputTree.accept(new ExceptGroupJumpInstructionsCheck());
@@ -277,13 +304,18 @@ public class PythonTreeMaker {
     List<AstNode> statements = astNode.getChildren(PythonGrammar.STATEMENT);
     List<StatementWithSeparator> statementsWithSeparators = new ArrayList<>();
     for (AstNode stmt : statements) {
-      if (stmt.hasDirectChildren(PythonGrammar.STMT_LIST)) {
-        List<StatementWithSeparator> statementList = getStatementsWithSeparators(stmt);
-        statementsWithSeparators.addAll(statementList);
-      } else {
-        StatementWithSeparator compoundStmt = new StatementWithSeparator(stmt.getFirstChild(PythonGrammar.COMPOUND_STMT).getFirstChild(), null);
-        statementsWithSeparators.add(compoundStmt);
-      }
+      addStatements(stmt, statementsWithSeparators);
+    }
+    return statementsWithSeparators;
+  }
+
+  private List<StatementWithSeparator> addStatements(AstNode stmt, List<StatementWithSeparator> statementsWithSeparators) {
+    if (stmt.hasDirectChildren(PythonGrammar.STMT_LIST)) {
+      List<StatementWithSeparator> statementList = getStatementsWithSeparators(stmt);
+      statementsWithSeparators.addAll(statementList);
+    } else {
+      StatementWithSeparator compoundStmt = new StatementWithSeparator(stmt.getFirstChild(PythonGrammar.COMPOUND_STMT).getFirstChild(), null);
+      statementsWithSeparators.add(compoundStmt);
     }
     return statementsWithSeparators;
   }
@@ -20,56 +20,79 @@
 package org.sonar.python.tree;
 
 import com.sonar.sslr.api.TokenType;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.sonar.plugins.python.api.tree.Token;
 import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.plugins.python.api.tree.TreeVisitor;
 import org.sonar.plugins.python.api.tree.Trivia;
 
+/**
+ * Tokens are the most numerous nodes of a tree: the few values needed from the SSLR token are copied into primitive fields so that the
+ * SSLR token, and everything it references, can be garbage collected once the tree is built.
+ */
 public class TokenImpl extends PyTree implements Token {
 
-  private com.sonar.sslr.api.Token token;
-  private List<Trivia> trivia;
+  private static final List<Trivia> NO_TRIVIA = Collections.emptyList();
+
+  private final String value;
+  private final TokenType type;
+  private final List<Trivia> trivia;
 
-  private Integer line;
-  private Integer column;
-  private int includedEscapeChars;
-  private boolean isCompressed = false;
+  private final int line;
+  private final int column;
+  private final int pythonLine;
+  private final int pythonColumn;
+  private final int includedEscapeChars;
+  private final boolean isCompressed;
 
   public TokenImpl(com.sonar.sslr.api.Token token) {
-    this.token = token;
-    this.trivia = token.getTrivia().stream().map(tr -> new TriviaImpl(new TokenImpl(tr.getToken()))).collect(Collectors.toList());
+    this(token, token.getLine(), token.getColumn(), 0, trivia(token), false);
   }
 
   public TokenImpl(com.sonar.sslr.api.Token token, int line, int column, int includedEscapeChars, List<Trivia> trivia, boolean isCompressed) {
-    this.token = token;
+    this.value = token.getValue();
+    this.type = token.getType();
+    this.pythonLine = token.getLine();
+    this.pythonColumn = token.getColumn();
     this.line = line;
     this.column = column;
     this.includedEscapeChars = includedEscapeChars;
-    this.trivia = trivia;
+    this.trivia = trivia.isEmpty() ? NO_TRIVIA : trivia;
     this.isCompressed = isCompressed;
   }
 
+  private static List<Trivia> trivia(com.sonar.sslr.api.Token token) {
+    List<com.sonar.sslr.api.Trivia> sslrTrivia = token.getTrivia();
+    if (sslrTrivia.isEmpty()) {
+      return NO_TRIVIA;
+    }
+    List<Trivia> trivia = new ArrayList<>(sslrTrivia.size());
+    for (com.sonar.sslr.api.Trivia tr : sslrTrivia) {
+      trivia.add(new TriviaImpl(new TokenImpl(tr.getToken())));
+    }
+    return trivia;
+  }
+
   @Override
   public String value() {
-    return token.getValue();
+    return value;
   }
 
   @Override
   public int line() {
-    return line != null ? line : pythonLine();
+    return line;
   }
 
   @Override
   public int column() {
-    return column != null ? column : pythonColumn();
+    return column;
   }
 
   @Override
   public int pythonLine() {
-    return token.getLine();
+    return pythonLine;
   }
 
   @Override
@@ -79,7 +102,7 @@ public class TokenImpl extends PyTree implements Token {
 
   @Override
   public int pythonColumn() {
-    return token.getColumn();
+    return pythonColumn;
   }
 
   @Override
@@ -88,7 +111,7 @@ public class TokenImpl extends PyTree implements Token {
   }
 
   public TokenType type() {
-    return token.getType();
+    return type;
   }
 
   @Override
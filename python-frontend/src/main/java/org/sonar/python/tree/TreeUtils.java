@@ -101,19 +101,68 @@ public class TreeUtils {
     return Comparator.comparing((Tree t) -> t.firstToken().line()).thenComparing((Tree t) -> t.firstToken().column());
   }
 
+  /**
+   * Returns the tokens of the tree in depth-first order.
+   * <p>
+   * The returned list must not be modified: trees of a file share the token table of their {@link FileInputImpl}, and the tokens of
+   * a tree are a read-only view of this table, which throws {@link UnsupportedOperationException} on modification. Callers which need
+   * to sort or edit the tokens have to copy them first. The list is only a fresh one for trees which are not attached to a file.
+   */
   public static List<Token> tokens(Tree tree) {
     if (tree.is(Kind.TOKEN)) {
       return Collections.singletonList((Token) tree);
-    } 
+    }
+    if (root(tree) instanceof FileInputImpl fileInput) {
+      List<Token> tokens = fileInput.tokens(tree);
+      if (tokens != null) {
+        return tokens;
+      }
+    }
     List<Token> tokens = new ArrayList<>();
+    collectTokens(tree, tokens);
+    return tokens;
+  }
+
+  private static void collectTokens(Tree tree, List<Token> tokens) {
     for (Tree child : tree.children()) {
       if (child.is(Kind.TOKEN)) {
         tokens.add(((Token) child));
       } else {
-        tokens.addAll(tokens(child));
+        collectTokens(child, tokens);
       }
     }
-    return tokens;
+  }
+
+  @CheckForNull
+  public static Token previousToken(Token token) {
+    return tokenAt(token, -1);
+  }
+
+  @CheckForNull
+  public static Token nextToken(Token token) {
+    return tokenAt(token, 1);
+  }
+
+  @CheckForNull
+  private static Token tokenAt(Token token, int offset) {
+    Tree root = root(token);
+    if (root instanceof FileInputImpl fileInput) {
+      return fileInput.tokenAt(token, offset);
+    }
+    List<Token> tokens = tokens(root);
+    int index = tokens.indexOf(token);
+    if (index < 0 || index + offset < 0 || index + offset >= tokens.size()) {
+      return null;
+    }
+    return tokens.get(index + offset);
+  }
+
+  private static Tree root(Tree tree) {
+    Tree root = tree;
+    while (root.parent() != null) {
+      root = root.parent();
+    }
+    return root;
   }
 
   public static List<Token> nonWhitespaceTokens(Tree tree) {
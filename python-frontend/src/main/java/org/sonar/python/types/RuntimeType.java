@@ -33,8 +33,8 @@ public class RuntimeType implements InferredType {
 
   private ClassSymbol typeClass;
   private String builtinFullyQualifiedName;
-  private Set<String> typeClassSuperClassesFQN = null;
-  private Set<String> typeClassMembersFQN = null;
+  private volatile Set<String> typeClassSuperClassesFQN = null;
+  private volatile Set<String> typeClassMembersFQN = null;
 
   RuntimeType(ClassSymbol typeClass) {
     this.typeClass = typeClass;
@@ -29,6 +29,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
@@ -59,18 +60,21 @@ import static org.sonar.plugins.python.api.types.BuiltinTypes.LIST;
 import static org.sonar.plugins.python.api.types.BuiltinTypes.NONE_TYPE;
 import static org.sonar.plugins.python.api.types.BuiltinTypes.STR;
 import static org.sonar.plugins.python.api.types.BuiltinTypes.TUPLE;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_CUSTOM_STUBS;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_THIRD_PARTY;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_THIRD_PARTY_MYPY;
 
 public class TypeShed {
 
-  private static Map<String, Symbol> builtins;
-  private static final Map<String, Map<String, Symbol>> typeShedSymbols = new HashMap<>();
-  private static final Map<String, Set<Symbol>> builtinGlobalSymbols = new HashMap<>();
+  // Typeshed symbols are read concurrently without locking once loaded, while loading them is serialized
+  // so that each module is deserialized only once, even when several threads request it at the same time.
+  private static final Object LOAD_LOCK = new Object();
+  private static volatile Map<String, Symbol> builtins;
+  private static final Map<String, Map<String, Symbol>> typeShedSymbols = new ConcurrentHashMap<>();
+  // guarded by LOAD_LOCK
   private static final Set<String> modulesInProgress = new HashSet<>();
 
-  private static final String PROTOBUF_CUSTOM_STUBS = "custom_protobuf/";
-  private static final String PROTOBUF = "stdlib_protobuf/";
-  private static final String PROTOBUF_THIRD_PARTY = "third_party_protobuf/";
-  private static final String PROTOBUF_THIRD_PARTY_MYPY = "third_party_protobuf_mypy/";
   private static final String BUILTINS_FQN = "builtins";
   private static final String BUILTINS_PREFIX = BUILTINS_FQN + ".";
   // Those fundamentals builtins symbols need not to be ambiguous for the frontend to work properly
@@ -90,8 +94,8 @@ public class TypeShed {
   }
 
   private static final Logger LOG = LoggerFactory.getLogger(TypeShed.class);
-  private static Set<String> supportedPythonVersions;
-  private static ProjectLevelSymbolTable projectLevelSymbolTable;
+  private static volatile Set<String> supportedPythonVersions;
+  private static volatile ProjectLevelSymbolTable projectLevelSymbolTable;
 
   private TypeShed() {
   }
@@ -105,18 +109,39 @@ public class TypeShed {
   }
 
   public static Map<String, Symbol> builtinSymbols() {
-    if ((TypeShed.builtins == null)) {
-      supportedPythonVersions = ProjectPythonVersion.currentVersions().stream().map(PythonVersionUtils.Version::serializedValue).collect(Collectors.toSet());
-      Map<String, Symbol> builtins = getSymbolsFromProtobufModule(BUILTINS_FQN, PROTOBUF);
-      builtins.put(NONE_TYPE, new ClassSymbolImpl(NONE_TYPE, NONE_TYPE));
-      TypeShed.builtins = Collections.unmodifiableMap(builtins);
-      TypeShed.builtinGlobalSymbols.put("", new HashSet<>(builtins.values()));
+    Map<String, Symbol> loadedBuiltins = TypeShed.builtins;
+    if (loadedBuiltins != null) {
+      return loadedBuiltins;
+    }
+    synchronized (LOAD_LOCK) {
+      if (TypeShed.builtins == null) {
+        supportedPythonVersions = currentSupportedPythonVersions();
+        Map<String, Symbol> deserializedBuiltins = getSymbolsFromProtobufModule(BUILTINS_FQN, PROTOBUF);
+        deserializedBuiltins.put(NONE_TYPE, new ClassSymbolImpl(NONE_TYPE, NONE_TYPE));
+        TypeShed.builtins = Collections.unmodifiableMap(deserializedBuiltins);
+      }
+      return TypeShed.builtins;
     }
-    return builtins;
   }
 
   public static Map<String, Map<String, Symbol>> getLoadedTypeShedSymbols() {
-    return typeShedSymbols;
+    return Collections.unmodifiableMap(typeShedSymbols);
+  }
+
+  /**
+   * Evicts all loaded symbols if they have been loaded for other Python versions than the ones currently configured.
+   * Symbols are otherwise kept from one analysis to the next one, as they do not depend on the analyzed project.
+   */
+  public static void clearSymbolsIfPythonVersionsChanged() {
+    synchronized (LOAD_LOCK) {
+      if (builtins != null && !currentSupportedPythonVersions().equals(supportedPythonVersions)) {
+        clearSymbols();
+      }
+    }
+  }
+
+  private static Set<String> currentSupportedPythonVersions() {
+    return ProjectPythonVersion.currentVersions().stream().map(PythonVersionUtils.Version::serializedValue).collect(Collectors.toSet());
   }
 
   public static ClassSymbol typeShedClass(String fullyQualifiedName) {
@@ -144,12 +169,23 @@ public class TypeShed {
     if (searchedModuleMatchesCurrentProject(moduleName)) {
       return Collections.emptyMap();
     }
-    if (!TypeShed.typeShedSymbols.containsKey(moduleName)) {
+    Map<String, Symbol> loadedSymbols = typeShedSymbols.get(moduleName);
+    if (loadedSymbols != null) {
+      return loadedSymbols;
+    }
+    synchronized (LOAD_LOCK) {
+      loadedSymbols = typeShedSymbols.get(moduleName);
+      if (loadedSymbols != null) {
+        return loadedSymbols;
+      }
+      if (modulesInProgress.contains(moduleName)) {
+        // Cyclic import between modules: the symbols of the module will be registered once fully loaded
+        return new HashMap<>();
+      }
       Map<String, Symbol> symbols = searchTypeShedForModule(moduleName);
       typeShedSymbols.put(moduleName, symbols);
       return symbols;
     }
-    return TypeShed.typeShedSymbols.get(moduleName);
   }
 
   @CheckForNull
@@ -277,9 +313,7 @@ public class TypeShed {
     String[] fqnSplitByDot = fullyQualifiedName.split("\\.");
     String symbolLocalNameFromFqn = fqnSplitByDot[fqnSplitByDot.length - 1];
     String moduleName = Arrays.stream(fqnSplitByDot, 0, fqnSplitByDot.length - 1).collect(Collectors.joining("."));
-    InputStream resource = TypeShed.class.getResourceAsStream(PROTOBUF + moduleName + ".protobuf");
-    if (resource == null) return null;
-    ModuleSymbol moduleSymbol = deserializedModule(moduleName, resource);
+    ModuleSymbol moduleSymbol = TypeShedBundle.get().module(PROTOBUF, moduleName);
     if (moduleSymbol == null) return null;
     for (SymbolsProtos.ClassSymbol classSymbol : moduleSymbol.getClassesList()) {
       if (classSymbol.getName().equals(symbolLocalNameFromFqn)) {
@@ -295,15 +329,19 @@ public class TypeShed {
 
   // used by tests whenever 'sonar.python.version' changes
   public static void resetBuiltinSymbols() {
+    synchronized (LOAD_LOCK) {
+      clearSymbols();
+      builtinSymbols();
+    }
+  }
+
+  private static void clearSymbols() {
     builtins = null;
     typeShedSymbols.clear();
-    builtinSymbols();
   }
 
+  // must be called while holding LOAD_LOCK
   private static Map<String, Symbol> searchTypeShedForModule(String moduleName) {
-    if (modulesInProgress.contains(moduleName)) {
-      return new HashMap<>();
-    }
     modulesInProgress.add(moduleName);
     Map<String, Symbol> customSymbols = getSymbolsFromProtobufModule(moduleName, PROTOBUF_CUSTOM_STUBS);
     if (!customSymbols.isEmpty()) {
@@ -355,11 +393,7 @@ public class TypeShed {
 
   private static Map<String, Symbol> getSymbolsFromProtobufModule(String moduleName, String dirName) {
     String fileName = MODULES_TO_DISAMBIGUATE.getOrDefault(moduleName, moduleName);
-    InputStream resource = TypeShed.class.getResourceAsStream(dirName + fileName + ".protobuf");
-    if (resource == null) {
-      return Collections.emptyMap();
-    }
-    return getSymbolsFromProtobufModule(deserializedModule(moduleName, resource));
+    return getSymbolsFromProtobufModule(TypeShedBundle.get().module(dirName, fileName));
   }
 
   @CheckForNull
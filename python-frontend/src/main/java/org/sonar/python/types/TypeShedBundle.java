@@ -0,0 +1,336 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.types;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.python.types.protobuf.SymbolsProtos.ModuleSymbol;
+
+import static java.nio.file.attribute.PosixFilePermission.GROUP_WRITE;
+import static java.nio.file.attribute.PosixFilePermission.OTHERS_WRITE;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_EXECUTE;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_READ;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_WRITE;
+
+/**
+ * Gives access to the serialized typeshed modules.
+ * At build time, the TypeShedBundleWriter test tool packs all the ".protobuf" resources into a single bundle starting with
+ * an index of the entries ("stdlib_protobuf/os.path" for instance) and their position in the bundle.
+ * The bundle is memory-mapped, so that a module is found with a single lookup in the index, and deserialized
+ * directly from the mapped buffer. Modules which are not part of the bundle are answered from the index, without
+ * scanning the classpath.
+ * When no bundle is available (e.g. when running from an IDE without the build step), modules are read from the
+ * individual ".protobuf" resources. Those are not shipped in the plugin: when its bundle cannot be extracted and mapped, it is read
+ * in memory instead.
+ */
+public final class TypeShedBundle {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TypeShedBundle.class);
+
+  static final String BUNDLE_RESOURCE = "typeshed.bundle";
+  static final int MAGIC = 0x50594253;
+  static final String PROTOBUF_EXTENSION = ".protobuf";
+  public static final String PROTOBUF_CUSTOM_STUBS = "custom_protobuf/";
+  public static final String PROTOBUF = "stdlib_protobuf/";
+  public static final String PROTOBUF_THIRD_PARTY_MYPY = "third_party_protobuf_mypy/";
+  public static final String PROTOBUF_THIRD_PARTY = "third_party_protobuf/";
+  static final List<String> DIRECTORIES = List.of(PROTOBUF_CUSTOM_STUBS, PROTOBUF, PROTOBUF_THIRD_PARTY_MYPY, PROTOBUF_THIRD_PARTY);
+  private static final String EXTRACTED_PREFIX = "sonar-python-typeshed-";
+  private static final String EXTRACTED_EXTENSION = ".bundle";
+
+  @Nullable
+  private final Map<String, Entry> entries;
+  @Nullable
+  private final ByteBuffer data;
+
+  private TypeShedBundle(@Nullable Map<String, Entry> entries, @Nullable ByteBuffer data) {
+    this.entries = entries;
+    this.data = data;
+  }
+
+  public static TypeShedBundle get() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * @param directory one of the typeshed directories, e.g. {@link #PROTOBUF}
+   * @param fileName name of the serialized module, without extension
+   * @return the deserialized module, or null if it does not exist in the given directory or could not be deserialized
+   */
+  @CheckForNull
+  public ModuleSymbol module(String directory, String fileName) {
+    String key = directory + fileName;
+    if (entries == null) {
+      InputStream resource = TypeShedBundle.class.getResourceAsStream(key + PROTOBUF_EXTENSION);
+      return resource == null ? null : TypeShed.deserializedModule(fileName, resource);
+    }
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    try {
+      return ModuleSymbol.parseFrom(data.slice(entry.offset(), entry.length()));
+    } catch (IOException e) {
+      LOG.debug("Error while deserializing protobuf for module " + fileName, e);
+      return null;
+    }
+  }
+
+  boolean isIndexed() {
+    return entries != null;
+  }
+
+  static TypeShedBundle load() {
+    return load(TypeShedBundle.class.getResource(BUNDLE_RESOURCE), Path.of(System.getProperty("java.io.tmpdir")));
+  }
+
+  /**
+   * @param extractionParent directory in which a private directory is created to extract the bundle when it is packaged in a jar
+   */
+  static TypeShedBundle load(@Nullable URL url, Path extractionParent) {
+    if (url == null) {
+      LOG.debug("No typeshed bundle found, typeshed modules will be read from individual resources");
+      return new TypeShedBundle(null, null);
+    }
+    try {
+      return read(map(url, extractionParent));
+    } catch (IOException e) {
+      LOG.debug("Unable to map the typeshed bundle, it will be read in memory", e);
+    }
+    try (InputStream in = openStream(url)) {
+      return read(ByteBuffer.wrap(in.readAllBytes()));
+    } catch (IOException e) {
+      // individual ".protobuf" resources are not shipped along with the bundle: there is nothing to fall back to
+      throw new IllegalStateException("Unable to read the typeshed bundle " + url, e);
+    }
+  }
+
+  static TypeShedBundle open(Path bundle) throws IOException {
+    return read(map(bundle));
+  }
+
+  private static ByteBuffer map(URL url, Path extractionParent) throws IOException {
+    if ("file".equals(url.getProtocol())) {
+      try {
+        return map(new File(url.toURI()).toPath());
+      } catch (URISyntaxException e) {
+        throw new IOException(e);
+      }
+    }
+    // The bundle is packaged in the plugin jar, and entries of a jar cannot be mapped
+    return map(extract(url, privateDirectory(extractionParent)));
+  }
+
+  /**
+   * Returns a directory of the given parent which only the current user can write to, creating it if needed.
+   * The parent is typically the temporary directory shared by all users: a bundle extracted there could be replaced by anyone.
+   */
+  static Path privateDirectory(Path parent) throws IOException {
+    Path directory = parent.resolve("sonar-python-" + System.getProperty("user.name").replaceAll("[^\\w.-]", "_"));
+    boolean isPosix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+    if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+      try {
+        if (isPosix) {
+          Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(EnumSet.of(OWNER_READ, OWNER_WRITE, OWNER_EXECUTE)));
+        } else {
+          Files.createDirectory(directory);
+        }
+      } catch (FileAlreadyExistsException e) {
+        // created by a concurrent analysis in the meantime
+      }
+    }
+    if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+      throw new IOException("Not a directory: " + directory);
+    }
+    if (isPosix) {
+      PosixFileAttributes attributes = Files.readAttributes(directory, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+      UserPrincipal currentUser = directory.getFileSystem().getUserPrincipalLookupService()
+        .lookupPrincipalByName(System.getProperty("user.name"));
+      Set<PosixFilePermission> permissions = attributes.permissions();
+      if (!attributes.owner().equals(currentUser) || permissions.contains(GROUP_WRITE) || permissions.contains(OTHERS_WRITE)) {
+        throw new IOException("Directory can be written by other users: " + directory);
+      }
+    }
+    // on other file systems (i.e. Windows), the temporary directory is private to the user
+    return directory;
+  }
+
+  /**
+   * Extracts the bundle to a file of the given directory named after its checksum, so that the file is shared by all the analyses
+   * (and class loaders) using the same bundle, rather than extracted again by each of them. An existing file is only reused when
+   * its content matches the checksum. Bundles of other versions of the plugin are deleted when the bundle is extracted.
+   */
+  static Path extract(URL url, Path directory) throws IOException {
+    URLConnection connection = url.openConnection();
+    connection.setUseCaches(false);
+    if (connection instanceof JarURLConnection jarConnection) {
+      JarEntry entry = jarConnection.getJarEntry();
+      if (entry.getCrc() != -1 && entry.getSize() != -1) {
+        Path extracted = directory.resolve(extractedFileName(entry.getCrc(), entry.getSize()));
+        if (!hasChecksum(extracted, entry.getCrc(), entry.getSize())) {
+          try (InputStream in = connection.getInputStream()) {
+            moveAtomically(copyToTempFile(in, directory), extracted, entry.getCrc(), entry.getSize());
+          }
+          deleteOtherBundles(directory, extracted);
+        }
+        return extracted;
+      }
+    }
+    // checksum unknown beforehand: it is computed while copying
+    CRC32 crc = new CRC32();
+    Path tempFile;
+    try (InputStream in = new CheckedInputStream(connection.getInputStream(), crc)) {
+      tempFile = copyToTempFile(in, directory);
+    }
+    long size = Files.size(tempFile);
+    Path extracted = directory.resolve(extractedFileName(crc.getValue(), size));
+    if (hasChecksum(extracted, crc.getValue(), size)) {
+      Files.delete(tempFile);
+    } else {
+      moveAtomically(tempFile, extracted, crc.getValue(), size);
+      deleteOtherBundles(directory, extracted);
+    }
+    return extracted;
+  }
+
+  private static String extractedFileName(long crc, long size) {
+    return String.format(EXTRACTED_PREFIX + "%08x-%d" + EXTRACTED_EXTENSION, crc, size);
+  }
+
+  private static boolean hasChecksum(Path path, long crc, long size) throws IOException {
+    if (!Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS) || Files.size(path) != size) {
+      return false;
+    }
+    CRC32 actual = new CRC32();
+    actual.update(map(path));
+    return actual.getValue() == crc;
+  }
+
+  private static Path copyToTempFile(InputStream in, Path directory) throws IOException {
+    Path tempFile = Files.createTempFile(directory, EXTRACTED_PREFIX, ".tmp");
+    try {
+      Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      Files.deleteIfExists(tempFile);
+      throw e;
+    }
+    return tempFile;
+  }
+
+  private static void moveAtomically(Path source, Path target, long crc, long size) throws IOException {
+    // concurrent analyses may extract the same bundle: readers only ever see complete files
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      Files.deleteIfExists(source);
+      if (!hasChecksum(target, crc, size)) {
+        throw e;
+      }
+    }
+  }
+
+  private static void deleteOtherBundles(Path directory, Path extracted) {
+    try (DirectoryStream<Path> bundles = Files.newDirectoryStream(directory, EXTRACTED_PREFIX + "*" + EXTRACTED_EXTENSION)) {
+      for (Path bundle : bundles) {
+        if (!bundle.equals(extracted)) {
+          // still readable by analyses which mapped it, except on Windows where the deletion then fails
+          Files.deleteIfExists(bundle);
+        }
+      }
+    } catch (IOException e) {
+      LOG.debug("Unable to delete typeshed bundles of other versions", e);
+    }
+  }
+
+  private static InputStream openStream(URL url) throws IOException {
+    URLConnection connection = url.openConnection();
+    connection.setUseCaches(false);
+    return connection.getInputStream();
+  }
+
+  private static ByteBuffer map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
+  private static TypeShedBundle read(ByteBuffer buffer) throws IOException {
+    if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+      throw new IOException("Invalid typeshed bundle");
+    }
+    int entryCount = buffer.getInt();
+    Map<String, Entry> entries = new HashMap<>(entryCount * 4 / 3 + 1);
+    String[] keys = new String[entryCount];
+    int[] lengths = new int[entryCount];
+    for (int i = 0; i < entryCount; i++) {
+      byte[] key = new byte[Short.toUnsignedInt(buffer.getShort())];
+      buffer.get(key);
+      keys[i] = new String(key, StandardCharsets.UTF_8);
+      lengths[i] = buffer.getInt();
+    }
+    int offset = buffer.position();
+    for (int i = 0; i < entryCount; i++) {
+      entries.put(keys[i], new Entry(offset, lengths[i]));
+      offset += lengths[i];
+    }
+    if (offset != buffer.limit()) {
+      throw new IOException("Invalid typeshed bundle");
+    }
+    return new TypeShedBundle(entries, buffer);
+  }
+
+  private record Entry(int offset, int length) {
+  }
+
+  private static class Holder {
+    private static final TypeShedBundle INSTANCE = load();
+  }
+}
@@ -41,6 +41,8 @@ import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.semantic.SymbolImpl;
 import org.sonar.python.tree.FileInputImpl;
 import org.sonar.python.tree.PythonTreeMaker;
+import org.sonar.python.types.v2.FunctionType;
+import org.sonar.python.types.v2.PythonType;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.mockito.Mockito.mock;
@@ -91,6 +93,23 @@ class PythonVisitorContextTest {
     assertThat(fileInput.globalVariables()).extracting(Symbol::name).containsExactlyInAnyOrder("a", "b");
   }
 
+  @Test
+  void types_v2_are_only_inferred_when_required() {
+    PythonFile pythonFile = pythonFile("my_module.py");
+    ProjectLevelSymbolTable projectLevelSymbolTable = ProjectLevelSymbolTable.empty();
+
+    FileInput fileInput = PythonTestUtils.parseWithoutSymbols("def foo(): pass");
+    new PythonVisitorContext(fileInput, pythonFile, null, "my_package", projectLevelSymbolTable, CacheContextImpl.dummyCache(), SonarProduct.SONARQUBE, false);
+    FunctionDef functionDef = (FunctionDef) PythonTestUtils.getAllDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF)).get(0);
+    assertThat(functionDef.name().symbol().fullyQualifiedName()).isEqualTo("my_package.my_module.foo");
+    assertThat(functionDef.name().typeV2()).isEqualTo(PythonType.UNKNOWN);
+
+    fileInput = PythonTestUtils.parseWithoutSymbols("def foo(): pass");
+    new PythonVisitorContext(fileInput, pythonFile, null, "my_package", projectLevelSymbolTable, CacheContextImpl.dummyCache(), SonarProduct.SONARQUBE, true);
+    functionDef = (FunctionDef) PythonTestUtils.getAllDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF)).get(0);
+    assertThat(functionDef.name().typeV2()).isInstanceOf(FunctionType.class);
+  }
+
   @Test
   void sonar_product() {
     CacheContextImpl cacheContext = CacheContextImpl.dummyCache();
@@ -245,6 +245,24 @@ class ControlFlowGraphTest {
       )).isNull();
   }
 
+  @Test
+  void cfg_is_built_once_per_tree() {
+    FileInput fileInput = PythonTestUtils.parseWithoutSymbols(
+      "def foo():",
+      "  pass",
+      "foo()"
+    );
+    FunctionDef functionDef = PythonTestUtils.getLastDescendant(fileInput, t -> t.is(Kind.FUNCDEF));
+    ControlFlowGraph fileCfg = ControlFlowGraph.build(fileInput, file);
+    ControlFlowGraph functionCfg = ControlFlowGraph.build(functionDef, file);
+    assertThat(fileCfg).isNotSameAs(functionCfg);
+    assertThat(ControlFlowGraph.build(fileInput, file)).isSameAs(fileCfg);
+    assertThat(ControlFlowGraph.build(functionDef, file)).isSameAs(functionCfg);
+
+    FileInput otherFileInput = PythonTestUtils.parseWithoutSymbols("foo()");
+    assertThat(ControlFlowGraph.build(otherFileInput, file)).isNotSameAs(fileCfg);
+  }
+
   @Test
   void continue_nested_while() {
     verifyCfg(
@@ -0,0 +1,82 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.sonar.api.SonarProduct;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.caching.CacheContextImpl;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalysisStatisticsTest {
+
+  @Test
+  void phases_and_checks_are_measured() {
+    AnalysisStatistics statistics = new AnalysisStatistics();
+    FileInput fileInput = PythonTestUtils.parseWithoutSymbols("def foo(): pass", "def bar(): pass");
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, "",
+      ProjectLevelSymbolTable.empty(), CacheContextImpl.dummyCache(), SonarProduct.SONARQUBE, true, statistics);
+
+    FunctionDefCheck check = new FunctionDefCheck();
+    SubscriptionVisitor.analyze(List.of(check), context, statistics);
+
+    assertThat(statistics.phases()).containsOnlyKeys(AnalysisStatistics.SYMBOLS, AnalysisStatistics.TYPES);
+    assertThat(statistics.phases().get(AnalysisStatistics.SYMBOLS).count()).isEqualTo(1);
+
+    AnalysisStatistics.CheckStatistics checkStatistics = statistics.checks().get(FunctionDefCheck.class);
+    // 2 function definitions and leaveFile
+    assertThat(checkStatistics.count()).isEqualTo(3);
+    assertThat(checkStatistics.nanos()).isNotNegative();
+    assertThat(checkStatistics.byKind()).containsOnlyKeys(Tree.Kind.FUNCDEF);
+    assertThat(checkStatistics.byKind().get(Tree.Kind.FUNCDEF).count()).isEqualTo(2);
+    if (AnalysisStatistics.isAllocatedBytesSupported()) {
+      assertThat(statistics.phases().get(AnalysisStatistics.TYPES).allocatedBytes()).isPositive();
+    } else {
+      assertThat(AnalysisStatistics.currentThreadAllocatedBytes()).isZero();
+    }
+  }
+
+  @Test
+  void measure_without_statistics() {
+    int[] executions = {0};
+    AnalysisStatistics.measure(null, AnalysisStatistics.PARSE, () -> executions[0]++);
+    assertThat(executions[0]).isEqualTo(1);
+
+    AnalysisStatistics statistics = new AnalysisStatistics();
+    AnalysisStatistics.measure(statistics, AnalysisStatistics.PARSE, () -> executions[0]++);
+    assertThat(executions[0]).isEqualTo(2);
+    assertThat(statistics.phases().get(AnalysisStatistics.PARSE).count()).isEqualTo(1);
+    assertThat(statistics.checks()).isEmpty();
+  }
+
+  private static class FunctionDefCheck extends PythonSubscriptionCheck {
+    @Override
+    public void initialize(Context context) {
+      context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> {
+      });
+    }
+  }
+}
@@ -19,15 +19,22 @@
  */
 package org.sonar.python;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.sonar.plugins.python.api.IssueLocation;
 import org.sonar.plugins.python.api.ProjectPythonVersion;
 import org.sonar.plugins.python.api.PythonFile;
 import org.sonar.plugins.python.api.PythonSubscriptionCheck;
 import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.SubscriptionCheck;
+import org.sonar.plugins.python.api.SubscriptionContext;
 import org.sonar.plugins.python.api.caching.CacheContext;
+import org.sonar.plugins.python.api.tree.CallExpression;
 import org.sonar.plugins.python.api.tree.ClassDef;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.StringElement;
@@ -39,6 +46,7 @@ import org.sonarsource.analyzer.commons.regex.RegexParseResult;
 import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 class SubscriptionVisitorTest {
 
@@ -66,6 +74,36 @@ class SubscriptionVisitorTest {
     SubscriptionVisitor.analyze(Collections.singleton(check), context);
   }
 
+  @Test
+  void test_regex_shared_between_files() {
+    List<RegexParseResult> results = new ArrayList<>();
+    List<IssueLocation> locations = new ArrayList<>();
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.STRING_ELEMENT, ctx -> {
+          RegexContext regexCtx = (RegexContext) ctx;
+          RegexParseResult result = regexCtx.regexForStringElement((StringElement) ctx.syntaxNode(), new FlagSet());
+          results.add(result);
+          locations.add(regexCtx.preciseLocation(result.getResult(), null));
+        });
+      }
+    };
+
+    SubscriptionVisitor.analyze(Collections.singleton(check),
+      new PythonVisitorContext(PythonTestUtils.parse("'shared+regex'"), PythonTestUtils.pythonFile("file1"), null, null));
+    SubscriptionVisitor.analyze(Collections.singleton(check),
+      new PythonVisitorContext(PythonTestUtils.parse("x = 'shared+regex'\n'shared+regex'"), PythonTestUtils.pythonFile("file2"), null, null));
+
+    assertThat(results).hasSize(3);
+    assertThat(results.get(1)).isSameAs(results.get(0));
+    // the elements of the shared result are already located at the first string element of file2
+    assertThat(results.get(2)).isNotSameAs(results.get(0));
+
+    assertThat(locations).extracting(IssueLocation::startLine, IssueLocation::startLineOffset, IssueLocation::endLineOffset)
+      .containsExactly(tuple(1, 1, 13), tuple(1, 5, 17), tuple(2, 1, 13));
+  }
+
   @Test
   void exposed_visitor_data() {
     FileInput fileInput = PythonTestUtils.parse("def foo(): ...");
@@ -103,4 +141,120 @@ class SubscriptionVisitorTest {
     PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, null);
     SubscriptionVisitor.analyze(Collections.singleton(check), context);
   }
+
+  @Test
+  void nodes_are_visited_in_pre_order() {
+    FileInput fileInput = PythonTestUtils.parse("def foo(a, b):", "  return a + b", "x = foo(1, 2)");
+    List<Tree> visited = new ArrayList<>();
+    List<Tree> tokens = new ArrayList<>();
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        for (Tree.Kind kind : Tree.Kind.values()) {
+          context.registerSyntaxNodeConsumer(kind, ctx -> visited.add(ctx.syntaxNode()));
+        }
+        context.registerSyntaxNodeConsumer(Tree.Kind.TOKEN, ctx -> tokens.add(ctx.syntaxNode()));
+      }
+    };
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, null);
+    SubscriptionVisitor.analyze(Collections.singleton(check), context);
+
+    List<Tree> expected = new ArrayList<>();
+    preOrder(fileInput, expected);
+    assertThat(visited).containsExactlyElementsOf(expected);
+    assertThat(tokens).isNotEmpty().allMatch(tree -> tree.is(Tree.Kind.TOKEN));
+  }
+
+  @Test
+  void tokens_are_not_visited_without_subscription() {
+    FileInput fileInput = PythonTestUtils.parse("x = foo(1, 2)");
+    List<Tree> visited = new ArrayList<>();
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.NAME, ctx -> visited.add(ctx.syntaxNode()));
+        context.registerSyntaxNodeConsumer(Tree.Kind.NUMERIC_LITERAL, ctx -> visited.add(ctx.syntaxNode()));
+      }
+    };
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, null);
+    SubscriptionVisitor.analyze(Collections.singleton(check), context);
+
+    assertThat(visited).extracting(Tree::getKind)
+      .containsExactly(Tree.Kind.NAME, Tree.Kind.NAME, Tree.Kind.NUMERIC_LITERAL, Tree.Kind.NUMERIC_LITERAL);
+  }
+
+  @Test
+  void file_input_only_subscription() {
+    FileInput fileInput = PythonTestUtils.parse("x = 1");
+    List<Tree> visited = new ArrayList<>();
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> visited.add(ctx.syntaxNode()));
+      }
+    };
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, null);
+    SubscriptionVisitor.analyze(Collections.singleton(check), context);
+
+    assertThat(visited).containsExactly(fileInput);
+  }
+
+  @Test
+  void call_expressions_are_dispatched_by_callee_fully_qualified_name() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "from mylib.crypto import md5, sha1",
+      "from mylib.utils import join",
+      "md5()",
+      "sha1()",
+      "join('a')",
+      "unknown()");
+    List<String> visited = new ArrayList<>();
+    PythonSubscriptionCheck check = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.CALL_EXPR, ctx -> visited.add("all:" + ctx.syntaxNode().firstToken().line()));
+        context.registerCallExpressionConsumer(List.of("mylib.crypto.md5", "mylib.utils.join"), ctx -> visited.add("names:" + ctx.syntaxNode().firstToken().line()));
+        context.registerCallExpressionConsumer(List.of("mylib.crypto.", "mylib.crypto.sha1"), ctx -> visited.add("crypto:" + ctx.syntaxNode().firstToken().line()));
+        context.registerCallExpressionConsumer(List.of("mylib.utils."), ctx -> visited.add("utils:" + ctx.syntaxNode().firstToken().line()));
+      }
+    };
+    PythonVisitorContext context = new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, null);
+    SubscriptionVisitor.analyze(Collections.singleton(check), context);
+
+    assertThat(visited).containsExactly(
+      "all:3", "names:3", "crypto:3",
+      "all:4", "crypto:4",
+      "all:5", "names:5", "utils:5",
+      "all:6");
+  }
+
+  @Test
+  void call_expression_consumer_of_other_contexts() {
+    FileInput fileInput = PythonTestUtils.parse("from mylib.crypto import md5, sha1", "md5()", "sha1()", "unknown()");
+    List<Consumer<SubscriptionContext>> callConsumers = new ArrayList<>();
+    SubscriptionCheck.Context context = (elementType, consumer) -> {
+      assertThat(elementType).isEqualTo(Tree.Kind.CALL_EXPR);
+      callConsumers.add(consumer);
+    };
+    List<Tree> visited = new ArrayList<>();
+    context.registerCallExpressionConsumer(List.of("mylib.crypto.md5"), ctx -> visited.add(ctx.syntaxNode()));
+    context.registerCallExpressionConsumer(List.of("mylib."), ctx -> visited.add(ctx.syntaxNode()));
+
+    List<CallExpression> calls = PythonTestUtils.getAllDescendant(fileInput, tree -> tree.is(Tree.Kind.CALL_EXPR));
+    for (CallExpression call : calls) {
+      SubscriptionContext subscriptionContext = Mockito.mock(SubscriptionContext.class);
+      Mockito.when(subscriptionContext.syntaxNode()).thenReturn(call);
+      callConsumers.forEach(consumer -> consumer.accept(subscriptionContext));
+    }
+    assertThat(visited).containsExactly(calls.get(0), calls.get(0), calls.get(1));
+  }
+
+  private static void preOrder(Tree tree, List<Tree> trees) {
+    trees.add(tree);
+    for (Tree child : tree.children()) {
+      if (child != null) {
+        preOrder(child, trees);
+      }
+    }
+  }
 }
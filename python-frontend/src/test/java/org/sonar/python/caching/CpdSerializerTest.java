@@ -51,6 +51,19 @@ class CpdSerializerTest {
       .hasSize(1);
     assertThat(tokenInfos.get(0))
       .usingRecursiveComparison().isEqualTo(new CpdSerializer.TokenInfo(1, 0, 1, 4, "pass"));
+    assertThat(CpdSerializer.deserialize(result.toByteArray()))
+      .singleElement()
+      .usingRecursiveComparison().isEqualTo(new CpdSerializer.TokenInfo(1, 0, 1, 4, "pass"));
+  }
+
+  @Test
+  void corrupted_single_entry_format() {
+    assertThatCode(() -> CpdSerializer.deserialize(new byte[] {0, 0}))
+      .isInstanceOf(IOException.class)
+      .hasMessageStartingWith("Can't read data from cache, format corrupted");
+    assertThatCode(() -> CpdSerializer.deserialize(new byte[] {0, 0, 0, 5, 0, 3, 'E', 'N'}))
+      .isInstanceOf(IOException.class)
+      .hasMessageStartingWith("Can't read data from cache, format corrupted");
   }
 
   @Test
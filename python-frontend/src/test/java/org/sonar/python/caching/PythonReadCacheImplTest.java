@@ -50,6 +50,8 @@ class PythonReadCacheImplTest {
     byte[] result = pythonReadCache.readBytes("key");
 
     assertThat(result).isEqualTo(bytes);
+    assertThat(pythonReadCache.entriesRead()).isEqualTo(1);
+    assertThat(pythonReadCache.bytesRead()).isEqualTo(5);
   }
 
   @Test
@@ -61,6 +63,7 @@ class PythonReadCacheImplTest {
     byte[] result = pythonReadCache.readBytes("key");
 
     assertThat(result).isNull();
+    assertThat(pythonReadCache.entriesRead()).isZero();
   }
 
   @Test
@@ -23,6 +23,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.sonar.api.batch.sensor.cache.WriteCache;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 class PythonWriteCacheImplTest {
 
   @Test
@@ -35,6 +37,9 @@ class PythonWriteCacheImplTest {
 
     Mockito.verify(writeCache, Mockito.times(1))
       .write("key", bytes);
+    assertThat(pythonWriteCache.entriesWritten()).isEqualTo(1);
+    assertThat(pythonWriteCache.bytesWritten()).isEqualTo(5);
+    assertThat(pythonWriteCache.entriesCopied()).isZero();
   }
 
   @Test
@@ -46,5 +51,7 @@ class PythonWriteCacheImplTest {
 
     Mockito.verify(writeCache, Mockito.times(1))
       .copyFromPrevious("key");
+    assertThat(pythonWriteCache.entriesCopied()).isEqualTo(1);
+    assertThat(pythonWriteCache.entriesWritten()).isZero();
   }
 }
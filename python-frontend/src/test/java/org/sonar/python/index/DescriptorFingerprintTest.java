@@ -0,0 +1,92 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.python.PythonTestUtils.parseWithoutSymbols;
+import static org.sonar.python.PythonTestUtils.pythonFile;
+
+class DescriptorFingerprintTest {
+
+  @Test
+  void body_changes_do_not_change_fingerprint() {
+    byte[] fingerprint = fingerprint(
+      "def foo(x, y=1): return x",
+      "class A:",
+      "  def meth(self): pass");
+    byte[] shiftedBodies = fingerprint(
+      "",
+      "def foo(x, y=1):",
+      "  print(x)",
+      "  return x + y",
+      "class A:",
+      "",
+      "  def meth(self):",
+      "    return 42");
+    assertThat(shiftedBodies).isEqualTo(fingerprint);
+  }
+
+  @Test
+  void order_of_descriptors_does_not_change_fingerprint() {
+    VariableDescriptor x = new VariableDescriptor("x", "mod.x", null);
+    VariableDescriptor y = new VariableDescriptor("y", "mod.y", "int");
+    ClassDescriptor classDescriptor = new ClassDescriptor.ClassDescriptorBuilder()
+      .withName("A")
+      .withFullyQualifiedName("mod.A")
+      .withMembers(Set.of(x, y))
+      .build();
+    List<Descriptor> descriptors = new ArrayList<>(List.of(x, y, classDescriptor));
+    byte[] fingerprint = DescriptorFingerprint.of(descriptors);
+    descriptors.add(descriptors.remove(0));
+    assertThat(DescriptorFingerprint.of(descriptors)).isEqualTo(fingerprint);
+  }
+
+  @Test
+  void api_changes_change_fingerprint() {
+    byte[] fingerprint = fingerprint("def foo(x): pass");
+    assertThat(fingerprint("def foo(x, y): pass")).isNotEqualTo(fingerprint);
+    assertThat(fingerprint("def foo(x: int): pass")).isNotEqualTo(fingerprint);
+    assertThat(fingerprint("def foo(x) -> str: pass")).isNotEqualTo(fingerprint);
+    assertThat(fingerprint("async def foo(x): pass")).isNotEqualTo(fingerprint);
+    assertThat(fingerprint("def bar(x): pass")).isNotEqualTo(fingerprint);
+    assertThat(fingerprint("def foo(x): pass", "def foo(x, y): pass")).isNotEqualTo(fingerprint);
+
+    byte[] classFingerprint = fingerprint("class A: pass");
+    assertThat(fingerprint("class A(B): pass")).isNotEqualTo(classFingerprint);
+    assertThat(fingerprint("class A:", "  x = 42")).isNotEqualTo(classFingerprint);
+  }
+
+  @Test
+  void canonical_form_is_unambiguous() {
+    assertThat(DescriptorFingerprint.canonicalForm(List.of(new VariableDescriptor("a", "b", null))))
+      .isNotEqualTo(DescriptorFingerprint.canonicalForm(List.of(new VariableDescriptor("a1:b", null, null))));
+  }
+
+  private static byte[] fingerprint(String... code) {
+    ProjectLevelSymbolTable.ModuleSymbols moduleSymbols = ProjectLevelSymbolTable.moduleSymbols(parseWithoutSymbols(code), "", pythonFile("mod.py"));
+    return DescriptorFingerprint.of(moduleSymbols.globalDescriptors());
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.lexer;
+
+import com.sonar.sslr.api.Token;
+import com.sonar.sslr.api.Trivia;
+import com.sonar.sslr.impl.Lexer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hand-written channels must produce exactly the same tokens as the regular expression channels.
+ */
+class RegexpChannelsEquivalenceTest {
+
+  private static final List<Path> CORPUS_DIRECTORIES = List.of(
+    Paths.get("src/test/resources"),
+    Paths.get("../python-checks/src/test/resources"),
+    Paths.get("../its/sources_pr_analysis"));
+
+  private final LexerState handWrittenState = new LexerState();
+  private final Lexer handWritten = PythonLexer.create(handWrittenState, false);
+  private final LexerState regexpState = new LexerState();
+  private final Lexer regexp = PythonLexer.create(regexpState, true);
+
+  @Test
+  void snippets() {
+    assertSameTokens("snippet",
+      "0 00 0_0 0L 07 019 0o17 0O1_7 0o 0x1F 0X_ff 0xL 0b101 0B_1 0b2 1 1_000 1_ 1__0 123L",
+      "1. 1.5 .5 1.e5 1e5 1E+5 1e- 1e_1 1.5j 1J 1e5J .5e-3j 1_0.0_1 1..2 1.__class__ x.1",
+      "abc _a a1 é_variable ñ\u00e9 def class if_ True None async await match",
+      "a = 'x' + b'y' + rb\"z\" + Br'w' + f'{a!r:>{width}}' + u'v' + '''long\nstring''' # comment",
+      "def f(a, *, b=1, **c) -> int:\n\tif a:\n  \t\treturn a \\\n  + b\n# trailing\n  \f x = [\n 1,\n  2]\n",
+      "x = 1 \u000B\f+ 2\r\ny = 3\r\n\r\n",
+      "@decorator\nclass A:\n    pass\n",
+      "unknown ? $ ` \\ x",
+      "'unterminated\nb'unterminated");
+  }
+
+  @Test
+  void ipynb_snippet() {
+    String code = "#%% cell\nimport os\n  x = 1\n#SONAR_PYTHON_NOTEBOOK_CELL_DELIMITER\ny = 2\n";
+    LexerState state = new LexerState();
+    List<Token> expected = PythonLexer.ipynbLexer(state, true).lex(code);
+    state = new LexerState();
+    List<Token> actual = PythonLexer.ipynbLexer(state, false).lex(code);
+    assertThat(describe(actual)).isEqualTo(describe(expected));
+  }
+
+  @Test
+  void corpus() throws IOException {
+    int files = 0;
+    for (Path directory : CORPUS_DIRECTORIES) {
+      if (!Files.isDirectory(directory)) {
+        continue;
+      }
+      List<Path> sources;
+      try (Stream<Path> paths = Files.walk(directory)) {
+        sources = paths.filter(path -> path.toString().endsWith(".py")).sorted().collect(Collectors.toList());
+      }
+      for (Path source : sources) {
+        assertSameTokens(source.toString(), new String(Files.readAllBytes(source), StandardCharsets.UTF_8));
+        files++;
+      }
+    }
+    assertThat(files).isPositive();
+  }
+
+  private void assertSameTokens(String name, String... lines) {
+    String code = String.join("\n", lines);
+    handWrittenState.reset();
+    regexpState.reset();
+    String expected;
+    try {
+      expected = String.join("\n", describe(regexp.lex(code)));
+    } catch (RuntimeException e) {
+      expected = "failure: " + e.getMessage();
+    }
+    String actual;
+    try {
+      actual = String.join("\n", describe(handWritten.lex(code)));
+    } catch (RuntimeException e) {
+      actual = "failure: " + e.getMessage();
+    }
+    assertThat(actual).as(name).isEqualTo(expected);
+  }
+
+  private static List<String> describe(List<Token> tokens) {
+    List<String> result = new ArrayList<>();
+    for (Token token : tokens) {
+      for (Trivia trivia : token.getTrivia()) {
+        result.add("  trivia " + describe(trivia.getToken()));
+      }
+      result.add(describe(token));
+    }
+    return result;
+  }
+
+  private static String describe(Token token) {
+    return token.getType() + " " + token.getLine() + ":" + token.getColumn() + " [" + token.getValue() + "] [" + token.getOriginalValue() + "]"
+      + (token.isGeneratedCode() ? " generated" : "");
+  }
+
+}
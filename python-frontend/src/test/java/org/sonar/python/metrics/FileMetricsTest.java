@@ -20,7 +20,14 @@
 package org.sonar.python.metrics;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
+import org.sonar.plugins.python.api.tree.FileInput;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
 import org.sonar.python.TestPythonVisitorRunner;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -58,6 +65,43 @@ class FileMetricsTest {
     assertThat(metrics("function-complexities.py").functionComplexities()).containsExactly(3, 1);
   }
 
+  @Test
+  void nested_function_complexities() {
+    FileInput fileInput = PythonTestUtils.parse(
+      "def outer(a, b=1 if x else 2):",
+      "  if a and b:",
+      "    def inner():",
+      "      while a: pass",
+      "    class C:",
+      "      def method(self): return [x for x in a if x]",
+      "  return lambda: a or b",
+      "def other(): pass");
+    FileMetrics fileMetrics = new FileMetrics(new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, ""));
+    List<Integer> expected = PythonTestUtils.getAllDescendant(fileInput, t -> t.is(Tree.Kind.FUNCDEF)).stream()
+      .map(ComplexityVisitor::complexity)
+      .toList();
+    assertThat(fileMetrics.functionComplexities()).isEqualTo(expected);
+    assertThat(fileMetrics.functionComplexities()).containsExactly(5, 2, 2, 1);
+    assertThat(fileMetrics.complexity()).isEqualTo(ComplexityVisitor.complexity(fileInput));
+  }
+
+  @Test
+  void file_visitors_share_the_traversal() {
+    FileInput fileInput = PythonTestUtils.parse("def foo(): pass", "def bar(): pass");
+    List<Tree> functions = new ArrayList<>();
+    PythonSubscriptionCheck fileVisitor = new PythonSubscriptionCheck() {
+      @Override
+      public void initialize(Context context) {
+        context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> functions.add(ctx.syntaxNode()));
+      }
+    };
+    FileMetrics fileMetrics = new FileMetrics(new PythonVisitorContext(fileInput, PythonTestUtils.pythonFile("file"), null, ""), false,
+      List.of(fileVisitor));
+    assertThat(functions).hasSize(2);
+    assertThat(fileMetrics.numberOfFunctions()).isEqualTo(2);
+    assertThat(fileMetrics.fileLinesVisitor().getLinesOfCode()).hasSize(2);
+  }
+
   private static FileMetrics metrics(String fileName) {
     File baseDir = new File("src/test/resources/metrics/");
     File file = new File(baseDir, fileName);
@@ -0,0 +1,94 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.regex;
+
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+import org.sonar.plugins.python.api.IssueLocation;
+import org.sonar.plugins.python.api.tree.StringElement;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.PythonTestUtils;
+import org.sonarsource.analyzer.commons.regex.ast.FlagSet;
+import org.sonarsource.analyzer.commons.regex.ast.IndexRange;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RegexParseCacheTest {
+
+  @Test
+  void results_are_shared_between_identical_patterns() {
+    RegexParseCache cache = new RegexParseCache(RegexParseCache.DEFAULT_CAPACITY);
+    RegexParseCache.Entry entry = cache.parse("a+b", "r", new FlagSet());
+    assertThat(cache.misses()).isEqualTo(1);
+    assertThat(cache.hits()).isZero();
+
+    assertThat(cache.parse("a+b", "r", new FlagSet())).isSameAs(entry);
+    assertThat(cache.hits()).isEqualTo(1);
+
+    assertThat(cache.parse("a+b", "r", new FlagSet(Pattern.MULTILINE))).isNotSameAs(entry);
+    assertThat(cache.parse("a+b", "", new FlagSet())).isNotSameAs(entry);
+    assertThat(cache.parse("a+c", "r", new FlagSet())).isNotSameAs(entry);
+    assertThat(cache.misses()).isEqualTo(4);
+    assertThat(cache.size()).isEqualTo(4);
+  }
+
+  @Test
+  void results_are_located_through_the_string_element() {
+    RegexParseCache cache = new RegexParseCache(RegexParseCache.DEFAULT_CAPACITY);
+    RegexParseCache.Entry entry = cache.parse("a+b", "r", new FlagSet());
+    assertThat(entry.source().isLocated()).isFalse();
+    assertThat(entry.result().getResult().getSource()).isSameAs(entry.source());
+    IndexRange range = entry.result().getResult().getRange();
+    assertThatThrownBy(() -> entry.source().locationInFileFor(range)).isInstanceOf(IllegalStateException.class);
+
+    PythonAnalyzerRegexSource first = new PythonAnalyzerRegexSource(stringElement("re.match(r'a+b', x)"));
+    PythonAnalyzerRegexSource moved = new PythonAnalyzerRegexSource(stringElement("\nre.match(r'a+b', x)"));
+    IssueLocation firstLocation = PythonRegexIssueLocation.preciseLocation(first, singletonList(entry.result().getResult()), "message");
+    IssueLocation movedLocation = PythonRegexIssueLocation.preciseLocation(moved, singletonList(entry.result().getResult()), "message");
+    assertThat(firstLocation.startLine()).isEqualTo(1);
+    assertThat(firstLocation.startLineOffset()).isEqualTo(11);
+    assertThat(movedLocation.startLine()).isEqualTo(2);
+    assertThat(movedLocation.startLineOffset()).isEqualTo(firstLocation.startLineOffset());
+  }
+
+  @Test
+  void least_recently_used_results_are_evicted() {
+    RegexParseCache cache = new RegexParseCache(2);
+    RegexParseCache.Entry entryA = cache.parse("a", "", new FlagSet());
+    RegexParseCache.Entry entryB = cache.parse("b", "", new FlagSet());
+    assertThat(cache.parse("a", "", new FlagSet())).isSameAs(entryA);
+    cache.parse("c", "", new FlagSet());
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.parse("a", "", new FlagSet())).isSameAs(entryA);
+    assertThat(cache.parse("b", "", new FlagSet())).isNotSameAs(entryB);
+  }
+
+  @Test
+  void shared_cache() {
+    assertThat(RegexParseCache.shared()).isSameAs(RegexParseCache.shared());
+  }
+
+  private static StringElement stringElement(String code) {
+    return PythonTestUtils.getFirstDescendant(PythonTestUtils.parse(code), tree -> tree.is(Tree.Kind.STRING_ELEMENT));
+  }
+}
@@ -20,8 +20,14 @@
 package org.sonar.python.semantic;
 
 import com.google.protobuf.TextFormat;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.Test;
 import org.sonar.plugins.python.api.symbols.AmbiguousSymbol;
 import org.sonar.plugins.python.api.symbols.ClassSymbol;
@@ -309,6 +315,35 @@ class ClassSymbolImplTest {
     assertThat(foo.isInstanceMethod()).isFalse();
   }
 
+  @Test
+  void from_protobuf_super_classes_resolved_concurrently() throws Exception {
+    String protobuf =
+      "name: \"A\"\n" +
+      "fully_qualified_name: \"mod.A\"\n" +
+      "super_classes: \"builtins.object\"\n";
+    ClassSymbolImpl classSymbol = new ClassSymbolImpl(classSymbol(protobuf), "mod");
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<List<Symbol>>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return classSymbol.superClasses();
+        }));
+      }
+      start.countDown();
+      for (Future<List<Symbol>> future : futures) {
+        assertThat(future.get()).extracting(Symbol::fullyQualifiedName).containsExactly("object");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(classSymbol.superClasses()).hasSize(1);
+    assertThat(classSymbol.hasEvaluatedSuperClasses()).isTrue();
+  }
+
   @Test
   void overloaded_methods() throws TextFormat.ParseException {
     String protobuf =
@@ -49,9 +49,11 @@ import org.sonar.python.PythonTestUtils;
 import org.sonar.python.index.Descriptor;
 import org.sonar.python.index.DescriptorUtils;
 import org.sonar.python.index.VariableDescriptor;
+import org.sonar.python.semantic.v2.ProjectLevelTypeTable;
 import org.sonar.python.tree.TreeUtils;
 import org.sonar.python.types.DeclaredType;
 import org.sonar.python.types.InferredTypes;
+import org.sonar.python.types.v2.ClassType;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
@@ -99,6 +101,31 @@ class ProjectLevelSymbolTableTest {
     assertThat(c.usages()).extracting(Usage::kind).containsExactly(Usage.Kind.IMPORT);
   }
 
+  @Test
+  void project_level_type_table_is_shared_until_symbol_table_changes() throws InterruptedException {
+    ProjectLevelSymbolTable projectLevelSymbolTable = new ProjectLevelSymbolTable();
+    ProjectLevelTypeTable typeTable = projectLevelSymbolTable.projectLevelTypeTable();
+    assertThat(projectLevelSymbolTable.projectLevelTypeTable()).isSameAs(typeTable);
+
+    ProjectLevelTypeTable[] otherThreadTypeTable = new ProjectLevelTypeTable[1];
+    Thread thread = new Thread(() -> otherThreadTypeTable[0] = projectLevelSymbolTable.projectLevelTypeTable());
+    thread.start();
+    thread.join();
+    assertThat(otherThreadTypeTable[0]).isNotNull().isNotSameAs(typeTable);
+
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class A: pass"), "", pythonFile("mod.py"));
+    ProjectLevelTypeTable updatedTypeTable = projectLevelSymbolTable.projectLevelTypeTable();
+    assertThat(updatedTypeTable).isNotSameAs(typeTable);
+    assertThat(updatedTypeTable.getType("mod.A")).isInstanceOf(ClassType.class);
+
+    projectLevelSymbolTable.removeModule("", "mod.py");
+    ProjectLevelTypeTable tableAfterRemoval = projectLevelSymbolTable.projectLevelTypeTable();
+    assertThat(tableAfterRemoval).isNotSameAs(updatedTypeTable);
+
+    projectLevelSymbolTable.releaseProjectLevelTypeTables();
+    assertThat(projectLevelSymbolTable.projectLevelTypeTable()).isNotSameAs(tableAfterRemoval);
+  }
+
   @Test
   void unresolved_wildcard_import() {
     FileInput tree = parse(
@@ -456,6 +483,41 @@ class ProjectLevelSymbolTableTest {
     assertThat(projectLevelSymbolTable.getSymbol("mod.x").name()).isEqualTo("x");
   }
 
+  @Test
+  void fqn_index_is_updated_incrementally() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = new ProjectLevelSymbolTable();
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class A: pass"), "", pythonFile("mod.py"));
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A")).isNotNull();
+
+    // modified file
+    projectLevelSymbolTable.removeModule("", "mod.py");
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A")).isNull();
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class B: pass"), "", pythonFile("mod.py"));
+    assertThat(projectLevelSymbolTable.getSymbol("mod.A")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("mod.B")).isNotNull();
+
+    // module re-added without having been removed
+    projectLevelSymbolTable.addModule(parseWithoutSymbols("class C: pass"), "", pythonFile("mod.py"));
+    assertThat(projectLevelSymbolTable.getSymbol("mod.B")).isNull();
+    assertThat(projectLevelSymbolTable.getSymbol("mod.C")).isNotNull();
+  }
+
+  @Test
+  void ambiguity_is_undone_on_module_removal() {
+    ProjectLevelSymbolTable projectLevelSymbolTable = new ProjectLevelSymbolTable();
+    projectLevelSymbolTable.insertEntry("mod1", Set.of(new VariableDescriptor("x", "pkg.x", null)));
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.x").kind()).isEqualTo(Symbol.Kind.OTHER);
+
+    projectLevelSymbolTable.insertEntry("mod2", Set.of(new VariableDescriptor("x", "pkg.x", "int")));
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.x").kind()).isEqualTo(Symbol.Kind.AMBIGUOUS);
+
+    projectLevelSymbolTable.removeModule("", "mod1.py");
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.x").kind()).isEqualTo(Symbol.Kind.OTHER);
+
+    projectLevelSymbolTable.insertEntry("mod2", Set.of());
+    assertThat(projectLevelSymbolTable.getSymbol("pkg.x")).isNull();
+  }
+
   @Test
   void test_add_module_after_creation() {
     FileInput tree = parseWithoutSymbols(
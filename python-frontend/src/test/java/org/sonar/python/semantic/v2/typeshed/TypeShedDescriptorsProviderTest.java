@@ -19,8 +19,6 @@
  */
 package org.sonar.python.semantic.v2.typeshed;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -151,11 +149,4 @@ class TypeShedDescriptorsProviderTest {
     assertThat(unknownModule).isEmpty();
   }
 
-  @Test
-  void readExceptionTest() {
-    InputStream targetStream = new ByteArrayInputStream("foo".getBytes());
-    assertThat(TypeShedDescriptorsProvider.deserializedModule("mod", targetStream)).isNull();
-    assertThat(logTester.logs(Level.DEBUG)).contains("Error while deserializing protobuf for module mod");
-  }
-
 }
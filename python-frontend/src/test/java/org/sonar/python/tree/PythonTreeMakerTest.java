@@ -150,6 +150,23 @@ class PythonTreeMakerTest extends RuleTest {
     assertThat(((Token) fileInput.children().get(1)).type()).isEqualTo(GenericTokenType.EOF);
   }
 
+  @Test
+  void file_input_releasing_ast() {
+    String code = "\"\"\"docstring\"\"\"\nimport a; import b\nclass A:\n  def f(self): pass\nx = 1\n";
+    FileInput expected = parse(code, treeMaker::fileInput);
+    AstNode astNode = p.parse(code);
+    FileInput fileInput = treeMaker.fileInputReleasingAst(astNode);
+
+    assertThat(astNode.getChildren()).isEmpty();
+    assertThat(fileInput.docstring().firstToken().value()).isEqualTo("\"\"\"docstring\"\"\"");
+    assertThat(fileInput.statements().statements()).extracting(Tree::getKind)
+      .containsExactly(Tree.Kind.EXPRESSION_STMT, Tree.Kind.IMPORT_NAME, Tree.Kind.IMPORT_NAME, Tree.Kind.CLASSDEF, Tree.Kind.ASSIGNMENT_STMT);
+    assertThat(TreeUtils.tokens(fileInput)).extracting(Token::value).containsExactlyElementsOf(TreeUtils.tokens(expected).stream().map(Token::value).toList());
+    assertThat(fileInput.statements().statements().get(3).parent()).isEqualTo(fileInput.statements());
+
+    assertThat(treeMaker.fileInputReleasingAst(p.parse("")).statements()).isNull();
+  }
+
   @Test
   void variadic_is_kind() {
     FileInput fileInput = parse("def foo(): pass", treeMaker::fileInput);
@@ -73,6 +73,26 @@ class TokenEnricherTest {
     assertThat(countedEscaped).containsOnly(0);
   }
 
+  @Test
+  void shouldCopyTheTokenValues() {
+    var code = "a = 1 # comment";
+    var originalTokens = lexer.lex(code);
+    var tokens = TokenEnricher.enrichTokens(originalTokens, Map.of(1, new IPythonLocation(100, 300)));
+    for (int i = 0; i < tokens.size(); i++) {
+      assertThat(tokens.get(i).value()).isEqualTo(originalTokens.get(i).getValue());
+      assertThat(tokens.get(i).type()).isEqualTo(originalTokens.get(i).getType());
+      assertThat(tokens.get(i).pythonLine()).isEqualTo(originalTokens.get(i).getLine());
+      assertThat(tokens.get(i).pythonColumn()).isEqualTo(originalTokens.get(i).getColumn());
+    }
+    var triviaToken = tokens.get(tokens.size() - 1).trivia().get(0).token();
+    assertThat(triviaToken.value()).isEqualTo("# comment");
+    assertThat(triviaToken.pythonColumn()).isEqualTo(6);
+    // tokens without comments share the same empty list of trivia
+    assertThat(tokens.get(0).trivia()).isEmpty();
+    assertThat(tokens.get(1).trivia()).isSameAs(tokens.get(0).trivia());
+    assertThat(new TokenImpl(originalTokens.get(0)).trivia()).isSameAs(tokens.get(0).trivia());
+  }
+
   @Test
   void shouldThrowIllegalStateException() {
     //when the mapping is not present for the current line
@@ -107,6 +107,53 @@ class TreeUtilsTest {
 
   }
 
+  @Test
+  void tokens_are_views_of_the_file_token_table() {
+    FileInput parsed = parse("def foo(x):\n  # comment\n  return x + 1\n");
+    List<Token> fileTokens = ((FileInputImpl) parsed).tokens();
+    assertThat(TreeUtils.tokens(parsed)).containsExactlyElementsOf(fileTokens);
+
+    FunctionDef functionDef = (FunctionDef) parsed.statements().statements().get(0);
+    Statement returnStatement = functionDef.body().statements().get(0);
+    assertThat(TreeUtils.tokens(returnStatement)).extracting(Token::value).hasSize(5).startsWith("return", "x", "+", "1");
+    assertThat(TreeUtils.tokens(functionDef)).containsExactlyElementsOf(fileTokens.subList(0, fileTokens.size() - 1));
+    assertThatThrownBy(() -> TreeUtils.tokens(returnStatement).clear()).isInstanceOf(UnsupportedOperationException.class);
+
+    Token returnKeyword = returnStatement.firstToken();
+    assertThat(TreeUtils.previousToken(returnKeyword).type()).isEqualTo(PythonTokenType.INDENT);
+    assertThat(TreeUtils.nextToken(returnKeyword).value()).isEqualTo("x");
+    assertThat(TreeUtils.previousToken(functionDef.defKeyword())).isNull();
+    assertThat(TreeUtils.nextToken(parsed.lastToken())).isNull();
+  }
+
+  @Test
+  void tokens_sharing_a_position_are_located_in_the_file_token_table() {
+    FileInput parsed = parse("if a:\n  if b:\n    pass\nc = 1\n");
+    List<Token> fileTokens = ((FileInputImpl) parsed).tokens();
+    Statement ifStatement = parsed.statements().statements().get(0);
+    Statement assignment = parsed.statements().statements().get(1);
+
+    List<Token> ifTokens = TreeUtils.tokens(ifStatement);
+    assertThat(ifTokens).containsExactlyElementsOf(fileTokens.subList(0, ifTokens.size()));
+    assertThat(ifTokens.subList(ifTokens.size() - 2, ifTokens.size())).extracting(Token::type)
+      .containsExactly(PythonTokenType.DEDENT, PythonTokenType.DEDENT);
+    assertThat(TreeUtils.nextToken(ifTokens.get(ifTokens.size() - 2))).isSameAs(ifTokens.get(ifTokens.size() - 1));
+    assertThat(TreeUtils.nextToken(ifTokens.get(ifTokens.size() - 1))).isSameAs(assignment.firstToken());
+    assertThat(TreeUtils.previousToken(assignment.firstToken())).isSameAs(ifTokens.get(ifTokens.size() - 1));
+  }
+
+  @Test
+  void tokens_of_tree_without_file() {
+    Expression expression = lastExpression("foo(x, y)");
+    CallExpression call = (CallExpression) expression;
+    ((PyTree) call).setParent(null);
+    assertThat(TreeUtils.tokens(call)).extracting(Token::value).containsExactly("foo", "(", "x", ",", "y", ")");
+    Token x = call.arguments().get(0).firstToken();
+    assertThat(TreeUtils.nextToken(x).value()).isEqualTo(",");
+    assertThat(TreeUtils.previousToken(call.firstToken())).isNull();
+    assertThat(TreeUtils.nextToken(call.lastToken())).isNull();
+  }
+
   @Test
   void non_whitespace_tokens() {
     FileInput parsed = parse("if foo:\n  pass");
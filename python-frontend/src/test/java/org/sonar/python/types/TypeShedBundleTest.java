@@ -0,0 +1,215 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.types;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.python.types.protobuf.SymbolsProtos.ClassSymbol;
+import org.sonar.python.types.protobuf.SymbolsProtos.ModuleSymbol;
+
+import static java.nio.file.attribute.PosixFilePermission.OTHERS_WRITE;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_EXECUTE;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_READ;
+import static java.nio.file.attribute.PosixFilePermission.OWNER_WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_CUSTOM_STUBS;
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_THIRD_PARTY;
+
+class TypeShedBundleTest {
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  @TempDir
+  Path typesDirectory;
+
+  @Test
+  void modules_are_read_from_bundle() throws IOException {
+    writeModule(PROTOBUF, "mod", module("mod", "A"));
+    writeModule(PROTOBUF, "2@ConfigParser", module("ConfigParser", "B"));
+    writeModule(PROTOBUF_CUSTOM_STUBS, "mod", module("mod", "C"));
+    Files.writeString(typesDirectory.resolve(PROTOBUF).resolve("README.md"), "not a module");
+
+    TypeShedBundle bundle = writeAndOpenBundle();
+
+    assertThat(bundle.isIndexed()).isTrue();
+    assertThat(bundle.module(PROTOBUF, "mod").getClasses(0).getName()).isEqualTo("A");
+    assertThat(bundle.module(PROTOBUF_CUSTOM_STUBS, "mod").getClasses(0).getName()).isEqualTo("C");
+    assertThat(bundle.module(PROTOBUF, "2@ConfigParser").getFullyQualifiedName()).isEqualTo("ConfigParser");
+    assertThat(bundle.module(PROTOBUF_THIRD_PARTY, "mod")).isNull();
+    assertThat(bundle.module(PROTOBUF, "README")).isNull();
+    assertThat(bundle.module(PROTOBUF, "unknown")).isNull();
+  }
+
+  @Test
+  void incorrect_module_in_bundle() throws IOException {
+    Files.createDirectories(typesDirectory.resolve(PROTOBUF));
+    Files.writeString(typesDirectory.resolve(PROTOBUF).resolve("mod.protobuf"), "foo");
+
+    TypeShedBundle bundle = writeAndOpenBundle();
+
+    assertThat(bundle.module(PROTOBUF, "mod")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains("Error while deserializing protobuf for module mod");
+  }
+
+  @Test
+  void invalid_bundle() throws IOException {
+    Path bundle = typesDirectory.resolve(TypeShedBundle.BUNDLE_RESOURCE);
+    Files.writeString(bundle, "not a bundle", StandardCharsets.UTF_8);
+    assertThatThrownBy(() -> TypeShedBundle.open(bundle))
+      .isInstanceOf(IOException.class)
+      .hasMessage("Invalid typeshed bundle");
+  }
+
+  @Test
+  void bundle_extracted_from_jar_is_reused() throws IOException {
+    writeModule(PROTOBUF, "mod", module("mod", "A"));
+    Path bundle = typesDirectory.resolve(TypeShedBundle.BUNDLE_RESOURCE);
+    TypeShedBundleWriter.write(typesDirectory, bundle);
+    URL url = jarEntry(bundle);
+    Path extractionDirectory = Files.createDirectories(typesDirectory.resolve("extracted"));
+    Path otherVersion = Files.writeString(extractionDirectory.resolve("sonar-python-typeshed-00000000-3.bundle"), "old");
+
+    Path extracted = TypeShedBundle.extract(url, extractionDirectory);
+    assertThat(extracted).hasSameBinaryContentAs(bundle);
+    assertThat(extracted.getFileName().toString()).startsWith("sonar-python-typeshed-").endsWith(".bundle");
+    assertThat(TypeShedBundle.open(extracted).module(PROTOBUF, "mod").getClasses(0).getName()).isEqualTo("A");
+    assertThat(otherVersion).doesNotExist();
+
+    assertThat(TypeShedBundle.extract(url, extractionDirectory)).isEqualTo(extracted);
+    try (Stream<Path> files = Files.list(extractionDirectory)) {
+      assertThat(files).containsExactly(extracted);
+    }
+  }
+
+  @Test
+  void extracted_bundle_not_matching_checksum_is_replaced() throws IOException {
+    writeModule(PROTOBUF, "mod", module("mod", "A"));
+    Path bundle = typesDirectory.resolve(TypeShedBundle.BUNDLE_RESOURCE);
+    TypeShedBundleWriter.write(typesDirectory, bundle);
+    URL url = jarEntry(bundle);
+    Path extractionDirectory = Files.createDirectories(typesDirectory.resolve("extracted"));
+    Path extracted = TypeShedBundle.extract(url, extractionDirectory);
+
+    // same size, different content
+    byte[] content = Files.readAllBytes(bundle);
+    content[content.length - 1]++;
+    Files.write(extracted, content);
+
+    assertThat(TypeShedBundle.extract(url, extractionDirectory)).isEqualTo(extracted);
+    assertThat(extracted).hasSameBinaryContentAs(bundle);
+  }
+
+  @Test
+  void bundle_is_read_in_memory_when_it_cannot_be_extracted() throws IOException {
+    writeModule(PROTOBUF, "mod", module("mod", "A"));
+    Path bundle = typesDirectory.resolve(TypeShedBundle.BUNDLE_RESOURCE);
+    TypeShedBundleWriter.write(typesDirectory, bundle);
+    Path notADirectory = Files.writeString(typesDirectory.resolve("file"), "");
+
+    TypeShedBundle loaded = TypeShedBundle.load(jarEntry(bundle), notADirectory);
+
+    assertThat(loaded.isIndexed()).isTrue();
+    assertThat(loaded.module(PROTOBUF, "mod").getClasses(0).getName()).isEqualTo("A");
+    assertThat(logTester.logs(Level.DEBUG)).contains("Unable to map the typeshed bundle, it will be read in memory");
+  }
+
+  @Test
+  void invalid_packaged_bundle() throws IOException {
+    Path bundle = Files.writeString(typesDirectory.resolve(TypeShedBundle.BUNDLE_RESOURCE), "not a bundle", StandardCharsets.UTF_8);
+    URL url = jarEntry(bundle);
+    Path extractionParent = typesDirectory.resolve("tmp");
+    Files.createDirectories(extractionParent);
+
+    assertThatThrownBy(() -> TypeShedBundle.load(url, extractionParent))
+      .isInstanceOf(IllegalStateException.class)
+      .hasMessageStartingWith("Unable to read the typeshed bundle");
+  }
+
+  @Test
+  void bundle_is_extracted_in_a_private_directory() throws IOException {
+    assumeTrue(typesDirectory.getFileSystem().supportedFileAttributeViews().contains("posix"));
+
+    Path directory = TypeShedBundle.privateDirectory(typesDirectory);
+    assertThat(Files.getPosixFilePermissions(directory)).containsOnly(OWNER_READ, OWNER_WRITE, OWNER_EXECUTE);
+    assertThat(TypeShedBundle.privateDirectory(typesDirectory)).isEqualTo(directory);
+
+    Files.setPosixFilePermissions(directory, EnumSet.of(OWNER_READ, OWNER_WRITE, OWNER_EXECUTE, OTHERS_WRITE));
+    assertThatThrownBy(() -> TypeShedBundle.privateDirectory(typesDirectory))
+      .isInstanceOf(IOException.class)
+      .hasMessageStartingWith("Directory can be written by other users");
+  }
+
+  @Test
+  void typeshed_resources_are_available() {
+    TypeShedBundle bundle = TypeShedBundle.load();
+    assertThat(bundle.module(PROTOBUF, "builtins")).isNotNull();
+    assertThat(bundle.module(PROTOBUF, "NOT_EXISTENT")).isNull();
+  }
+
+  @Test
+  void writer_requires_directory() {
+    assertThatThrownBy(() -> TypeShedBundleWriter.main(new String[0]))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private URL jarEntry(Path bundle) throws IOException {
+    Path jar = typesDirectory.resolve("plugin.jar");
+    try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+      out.putNextEntry(new JarEntry(TypeShedBundle.BUNDLE_RESOURCE));
+      Files.copy(bundle, out);
+      out.closeEntry();
+    }
+    return new URL("jar:" + jar.toUri() + "!/" + TypeShedBundle.BUNDLE_RESOURCE);
+  }
+
+  private TypeShedBundle writeAndOpenBundle() throws IOException {
+    Path bundle = typesDirectory.resolve(TypeShedBundle.BUNDLE_RESOURCE);
+    TypeShedBundleWriter.write(typesDirectory, bundle);
+    return TypeShedBundle.open(bundle);
+  }
+
+  private void writeModule(String directory, String fileName, ModuleSymbol moduleSymbol) throws IOException {
+    Path directoryPath = Files.createDirectories(typesDirectory.resolve(directory));
+    Files.write(directoryPath.resolve(fileName + ".protobuf"), moduleSymbol.toByteArray());
+  }
+
+  private static ModuleSymbol module(String fullyQualifiedName, String className) {
+    return ModuleSymbol.newBuilder()
+      .setFullyQualifiedName(fullyQualifiedName)
+      .addClasses(ClassSymbol.newBuilder().setName(className).setFullyQualifiedName(fullyQualifiedName + "." + className))
+      .build();
+  }
+}
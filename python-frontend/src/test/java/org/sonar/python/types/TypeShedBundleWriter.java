@@ -0,0 +1,86 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.python.types;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.sonar.python.types.TypeShedBundle.PROTOBUF_EXTENSION;
+
+/**
+ * Build-time packer of the typeshed ".protobuf" resources into the bundle read by {@link TypeShedBundle}.
+ * Layout: magic number, number of entries, then for each entry its key and length, then the content of the entries
+ * in the same order.
+ */
+public final class TypeShedBundleWriter {
+
+  private TypeShedBundleWriter() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      throw new IllegalArgumentException("Usage: TypeShedBundleWriter <directory containing the typeshed resources>");
+    }
+    Path typesDirectory = Paths.get(args[0]);
+    write(typesDirectory, typesDirectory.resolve(TypeShedBundle.BUNDLE_RESOURCE));
+  }
+
+  static void write(Path typesDirectory, Path bundle) throws IOException {
+    List<String> keys = new ArrayList<>();
+    List<Path> files = new ArrayList<>();
+    for (String directory : TypeShedBundle.DIRECTORIES) {
+      Path directoryPath = typesDirectory.resolve(directory);
+      if (!Files.isDirectory(directoryPath)) {
+        continue;
+      }
+      try (Stream<Path> paths = Files.list(directoryPath)) {
+        paths.filter(path -> path.getFileName().toString().endsWith(PROTOBUF_EXTENSION))
+          .sorted()
+          .forEach(path -> {
+            String fileName = path.getFileName().toString();
+            keys.add(directory + fileName.substring(0, fileName.length() - PROTOBUF_EXTENSION.length()));
+            files.add(path);
+          });
+      }
+    }
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(bundle)))) {
+      out.writeInt(TypeShedBundle.MAGIC);
+      out.writeInt(files.size());
+      for (int i = 0; i < files.size(); i++) {
+        byte[] key = keys.get(i).getBytes(StandardCharsets.UTF_8);
+        out.writeShort(key.length);
+        out.write(key);
+        out.writeInt(Math.toIntExact(Files.size(files.get(i))));
+      }
+      for (Path file : files) {
+        Files.copy(file, out);
+      }
+    }
+  }
+}
@@ -22,9 +22,14 @@ package org.sonar.python.types;
 import com.google.protobuf.TextFormat;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -95,6 +100,42 @@ class TypeShedTest {
     setPythonVersions(PythonVersionUtils.allVersions());
   }
 
+  @Test
+  void symbols_are_evicted_when_python_versions_change() {
+    Map<String, Symbol> builtins = TypeShed.builtinSymbols();
+    Map<String, Symbol> osSymbols = symbolsForModule("os");
+
+    TypeShed.clearSymbolsIfPythonVersionsChanged();
+    assertThat(TypeShed.builtinSymbols()).isSameAs(builtins);
+    assertThat(symbolsForModule("os")).isSameAs(osSymbols);
+
+    ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.fromString("3.8"));
+    TypeShed.clearSymbolsIfPythonVersionsChanged();
+    assertThat(TypeShed.getLoadedTypeShedSymbols()).isEmpty();
+    assertThat(TypeShed.builtinSymbols()).isNotSameAs(builtins);
+    assertThat(TypeShed.typeShedClass("str").resolveMember("removeprefix")).isEmpty();
+
+    setPythonVersions(PythonVersionUtils.allVersions());
+  }
+
+  @Test
+  void modules_are_loaded_once_when_requested_concurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Map<String, Symbol>>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> symbolsForModule("email.mime.text")));
+      }
+      Map<String, Symbol> symbols = symbolsForModule("email.mime.text");
+      assertThat(symbols).isNotEmpty();
+      for (Future<Map<String, Symbol>> result : results) {
+        assertThat(result.get()).isSameAs(symbols);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   void not_a_class() {
     assertThatThrownBy(() -> TypeShed.typeShedClass("repr")).isInstanceOf(IllegalArgumentException.class);
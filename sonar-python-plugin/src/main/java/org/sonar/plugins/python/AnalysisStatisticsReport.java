@@ -0,0 +1,97 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.api.utils.AnnotationUtils;
+import org.sonar.check.Rule;
+import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.AnalysisStatistics;
+
+/**
+ * Writes the {@link AnalysisStatistics} collected during the analysis as a JSON report, rules being sorted by decreasing
+ * execution time.
+ */
+class AnalysisStatisticsReport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisStatisticsReport.class);
+
+  private AnalysisStatisticsReport() {
+  }
+
+  static void write(AnalysisStatistics statistics, Path destination) {
+    try (JsonGenerator generator = new JsonFactory().createGenerator(destination.toFile(), JsonEncoding.UTF8)) {
+      generator.useDefaultPrettyPrinter();
+      generator.writeStartObject();
+      generator.writeBooleanField("allocatedBytesSupported", AnalysisStatistics.isAllocatedBytesSupported());
+      generator.writeObjectFieldStart("phases");
+      for (Map.Entry<String, AnalysisStatistics.Statistic> phase : statistics.phases().entrySet()) {
+        generator.writeFieldName(phase.getKey());
+        writeStatistic(generator, phase.getValue());
+        generator.writeEndObject();
+      }
+      generator.writeEndObject();
+      generator.writeArrayFieldStart("rules");
+      for (Map.Entry<Class<?>, AnalysisStatistics.CheckStatistics> check : sortedByNanos(statistics.checks())) {
+        writeStatistic(generator, check.getValue());
+        generator.writeStringField("rule", ruleKey(check.getKey()));
+        generator.writeObjectFieldStart("kinds");
+        for (Map.Entry<Tree.Kind, AnalysisStatistics.Statistic> kind : sortedByNanos(check.getValue().byKind())) {
+          generator.writeFieldName(kind.getKey().name());
+          writeStatistic(generator, kind.getValue());
+          generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+      LOG.info("Python analysis statistics written to {}", destination);
+    } catch (IOException e) {
+      LOG.warn("Unable to write Python analysis statistics to {}", destination, e);
+    }
+  }
+
+  private static void writeStatistic(JsonGenerator generator, AnalysisStatistics.Statistic statistic) throws IOException {
+    generator.writeStartObject();
+    generator.writeNumberField("count", statistic.count());
+    generator.writeNumberField("nanos", statistic.nanos());
+    generator.writeNumberField("allocatedBytes", statistic.allocatedBytes());
+  }
+
+  private static <K, V extends AnalysisStatistics.Statistic> Iterable<Map.Entry<K, V>> sortedByNanos(Map<K, V> statistics) {
+    return statistics.entrySet().stream()
+      .sorted(Comparator.comparingLong((Map.Entry<K, V> entry) -> entry.getValue().nanos()).reversed())
+      .toList();
+  }
+
+  static String ruleKey(Class<?> checkClass) {
+    Rule rule = AnnotationUtils.getAnnotation(checkClass, Rule.class);
+    return rule != null ? rule.key() : checkClass.getName();
+  }
+}
@@ -56,19 +56,20 @@ public abstract class ExternalIssuesSensor implements Sensor {
 
   @Override
   public void execute(SensorContext context) {
+    ReportPathResolver pathResolver = new ReportPathResolver(context.fileSystem());
     Set<String> unresolvedInputFiles = new HashSet<>();
     List<File> reportFiles = ExternalReportProvider.getReportFiles(context, reportPathKey());
     if (reportFiles.isEmpty() && context.config().hasKey(PYLINT_LEGACY_KEY)) {
       reportFiles = ExternalReportProvider.getReportFiles(context, PYLINT_LEGACY_KEY);
       logger().warn("The use of '{}' is deprecated. Please use the '{}' property instead.", PYLINT_LEGACY_KEY, PylintSensor.REPORT_PATH_KEY);
     }
-    reportFiles.forEach(report -> importExternalReport(report, context, unresolvedInputFiles));
+    reportFiles.forEach(report -> importExternalReport(report, context, pathResolver, unresolvedInputFiles));
     logUnresolvedInputFiles(unresolvedInputFiles);
   }
 
-  private void importExternalReport(File reportPath, SensorContext context, Set<String> unresolvedInputFiles) {
+  private void importExternalReport(File reportPath, SensorContext context, ReportPathResolver pathResolver, Set<String> unresolvedInputFiles) {
     try {
-      importReport(reportPath, context, unresolvedInputFiles);
+      importReport(reportPath, context, pathResolver, unresolvedInputFiles);
     } catch (IOException | ParseException | RuntimeException e) {
       logFileCantBeRead(e, reportPath);
     }
@@ -90,8 +91,18 @@ public abstract class ExternalIssuesSensor implements Sensor {
       , reportPath, e.getClass().getSimpleName(), e.getMessage());
   }
 
-  protected void saveIssue(SensorContext context, TextReportReader.Issue issue, Set<String> unresolvedInputFiles, String linterKey) {
-    InputFile inputFile = context.fileSystem().inputFile(context.fileSystem().predicates().hasPath(issue.filePath));
+  /**
+   * For reports whose issues are saved while the report is streamed: when the report turns out to be invalid (e.g. truncated), the
+   * issues read before the error have already been saved and are kept.
+   */
+  protected void logReportPartiallyRead(Exception e, File reportPath, int nReadIssues) {
+    logger().error("Only the first {} issues were read from the report file '{}', as the rest of it can't be read. {}: {}"
+      , nReadIssues, reportPath, e.getClass().getSimpleName(), e.getMessage());
+  }
+
+  protected void saveIssue(SensorContext context, ReportPathResolver pathResolver, TextReportReader.Issue issue, Set<String> unresolvedInputFiles,
+    String linterKey) {
+    InputFile inputFile = pathResolver.inputFile(issue.filePath);
     if (inputFile == null) {
       unresolvedInputFiles.add(issue.filePath);
       return;
@@ -118,7 +129,8 @@ public abstract class ExternalIssuesSensor implements Sensor {
     newExternalIssue.save();
   }
 
-  protected abstract void importReport(File reportPath, SensorContext context, Set<String> unresolvedInputFiles) throws IOException, ParseException;
+  protected abstract void importReport(File reportPath, SensorContext context, ReportPathResolver pathResolver, Set<String> unresolvedInputFiles)
+    throws IOException, ParseException;
 
   protected abstract boolean shouldExecute(Configuration conf);
 
@@ -32,12 +32,14 @@ import org.sonar.plugins.python.api.PythonCustomRuleRepository;
 public class PythonChecks {
   private final CheckFactory checkFactory;
   private List<Checks<PythonCheck>> checksByRepository = new ArrayList<>();
+  private final List<CheckRegistration> registrations = new ArrayList<>();
 
   PythonChecks(CheckFactory checkFactory) {
     this.checkFactory = checkFactory;
   }
   public PythonChecks addChecks(String repositoryKey, Iterable<Class<?>> checkClass) {
     checksByRepository.add(checkFactory.<PythonCheck>create(repositoryKey).addAnnotatedChecks(checkClass));
+    registrations.add(new CheckRegistration(repositoryKey, checkClass));
 
     return this;
   }
@@ -61,4 +63,17 @@ public class PythonChecks {
     return checksByRepository.stream().map(c -> c.ruleKey(check)).filter(Objects::nonNull).findFirst().orElse(null);
   }
 
+  /**
+   * Creates fresh instances of the same active checks, with the same parameters.
+   * Checks may hold per-file state, so each analysis thread needs its own instances.
+   */
+  public PythonChecks copy() {
+    PythonChecks copy = new PythonChecks(checkFactory);
+    registrations.forEach(registration -> copy.addChecks(registration.repositoryKey(), registration.checkClasses()));
+    return copy;
+  }
+
+  private record CheckRegistration(String repositoryKey, Iterable<Class<?>> checkClasses) {
+  }
+
 }
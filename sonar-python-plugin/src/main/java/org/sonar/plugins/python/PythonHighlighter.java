@@ -19,8 +19,10 @@
  */
 package org.sonar.plugins.python;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sonar.api.batch.sensor.SensorContext;
@@ -88,18 +90,22 @@ import static com.sonar.sslr.api.GenericTokenType.IDENTIFIER;
  */
 public class PythonHighlighter extends PythonSubscriptionCheck {
 
-  private NewHighlighting newHighlighting;
+  private final SensorContext context;
+  private final PythonInputFile inputFile;
+  // collected while visiting the file, possibly on a worker thread, and only pushed to the sensor context on save
+  private final List<Highlight> highlights = new ArrayList<>();
   private Set<Token> docStringTokens;
 
   public PythonHighlighter(SensorContext context, PythonInputFile inputFile) {
+    this.context = context;
+    this.inputFile = inputFile;
     docStringTokens = new HashSet<>();
-    newHighlighting = context.newHighlighting();
-    newHighlighting.onFile(inputFile.wrappedFile());
   }
 
   @Override
   public void scanFile(PythonVisitorContext visitorContext) {
     SubscriptionVisitor.analyze(Collections.singletonList(this), visitorContext);
+    save();
   }
 
   @Override
@@ -145,14 +151,24 @@ public class PythonHighlighter extends PythonSubscriptionCheck {
     return "await".equals(value) || "async".equals(value) || "match".equals(value) || "case".equals(value);
   }
 
-  @Override
-  public void leaveFile() {
+  /**
+   * Saves the highlighting collected while visiting the file.
+   */
+  public void save() {
+    NewHighlighting newHighlighting = context.newHighlighting();
+    newHighlighting.onFile(inputFile.wrappedFile());
+    for (Highlight highlight : highlights) {
+      newHighlighting.highlight(highlight.startLine(), highlight.startLineOffset(), highlight.endLine(), highlight.endLineOffset(), highlight.typeOfText());
+    }
     newHighlighting.save();
   }
 
   private void highlight(Token token, TypeOfText typeOfText) {
     TokenLocation tokenLocation = new TokenLocation(token);
-    newHighlighting.highlight(tokenLocation.startLine(), tokenLocation.startLineOffset(), tokenLocation.endLine(), tokenLocation.endLineOffset(), typeOfText);
+    highlights.add(new Highlight(tokenLocation.startLine(), tokenLocation.startLineOffset(), tokenLocation.endLine(), tokenLocation.endLineOffset(), typeOfText));
+  }
+
+  private record Highlight(int startLine, int startLineOffset, int endLine, int endLineOffset, TypeOfText typeOfText) {
   }
 
 }
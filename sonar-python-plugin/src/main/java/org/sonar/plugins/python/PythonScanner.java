@@ -27,13 +27,16 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.SonarProduct;
@@ -61,6 +64,7 @@ import org.sonar.plugins.python.api.quickfix.PythonTextEdit;
 import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.cpd.PythonCpdAnalyzer;
 import org.sonar.plugins.python.indexer.PythonIndexer;
+import org.sonar.python.AnalysisStatistics;
 import org.sonar.python.IPythonLocation;
 import org.sonar.python.SubscriptionVisitor;
 import org.sonar.python.metrics.FileLinesVisitor;
@@ -79,12 +83,27 @@ public class PythonScanner extends Scanner {
   private final NoSonarFilter noSonarFilter;
   private final PythonCpdAnalyzer cpdAnalyzer;
   private final PythonIndexer indexer;
-  private final Map<PythonInputFile, Set<PythonCheck>> checksExecutedWithoutParsingByFiles = new HashMap<>();
+  // checks are identified by rule key: worker threads execute their own copies of the checks
+  private final Map<PythonInputFile, Set<RuleKey>> checksExecutedWithoutParsingByFiles = new ConcurrentHashMap<>();
+  private final ThreadLocal<Worker> workers;
+  @Nullable
+  private final AnalysisStatistics statistics;
 
   public PythonScanner(
     SensorContext context, PythonChecks checks,
     FileLinesContextFactory fileLinesContextFactory, NoSonarFilter noSonarFilter, PythonParser parser, PythonIndexer indexer) {
+    this(context, checks, fileLinesContextFactory, noSonarFilter, parser, indexer, null);
+  }
+
+  /**
+   * @param statistics when not null, frontend phases and checks executions are measured
+   */
+  public PythonScanner(
+    SensorContext context, PythonChecks checks,
+    FileLinesContextFactory fileLinesContextFactory, NoSonarFilter noSonarFilter, PythonParser parser, PythonIndexer indexer,
+    @Nullable AnalysisStatistics statistics) {
     super(context);
+    this.statistics = statistics;
     this.checks = checks;
     this.fileLinesContextFactory = fileLinesContextFactory;
     this.noSonarFilter = noSonarFilter;
@@ -92,6 +111,7 @@ public class PythonScanner extends Scanner {
     this.parser = parser;
     this.indexer = indexer;
     this.indexer.buildOnce(context);
+    this.workers = ThreadLocal.withInitial(() -> new Worker(PythonParser.create(), checks.copy()));
   }
 
   @Override
@@ -101,26 +121,131 @@ public class PythonScanner extends Scanner {
 
   @Override
   protected void scanFile(PythonInputFile inputFile) throws IOException {
+    ParsedFile parsedFile = parseFile(inputFile, parser);
+    saveParsingResults(inputFile, parsedFile);
+    runChecks(inputFile, parsedFile.visitorContext(), checks, checks.all());
+    saveIssues(inputFile, parsedFile.visitorContext().getIssues(), checks);
+    saveSymbolsAndHighlighting(parsedFile.fileVisitors());
+  }
+
+  @Override
+  protected boolean supportsConcurrentScan() {
+    return true;
+  }
+
+  /**
+   * Parsing and built-in checks run on the calling worker thread, with checks instances which are confined to that thread.
+   * Other checks (e.g. from custom rule repositories) may rely on state shared between files: they are executed while
+   * saving the results, on the main thread, in the same order as a sequential analysis.
+   */
+  @Override
+  protected ScanResult scanFileConcurrently(PythonInputFile inputFile) throws IOException {
+    Worker worker = workers.get();
+    ParsedFile parsedFile = parseFile(inputFile, worker.parser());
+    PythonVisitorContext visitorContext = parsedFile.visitorContext();
+    RuntimeException checksFailure = null;
+    try {
+      runChecks(inputFile, visitorContext, worker.checks(), worker.checks().all().stream().filter(PythonScanner::isBuiltInCheck).toList());
+    } catch (RuntimeException e) {
+      // rethrown once measures have been saved, as it would happen in a sequential analysis
+      checksFailure = e;
+    }
+    RuntimeException failure = checksFailure;
+    return () -> {
+      saveParsingResults(inputFile, parsedFile);
+      if (failure != null) {
+        throw failure;
+      }
+      runChecks(inputFile, visitorContext, checks, checks.all().stream().filter(check -> !isBuiltInCheck(check)).toList());
+      saveIssues(inputFile, visitorContext.getIssues(), worker.checks());
+      saveSymbolsAndHighlighting(parsedFile.fileVisitors());
+    };
+  }
+
+  private static boolean isBuiltInCheck(PythonCheck check) {
+    return check.getClass().getPackageName().startsWith("org.sonar.python.checks");
+  }
+
+  private ParsedFile parseFile(PythonInputFile inputFile, PythonParser parser) throws IOException {
     PythonFile pythonFile = SonarQubePythonFile.create(inputFile.wrappedFile());
-    PythonVisitorContext visitorContext;
-    InputFile.Type fileType = inputFile.wrappedFile().type();
     try {
-      AstNode astNode = parser.parse(inputFile.contents());
+      long startNanos = System.nanoTime();
+      long startAllocatedBytes = AnalysisStatistics.currentThreadAllocatedBytes();
+      AstNode astNode = parse(inputFile, parser);
+      recordPhase(AnalysisStatistics.PARSE, startNanos, startAllocatedBytes);
+      startNanos = System.nanoTime();
+      startAllocatedBytes = AnalysisStatistics.currentThreadAllocatedBytes();
       PythonTreeMaker treeMaker = getTreeMaker(inputFile);
-      FileInput parse = treeMaker.fileInput(astNode);
-      visitorContext = new PythonVisitorContext(parse,
+      // the AST is not used after the conversion: release it statement by statement
+      FileInput parse = treeMaker.fileInputReleasingAst(astNode);
+      recordPhase(AnalysisStatistics.TREE, startNanos, startAllocatedBytes);
+      PythonVisitorContext visitorContext = new PythonVisitorContext(parse,
         pythonFile,
         getWorkingDirectory(context),
         indexer.packageName(inputFile),
         indexer.projectLevelSymbolTable(),
         indexer.cacheContext(),
-        context.runtime().getProduct());
-      if (fileType == InputFile.Type.MAIN) {
-        saveMeasures(inputFile, visitorContext);
+        context.runtime().getProduct(),
+        requiresTypeInferenceV2(inputFile),
+        statistics);
+      // highlighting, symbols and CPD tokens are collected during the same traversal as the metrics, and only pushed to the sensor
+      // context when the results of the file are saved
+      FileVisitors fileVisitors = fileVisitors(inputFile);
+      List<PythonSubscriptionCheck> visitors = fileVisitors.all();
+      FileMetrics fileMetrics = null;
+      if (inputFile.wrappedFile().type() == InputFile.Type.MAIN) {
+        fileMetrics = new FileMetrics(visitorContext, isNotebook(inputFile), visitors);
+      } else if (!visitors.isEmpty()) {
+        SubscriptionVisitor.analyze(visitors, visitorContext);
       }
+      return new ParsedFile(visitorContext, fileMetrics, null, fileVisitors);
     } catch (RecognitionException e) {
-      visitorContext = new PythonVisitorContext(pythonFile, e, context.runtime().getProduct());
+      return new ParsedFile(new PythonVisitorContext(pythonFile, e, context.runtime().getProduct()), null, e, FileVisitors.NONE);
+    }
+  }
+
+  private FileVisitors fileVisitors(PythonInputFile inputFile) {
+    if (isInSonarLint(context)) {
+      return FileVisitors.NONE;
+    }
+    boolean pushCpdTokens = inputFile.wrappedFile().type() == InputFile.Type.MAIN && inputFile.kind() == PythonInputFile.Kind.PYTHON;
+    return new FileVisitors(
+      new PythonHighlighter(context, inputFile),
+      new SymbolVisitor(context, inputFile.wrappedFile()),
+      pushCpdTokens);
+  }
+
+  private void recordPhase(String phase, long startNanos, long startAllocatedBytes) {
+    if (statistics != null) {
+      statistics.recordPhase(phase, startNanos, startAllocatedBytes);
+    }
+  }
+
+  private boolean requiresTypeInferenceV2(PythonInputFile inputFile) {
+    InputFile.Type fileType = inputFile.wrappedFile().type();
+    // Checks from other rule repositories may predate PythonCheck#requiresTypeInferenceV2: they are assumed to rely on it
+    return checks.all().stream()
+      .filter(check -> isCheckApplicable(check, fileType))
+      .anyMatch(check -> check.requiresTypeInferenceV2() || !isBuiltInCheck(check));
+  }
+
+  private AstNode parse(PythonInputFile inputFile, PythonParser parser) throws IOException {
+    String contents = inputFile.contents();
+    if (inputFile.kind() == PythonInputFile.Kind.PYTHON) {
+      AstNode indexedAstNode = indexer.takeParseResult(inputFile, contents);
+      if (indexedAstNode != null) {
+        return indexedAstNode;
+      }
+    }
+    return parser.parse(contents);
+  }
 
+  private void saveParsingResults(PythonInputFile inputFile, ParsedFile parsedFile) {
+    if (parsedFile.fileMetrics() != null) {
+      saveMeasures(inputFile, parsedFile.visitorContext(), parsedFile.fileMetrics(), parsedFile.fileVisitors().pushCpdTokens());
+    }
+    RecognitionException e = parsedFile.parseError();
+    if (e != null) {
       var line = (inputFile.kind() == PythonInputFile.Kind.IPYTHON) ? ((GeneratedIPythonFile) inputFile).locationMap().get(e.getLine()).line() : e.getLine();
       var newMessage = e.getMessage().replace("line " + e.getLine(), "line " + line);
 
@@ -132,24 +257,41 @@ public class PythonScanner extends Scanner {
         .message(newMessage)
         .save();
     }
+  }
+
+  /**
+   * @param candidatesOwner the checks {@code candidateChecks} belong to, used to find their rule keys
+   */
+  private void runChecks(PythonInputFile inputFile, PythonVisitorContext visitorContext, PythonChecks candidatesOwner,
+    List<PythonCheck> candidateChecks) {
+    InputFile.Type fileType = inputFile.wrappedFile().type();
+    Set<RuleKey> checksExecutedWithoutParsing = checksExecutedWithoutParsingByFiles.getOrDefault(inputFile, Collections.emptySet());
     List<PythonSubscriptionCheck> checksBasedOnTree = new ArrayList<>();
-    for (PythonCheck check : checks.all()) {
+    for (PythonCheck check : candidateChecks) {
       if (!isCheckApplicable(check, fileType)
-        || checksExecutedWithoutParsingByFiles.getOrDefault(inputFile, Collections.emptySet()).contains(check)) {
+        || (!checksExecutedWithoutParsing.isEmpty() && checksExecutedWithoutParsing.contains(candidatesOwner.ruleKey(check)))) {
         continue;
       }
       if (check instanceof PythonSubscriptionCheck pythonSubscriptionCheck) {
         checksBasedOnTree.add(pythonSubscriptionCheck);
+      } else if (statistics != null) {
+        long startNanos = System.nanoTime();
+        long startAllocatedBytes = AnalysisStatistics.currentThreadAllocatedBytes();
+        check.scanFile(visitorContext);
+        statistics.recordCheck(check.getClass(), null, startNanos, startAllocatedBytes);
       } else {
         check.scanFile(visitorContext);
       }
     }
-    SubscriptionVisitor.analyze(checksBasedOnTree, visitorContext);
-    saveIssues(inputFile, visitorContext.getIssues());
+    SubscriptionVisitor.analyze(checksBasedOnTree, visitorContext, statistics);
+  }
 
-    if (visitorContext.rootTree() != null && !isInSonarLint(context)) {
-      new SymbolVisitor(context.newSymbolTable().onFile(inputFile.wrappedFile())).visitFileInput(visitorContext.rootTree());
-      new PythonHighlighter(context, inputFile).scanFile(visitorContext);
+  private static void saveSymbolsAndHighlighting(FileVisitors fileVisitors) {
+    if (fileVisitors.symbolVisitor() != null) {
+      fileVisitors.symbolVisitor().save();
+    }
+    if (fileVisitors.highlighter() != null) {
+      fileVisitors.highlighter().save();
     }
   }
 
@@ -181,9 +323,7 @@ public class PythonScanner extends Scanner {
       PythonFile pythonFile = SonarQubePythonFile.create(inputFile.wrappedFile());
       PythonInputFileContext inputFileContext = new PythonInputFileContext(pythonFile, context.fileSystem().workDir(), indexer.cacheContext(), context.runtime().getProduct());
       if (check.scanWithoutParsing(inputFileContext)) {
-        Set<PythonCheck> executedChecks = checksExecutedWithoutParsingByFiles.getOrDefault(inputFile, new HashSet<>());
-        executedChecks.add(check);
-        checksExecutedWithoutParsingByFiles.putIfAbsent(inputFile, executedChecks);
+        checksExecutedWithoutParsingByFiles.computeIfAbsent(inputFile, f -> new HashSet<>()).add(checks.ruleKey(check));
       } else {
         result = false;
       }
@@ -197,11 +337,17 @@ public class PythonScanner extends Scanner {
   }
 
   private boolean checkRequiresParsingOfImpactedFile(PythonInputFile inputFile, PythonCheck check) {
-    return !indexer.canBeFullyScannedWithoutParsing(inputFile) && !check.getClass().getPackageName().startsWith("org.sonar.python.checks");
+    if (isBuiltInCheck(check)) {
+      // Built-in checks only need the API of the dependencies, unless they report locations inside of them
+      return check.requiresReanalysisOnDependencyChange() && !indexer.hasUnchangedDependencies(inputFile);
+    }
+    return check.requiresReanalysisOnDependencyChange() ? !indexer.hasUnchangedDependencies(inputFile) : !indexer.canBeFullyScannedWithoutParsing(inputFile);
   }
 
   @Override
   public void endOfAnalysis() {
+    indexer.clearParseResults();
+    indexer.projectLevelSymbolTable().releaseProjectLevelTypeTables();
     checks.all().stream()
       .filter(EndOfAnalysis.class::isInstance)
       .map(EndOfAnalysis.class::cast)
@@ -241,9 +387,9 @@ public class PythonScanner extends Scanner {
       numSkippedFiles, numTotalFiles);
   }
 
-  private void saveIssues(PythonInputFile inputFile, List<PreciseIssue> issues) {
+  private void saveIssues(PythonInputFile inputFile, List<PreciseIssue> issues, PythonChecks executedChecks) {
     for (PreciseIssue preciseIssue : issues) {
-      RuleKey ruleKey = checks.ruleKey(preciseIssue.check());
+      RuleKey ruleKey = Optional.ofNullable(executedChecks.ruleKey(preciseIssue.check())).orElseGet(() -> checks.ruleKey(preciseIssue.check()));
       NewIssue newIssue = context
         .newIssue()
         .forRule(ruleKey);
@@ -312,14 +458,14 @@ public class PythonScanner extends Scanner {
     return newLocation;
   }
 
-  private void saveMeasures(PythonInputFile inputFile, PythonVisitorContext visitorContext) {
-    FileMetrics fileMetrics = new FileMetrics(visitorContext, isNotebook(inputFile));
+  private void saveMeasures(PythonInputFile inputFile, PythonVisitorContext visitorContext, FileMetrics fileMetrics,
+    boolean pushCpdTokens) {
     FileLinesVisitor fileLinesVisitor = fileMetrics.fileLinesVisitor();
 
     noSonarFilter.noSonarInFile(inputFile.wrappedFile(), fileLinesVisitor.getLinesWithNoSonar());
 
     if (!isInSonarLint(context)) {
-      if (inputFile.kind() == PythonInputFile.Kind.PYTHON) {
+      if (pushCpdTokens) {
         cpdAnalyzer.pushCpdTokens(inputFile.wrappedFile(), visitorContext);
       }
 
@@ -397,4 +543,23 @@ public class PythonScanner extends Scanner {
   private static TextRange rangeFromTextSpan(InputFile file, PythonTextEdit pythonTextEdit) {
     return file.newRange(pythonTextEdit.startLine(), pythonTextEdit.startLineOffset(), pythonTextEdit.endLine(), pythonTextEdit.endLineOffset());
   }
+
+  private record ParsedFile(PythonVisitorContext visitorContext, @Nullable FileMetrics fileMetrics, @Nullable RecognitionException parseError,
+    FileVisitors fileVisitors) {
+  }
+
+  private record FileVisitors(@Nullable PythonHighlighter highlighter, @Nullable SymbolVisitor symbolVisitor,
+    boolean pushCpdTokens) {
+
+    static final FileVisitors NONE = new FileVisitors(null, null, false);
+
+    List<PythonSubscriptionCheck> all() {
+      return Stream.<PythonSubscriptionCheck>of(highlighter, symbolVisitor)
+        .filter(Objects::nonNull)
+        .toList();
+    }
+  }
+
+  private record Worker(PythonParser parser, PythonChecks checks) {
+  }
 }
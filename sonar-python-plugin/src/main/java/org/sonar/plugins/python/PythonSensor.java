@@ -20,6 +20,8 @@
 package org.sonar.plugins.python;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -45,9 +47,13 @@ import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.indexer.PythonIndexer;
 import org.sonar.plugins.python.indexer.SonarQubePythonIndexer;
 import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
+import org.sonar.python.AnalysisStatistics;
 import org.sonar.python.caching.CacheContextImpl;
+import org.sonar.python.caching.PythonReadCacheImpl;
+import org.sonar.python.caching.PythonWriteCacheImpl;
 import org.sonar.python.checks.CheckList;
 import org.sonar.python.parser.PythonParser;
+import org.sonar.python.regex.RegexParseCache;
 import org.sonar.python.types.TypeShed;
 import org.sonarsource.performance.measure.PerformanceMeasure;
 
@@ -59,6 +65,8 @@ public final class PythonSensor implements Sensor {
   private static final String PERFORMANCE_MEASURE_PROPERTY = "sonar.python.performance.measure";
   private static final String PERFORMANCE_MEASURE_FILE_PATH_PROPERTY = "sonar.python.performance.measure.path";
   private static final String PERFORMANCE_MEASURE_DESTINATION_FILE = "sonar-python-performance-measure.json";
+  static final String ANALYSIS_STATISTICS_PROPERTY = "sonar.python.performance.rules";
+  private static final String ANALYSIS_STATISTICS_DESTINATION_FILE = "sonar-python-analysis-statistics.json";
 
   private final PythonChecks checks;
   private final FileLinesContextFactory fileLinesContextFactory;
@@ -124,13 +132,41 @@ public final class PythonSensor implements Sensor {
     if (pythonVersionParameter.length != 0){
       ProjectPythonVersion.setCurrentVersions(PythonVersionUtils.fromStringArray(pythonVersionParameter));
     }
+    TypeShed.clearSymbolsIfPythonVersionsChanged();
     CacheContext cacheContext = CacheContextImpl.of(context);
     PythonIndexer pythonIndexer = this.indexer != null ? this.indexer : new SonarQubePythonIndexer(pythonFiles, cacheContext, context);
     pythonIndexer.setSonarLintCache(sonarLintCache);
     TypeShed.setProjectLevelSymbolTable(pythonIndexer.projectLevelSymbolTable());
-    PythonScanner scanner = new PythonScanner(context, checks, fileLinesContextFactory, noSonarFilter, PythonParser.create(), pythonIndexer);
+    AnalysisStatistics statistics = context.config().getBoolean(ANALYSIS_STATISTICS_PROPERTY).orElse(Boolean.FALSE) ? new AnalysisStatistics() : null;
+    PythonScanner scanner = new PythonScanner(context, checks, fileLinesContextFactory, noSonarFilter, PythonParser.create(), pythonIndexer,
+      statistics);
     scanner.execute(pythonFiles, context);
+    RegexParseCache regexParseCache = RegexParseCache.shared();
+    LOG.debug("Regex parse cache: {} hits, {} misses, {} entries", regexParseCache.hits(), regexParseCache.misses(), regexParseCache.size());
+    logCacheStatistics(cacheContext);
     durationReport.stop();
+    if (statistics != null) {
+      writeAnalysisStatistics(context, statistics);
+    }
+  }
+
+  private static void logCacheStatistics(CacheContext cacheContext) {
+    if (cacheContext.isCacheEnabled()
+      && cacheContext.getReadCache() instanceof PythonReadCacheImpl readCache
+      && cacheContext.getWriteCache() instanceof PythonWriteCacheImpl writeCache) {
+      LOG.debug("Analysis cache: {} entries ({} bytes) read, {} entries ({} bytes) written, {} entries copied from the previous analysis",
+        readCache.entriesRead(), readCache.bytesRead(), writeCache.entriesWritten(), writeCache.bytesWritten(), writeCache.entriesCopied());
+    }
+  }
+
+  private static void writeAnalysisStatistics(SensorContext context, AnalysisStatistics statistics) {
+    Optional<Path> directory = context.config().get(PERFORMANCE_MEASURE_FILE_PATH_PROPERTY)
+      .filter(path -> !path.isEmpty())
+      .map(path -> Paths.get(path).toAbsolutePath().getParent())
+      .or(() -> Optional.ofNullable(context.fileSystem().workDir())
+        .filter(File::exists)
+        .map(File::toPath));
+    directory.ifPresent(dir -> AnalysisStatisticsReport.write(statistics, dir.resolve(ANALYSIS_STATISTICS_DESTINATION_FILE)));
   }
 
   private static List<PythonInputFile> getInputFiles(SensorContext context) {
@@ -0,0 +1,74 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.CheckForNull;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.utils.PathUtils;
+
+/**
+ * Resolves the file paths found in the reports of external tools (issues, coverage, test results) to input files.
+ * A resolver is created for each sensor execution and passed to the report parsers: the input files of the {@link FileSystem}
+ * are indexed once by absolute and relative path, and resolutions and checks of existence on disk are memoized for the
+ * duration of that execution, so that the size of the reports does not impact the number of lookups.
+ */
+public class ReportPathResolver {
+
+  private final Map<String, InputFile> filesByAbsolutePath = new HashMap<>();
+  private final Map<String, InputFile> filesByRelativePath = new HashMap<>();
+  private final Map<String, Optional<InputFile>> resolvedPaths = new ConcurrentHashMap<>();
+  private final Map<String, Boolean> existingFiles = new ConcurrentHashMap<>();
+
+  @SuppressWarnings("deprecation")
+  public ReportPathResolver(FileSystem fileSystem) {
+    for (InputFile inputFile : fileSystem.inputFiles(fileSystem.predicates().all())) {
+      filesByAbsolutePath.put(inputFile.absolutePath(), inputFile);
+      filesByRelativePath.put(inputFile.relativePath(), inputFile);
+    }
+  }
+
+  /**
+   * Equivalent of {@code fileSystem.inputFile(fileSystem.predicates().hasPath(path))}: absolute paths are matched against
+   * the absolute path of the input files, other paths against their path relative to the base directory.
+   */
+  @CheckForNull
+  public InputFile inputFile(String path) {
+    return resolvedPaths.computeIfAbsent(path, p -> {
+      String normalizedPath = PathUtils.sanitize(p);
+      Map<String, InputFile> filesByPath = new File(p).isAbsolute() ? filesByAbsolutePath : filesByRelativePath;
+      return Optional.ofNullable(normalizedPath == null ? null : filesByPath.get(normalizedPath));
+    }).orElse(null);
+  }
+
+  /**
+   * Whether the file exists, without accessing the disk when it is one of the input files.
+   */
+  public boolean exists(File file) {
+    String absolutePath = file.getAbsolutePath();
+    InputFile inputFile = inputFile(absolutePath);
+    return inputFile != null || existingFiles.computeIfAbsent(absolutePath, p -> file.exists());
+  }
+}
@@ -21,8 +21,17 @@ package org.sonar.plugins.python;
 
 import com.sonar.sslr.api.RecognitionException;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
@@ -32,6 +41,9 @@ import org.sonarsource.analyzer.commons.ProgressReport;
 public abstract class Scanner {
   private static final Logger LOG = LoggerFactory.getLogger(Scanner.class);
   private static final String FAIL_FAST_PROPERTY_NAME = "sonar.internal.analysis.failFast";
+  public static final String THREADS_PROPERTY_NAME = "sonar.python.analysis.threads";
+  // Number of files which may be analyzed ahead of the file whose results are being saved, per thread
+  private static final int PENDING_FILES_PER_THREAD = 2;
   protected final SensorContext context;
 
   protected Scanner(SensorContext context) {
@@ -44,35 +56,128 @@ public abstract class Scanner {
     LOG.info("Starting {}", name);
     List<String> filenames = files.stream().map(PythonInputFile::wrappedFile).map(InputFile::toString).toList();
 
-    int numScannedWithoutParsing = 0;
+    int numScannedWithoutParsing;
     progressReport.start(filenames);
+    int threads = numberOfThreads(context);
+    if (threads > 1 && supportsConcurrentScan()) {
+      LOG.debug("Running {} on {} threads", name, threads);
+      numScannedWithoutParsing = executeConcurrently(files, context, progressReport, threads);
+    } else {
+      numScannedWithoutParsing = executeSequentially(files, context, progressReport);
+    }
+    if (numScannedWithoutParsing < 0) {
+      // analysis has been cancelled
+      return;
+    }
+    endOfAnalysis();
+    progressReport.stop();
+    this.reportStatistics(numScannedWithoutParsing, files.size());
+  }
+
+  private int executeSequentially(List<PythonInputFile> files, SensorContext context, ProgressReport progressReport) {
+    int numScannedWithoutParsing = 0;
     for (PythonInputFile file : files) {
       if (context.isCancelled()) {
         progressReport.cancel();
-        return;
+        return -1;
       }
       try {
-        boolean successfullyScannedWithoutParsing = false;
-        if (canBeScannedWithoutParsing(file)) {
-          successfullyScannedWithoutParsing = this.scanFileWithoutParsing(file);
-        }
-        if (!successfullyScannedWithoutParsing) {
-          this.scanFile(file);
-        } else {
+        if (tryScanWithoutParsing(file)) {
           ++numScannedWithoutParsing;
+        } else {
+          this.scanFile(file);
         }
       } catch (Exception e) {
-        this.processException(e, file);
-        if (context.config().getBoolean(FAIL_FAST_PROPERTY_NAME).orElse(false) && !isParseErrorOnTestFile(file, e)) {
-          throw new IllegalStateException("Exception when analyzing " + file, e);
-        }
+        handleException(e, file, context);
       } finally {
         progressReport.nextFile();
       }
     }
-    endOfAnalysis();
-    progressReport.stop();
-    this.reportStatistics(numScannedWithoutParsing, files.size());
+    return numScannedWithoutParsing;
+  }
+
+  /**
+   * Files are analyzed by a pool of worker threads through {@link #scanFileConcurrently(PythonInputFile)}.
+   * The returned results are then saved on the calling thread, one file at a time and in the order of the input list,
+   * so that everything pushed to the {@link SensorContext} stays serialized.
+   */
+  private int executeConcurrently(List<PythonInputFile> files, SensorContext context, ProgressReport progressReport, int threads) {
+    int numScannedWithoutParsing = 0;
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new WorkerThreadFactory(name()));
+    Deque<PendingFile> pendingFiles = new ArrayDeque<>();
+    try {
+      for (PythonInputFile file : files) {
+        if (context.isCancelled()) {
+          pendingFiles.forEach(PendingFile::cancel);
+          progressReport.cancel();
+          return -1;
+        }
+        try {
+          if (tryScanWithoutParsing(file)) {
+            ++numScannedWithoutParsing;
+            pendingFiles.add(new PendingFile(file, null));
+          } else {
+            pendingFiles.add(new PendingFile(file, executor.submit(() -> scanFileConcurrently(file))));
+          }
+        } catch (Exception e) {
+          handleException(e, file, context);
+          pendingFiles.add(new PendingFile(file, null));
+        }
+        while (pendingFiles.size() > threads * PENDING_FILES_PER_THREAD) {
+          saveResult(pendingFiles.poll(), context, progressReport);
+        }
+      }
+      while (!pendingFiles.isEmpty()) {
+        if (context.isCancelled()) {
+          pendingFiles.forEach(PendingFile::cancel);
+          progressReport.cancel();
+          return -1;
+        }
+        saveResult(pendingFiles.poll(), context, progressReport);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return numScannedWithoutParsing;
+  }
+
+  private void saveResult(PendingFile pendingFile, SensorContext context, ProgressReport progressReport) {
+    try {
+      if (pendingFile.result() != null) {
+        pendingFile.result().get().save();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while analyzing " + pendingFile.file(), e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof Exception exception) {
+        handleException(exception, pendingFile.file(), context);
+      } else if (cause instanceof Error error) {
+        throw error;
+      } else {
+        throw new IllegalStateException("Exception when analyzing " + pendingFile.file(), cause);
+      }
+    } catch (Exception e) {
+      handleException(e, pendingFile.file(), context);
+    } finally {
+      progressReport.nextFile();
+    }
+  }
+
+  private boolean tryScanWithoutParsing(PythonInputFile file) throws IOException {
+    return canBeScannedWithoutParsing(file) && this.scanFileWithoutParsing(file);
+  }
+
+  private void handleException(Exception e, PythonInputFile file, SensorContext context) {
+    this.processException(e, file);
+    if (context.config().getBoolean(FAIL_FAST_PROPERTY_NAME).orElse(false) && !isParseErrorOnTestFile(file, e)) {
+      throw new IllegalStateException("Exception when analyzing " + file, e);
+    }
+  }
+
+  private static int numberOfThreads(SensorContext context) {
+    return context.config().getInt(THREADS_PROPERTY_NAME).orElse(1);
   }
 
   protected abstract String name();
@@ -83,6 +188,22 @@ public abstract class Scanner {
     return false;
   }
 
+  /**
+   * Whether {@link #scanFileConcurrently(PythonInputFile)} can be called from several threads at the same time.
+   * When this is false, or when a single thread is configured, files are scanned sequentially with {@link #scanFile(PythonInputFile)}.
+   */
+  protected boolean supportsConcurrentScan() {
+    return false;
+  }
+
+  /**
+   * Performs the part of the analysis of a file which does not interact with the {@link SensorContext}.
+   * The returned {@link ScanResult} is saved later on, from the thread which called {@link #execute(List, SensorContext)}.
+   */
+  protected ScanResult scanFileConcurrently(PythonInputFile file) throws IOException {
+    return () -> scanFile(file);
+  }
+
   protected void endOfAnalysis() {
     // no op
   }
@@ -101,4 +222,36 @@ public abstract class Scanner {
     // As test files may contain invalid syntax on purpose, we avoid failing the analysis when encountering parse errors on them
     return e instanceof RecognitionException && file.wrappedFile().type() == InputFile.Type.TEST;
   }
+
+  @FunctionalInterface
+  protected interface ScanResult {
+    void save() throws IOException;
+  }
+
+  private record PendingFile(PythonInputFile file, @Nullable Future<ScanResult> result) {
+    void cancel() {
+      if (result != null) {
+        result.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Creates named daemon threads, so that worker threads are identifiable and never prevent the JVM from exiting.
+   */
+  public static class WorkerThreadFactory implements ThreadFactory {
+    private final String scannerName;
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    public WorkerThreadFactory(String scannerName) {
+      this.scannerName = scannerName;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "python " + scannerName + " worker " + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
 }
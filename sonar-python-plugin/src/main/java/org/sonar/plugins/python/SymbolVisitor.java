@@ -20,13 +20,17 @@
 package org.sonar.plugins.python;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.symbol.NewSymbol;
 import org.sonar.api.batch.sensor.symbol.NewSymbolTable;
+import org.sonar.plugins.python.api.PythonSubscriptionCheck;
+import org.sonar.plugins.python.api.PythonVisitorContext;
 import org.sonar.plugins.python.api.symbols.Symbol;
 import org.sonar.plugins.python.api.symbols.Usage;
-import org.sonar.plugins.python.api.tree.BaseTreeVisitor;
 import org.sonar.plugins.python.api.tree.ClassDef;
 import org.sonar.plugins.python.api.tree.ComprehensionExpression;
 import org.sonar.plugins.python.api.tree.DictCompExpression;
@@ -34,50 +38,57 @@ import org.sonar.plugins.python.api.tree.FileInput;
 import org.sonar.plugins.python.api.tree.FunctionDef;
 import org.sonar.plugins.python.api.tree.LambdaExpression;
 import org.sonar.plugins.python.api.tree.Tree;
+import org.sonar.python.SubscriptionVisitor;
 
-public class SymbolVisitor extends BaseTreeVisitor {
+public class SymbolVisitor extends PythonSubscriptionCheck {
 
-  private final NewSymbolTable newSymbolTable;
+  private final SensorContext context;
+  private final InputFile inputFile;
+  // usages of each symbol, declaration first, collected while visiting the file, possibly on a worker thread, and only pushed to the
+  // sensor context on save
+  private final List<List<Range>> symbols = new ArrayList<>();
 
-  public SymbolVisitor(NewSymbolTable newSymbolTable) {
-    this.newSymbolTable = newSymbolTable;
+  public SymbolVisitor(SensorContext context, InputFile inputFile) {
+    this.context = context;
+    this.inputFile = inputFile;
   }
 
   @Override
-  public void visitClassDef(ClassDef classDef) {
-    classDef.classFields().forEach(this::handleSymbol);
-    classDef.instanceFields().forEach(this::handleSymbol);
-    super.visitClassDef(classDef);
+  public void scanFile(PythonVisitorContext visitorContext) {
+    SubscriptionVisitor.analyze(Collections.singletonList(this), visitorContext);
+    save();
   }
 
   @Override
-  public void visitFunctionDef(FunctionDef functionDef) {
-    functionDef.localVariables().forEach(this::handleSymbol);
-    super.visitFunctionDef(functionDef);
-  }
-
-  @Override
-  public void visitLambda(LambdaExpression lambdaExpression) {
-    lambdaExpression.localVariables().forEach(this::handleSymbol);
-    super.visitLambda(lambdaExpression);
-  }
-
-  @Override
-  public void visitPyListOrSetCompExpression(ComprehensionExpression tree) {
-    tree.localVariables().forEach(this::handleSymbol);
-    super.visitPyListOrSetCompExpression(tree);
-  }
-
-  @Override
-  public void visitDictCompExpression(DictCompExpression tree) {
-    tree.localVariables().forEach(this::handleSymbol);
-    super.visitDictCompExpression(tree);
+  public void initialize(Context context) {
+    context.registerSyntaxNodeConsumer(Tree.Kind.FILE_INPUT, ctx -> ((FileInput) ctx.syntaxNode()).globalVariables().forEach(this::handleSymbol));
+    context.registerSyntaxNodeConsumer(Tree.Kind.CLASSDEF, ctx -> {
+      ClassDef classDef = (ClassDef) ctx.syntaxNode();
+      classDef.classFields().forEach(this::handleSymbol);
+      classDef.instanceFields().forEach(this::handleSymbol);
+    });
+    context.registerSyntaxNodeConsumer(Tree.Kind.FUNCDEF, ctx -> ((FunctionDef) ctx.syntaxNode()).localVariables().forEach(this::handleSymbol));
+    context.registerSyntaxNodeConsumer(Tree.Kind.LAMBDA, ctx -> ((LambdaExpression) ctx.syntaxNode()).localVariables().forEach(this::handleSymbol));
+    for (Tree.Kind kind : List.of(Tree.Kind.LIST_COMPREHENSION, Tree.Kind.SET_COMPREHENSION, Tree.Kind.GENERATOR_EXPR)) {
+      context.registerSyntaxNodeConsumer(kind, ctx -> ((ComprehensionExpression) ctx.syntaxNode()).localVariables().forEach(this::handleSymbol));
+    }
+    context.registerSyntaxNodeConsumer(Tree.Kind.DICT_COMPREHENSION,
+      ctx -> ((DictCompExpression) ctx.syntaxNode()).localVariables().forEach(this::handleSymbol));
   }
 
-  @Override
-  public void visitFileInput(FileInput fileInput) {
-    fileInput.globalVariables().forEach(this::handleSymbol);
-    super.visitFileInput(fileInput);
+  /**
+   * Saves the symbols collected while visiting the file.
+   */
+  public void save() {
+    NewSymbolTable newSymbolTable = context.newSymbolTable().onFile(inputFile);
+    for (List<Range> usages : symbols) {
+      Range declaration = usages.get(0);
+      NewSymbol newSymbol = newSymbolTable.newSymbol(declaration.startLine(), declaration.startLineOffset(), declaration.endLine(),
+        declaration.endLineOffset());
+      for (Range reference : usages.subList(1, usages.size())) {
+        newSymbol.newReference(reference.startLine(), reference.startLineOffset(), reference.endLine(), reference.endLineOffset());
+      }
+    }
     newSymbolTable.save();
   }
 
@@ -88,13 +99,15 @@ public class SymbolVisitor extends BaseTreeVisitor {
     }
     List<Usage> usages = new ArrayList<>(symbol.usages());
     usages.sort(Comparator.comparingInt(u -> u.tree().firstToken().line()));
-    Tree firstUsageTree = usages.get(0).tree();
-    NewSymbol newSymbol = newSymbolTable.newSymbol(firstUsageTree.firstToken().line(), firstUsageTree.firstToken().column(),
-      firstUsageTree.lastToken().line(), firstUsageTree.lastToken().column() + firstUsageTree.lastToken().value().length());
-    for (int i = 1; i < usages.size(); i++) {
-      Tree usageTree = usages.get(i).tree();
-      newSymbol.newReference(usageTree.firstToken().line(), usageTree.firstToken().column(),
-        usageTree.lastToken().line(), usageTree.lastToken().column() + usageTree.lastToken().value().length());
+    List<Range> ranges = new ArrayList<>(usages.size());
+    for (Usage usage : usages) {
+      Tree usageTree = usage.tree();
+      ranges.add(new Range(usageTree.firstToken().line(), usageTree.firstToken().column(),
+        usageTree.lastToken().line(), usageTree.lastToken().column() + usageTree.lastToken().value().length()));
     }
+    symbols.add(ranges);
+  }
+
+  private record Range(int startLine, int startLineOffset, int endLine, int endLineOffset) {
   }
 }
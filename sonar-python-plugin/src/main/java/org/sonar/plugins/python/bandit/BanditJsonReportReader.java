@@ -19,22 +19,25 @@
  */
 package org.sonar.plugins.python.bandit;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.function.Consumer;
-import java.util.stream.Stream;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
-import org.sonarsource.analyzer.commons.internal.json.simple.JSONArray;
-import org.sonarsource.analyzer.commons.internal.json.simple.JSONObject;
-import org.sonarsource.analyzer.commons.internal.json.simple.parser.JSONParser;
-import org.sonarsource.analyzer.commons.internal.json.simple.parser.ParseException;
-
-import static java.nio.charset.StandardCharsets.UTF_8;
 
+/**
+ * Streams the "results" of a Bandit JSON report: only the result being read is kept in memory, whatever the size of the report.
+ * Issues are passed to the consumer as soon as they are read: when the report is invalid further on (e.g. truncated), the issues
+ * read before are consumed nonetheless, before the exception is thrown.
+ */
 public class BanditJsonReportReader {
 
-  private final JSONParser jsonParser = new JSONParser();
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
   private final Consumer<Issue> consumer;
 
   public static class Issue {
@@ -56,33 +59,69 @@ public class BanditJsonReportReader {
     this.consumer = consumer;
   }
 
-  static void read(InputStream in, Consumer<Issue> consumer) throws IOException, ParseException {
+  public static void read(InputStream in, Consumer<Issue> consumer) throws IOException {
     new BanditJsonReportReader(consumer).read(in);
   }
 
-  private void read(InputStream in) throws IOException, ParseException {
-    JSONObject rootObject = (JSONObject) jsonParser.parse(new InputStreamReader(in, UTF_8));
-    JSONArray files = (JSONArray) rootObject.get("results");
-    if (files != null) {
-      ((Stream<JSONObject>) files.stream()).forEach(this::onResult);
+  private void read(InputStream in) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "Expected an object at the root of the Bandit report");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.currentName();
+        if (parser.nextToken() == JsonToken.START_ARRAY && "results".equals(fieldName)) {
+          readResults(parser);
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+  }
+
+  private void readResults(JsonParser parser) throws IOException {
+    JsonToken token;
+    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+      if (token != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "Expected an object for each Bandit result");
+      }
+      onResult(parser);
     }
   }
 
-  private void onResult(JSONObject result) {
+  private void onResult(JsonParser parser) throws IOException {
     Issue issue = new Issue();
-    issue.ruleKey = (String) result.get("test_id");
-    issue.filePath = (String) result.get("filename");
-    issue.message = (String) result.get("issue_text");
-    issue.lineNumber = toInteger(result.get("line_number"));
-    issue.severity = (String) result.get("issue_severity");
-    issue.confidence = (String) result.get("issue_confidence");
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.currentName();
+      parser.nextToken();
+      switch (fieldName) {
+        case "test_id" -> issue.ruleKey = toText(parser);
+        case "filename" -> issue.filePath = toText(parser);
+        case "issue_text" -> issue.message = toText(parser);
+        case "line_number" -> issue.lineNumber = toInteger(parser);
+        case "issue_severity" -> issue.severity = toText(parser);
+        case "issue_confidence" -> issue.confidence = toText(parser);
+        default -> parser.skipChildren();
+      }
+    }
     consumer.accept(issue);
   }
 
-  private static Integer toInteger(Object value) {
-    if (value instanceof Number number) {
-      return number.intValue();
+  @CheckForNull
+  private static String toText(JsonParser parser) throws IOException {
+    if (parser.currentToken() == JsonToken.VALUE_STRING) {
+      return parser.getText();
+    }
+    parser.skipChildren();
+    return null;
+  }
+
+  @CheckForNull
+  private static Integer toInteger(JsonParser parser) throws IOException {
+    if (parser.currentToken().isNumeric()) {
+      return parser.getNumberValue().intValue();
     }
+    parser.skipChildren();
     return null;
   }
 
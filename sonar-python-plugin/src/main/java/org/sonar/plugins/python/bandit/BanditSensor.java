@@ -24,6 +24,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.rule.Severity;
 import org.sonar.api.batch.sensor.SensorContext;
@@ -36,8 +37,8 @@ import org.sonar.api.utils.Version;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.ExternalIssuesSensor;
+import org.sonar.plugins.python.ReportPathResolver;
 import org.sonar.plugins.python.bandit.BanditJsonReportReader.Issue;
-import org.sonarsource.analyzer.commons.internal.json.simple.parser.ParseException;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
@@ -52,20 +53,31 @@ public class BanditSensor extends ExternalIssuesSensor {
   private static final Long DEFAULT_CONSTANT_DEBT_MINUTES = 5L;
 
   @Override
-  protected void importReport(File reportPath, SensorContext context, Set<String> unresolvedInputFiles) throws IOException, ParseException {
-    InputStream in = new FileInputStream(reportPath);
-    LOG.info("Importing {}", reportPath);
-    BanditJsonReportReader.read(in, issue -> saveIssue(context, issue, unresolvedInputFiles));
+  protected void importReport(File reportPath, SensorContext context, ReportPathResolver pathResolver, Set<String> unresolvedInputFiles)
+    throws IOException {
+    AtomicInteger nReadIssues = new AtomicInteger();
+    try (InputStream in = new FileInputStream(reportPath)) {
+      LOG.info("Importing {}", reportPath);
+      BanditJsonReportReader.read(in, issue -> {
+        nReadIssues.incrementAndGet();
+        saveIssue(context, pathResolver, issue, unresolvedInputFiles);
+      });
+    } catch (IOException | RuntimeException e) {
+      if (nReadIssues.get() == 0) {
+        throw e;
+      }
+      logReportPartiallyRead(e, reportPath, nReadIssues.get());
+    }
   }
 
 
-  private static void saveIssue(SensorContext context, Issue issue, Set<String> unresolvedInputFiles) {
+  private static void saveIssue(SensorContext context, ReportPathResolver pathResolver, Issue issue, Set<String> unresolvedInputFiles) {
     if (isEmpty(issue.ruleKey) || isEmpty(issue.filePath) || isEmpty(issue.message)) {
       LOG.debug("Missing information for ruleKey:'{}', filePath:'{}', message:'{}'", issue.ruleKey, issue.filePath, issue.message);
       return;
     }
 
-    InputFile inputFile = context.fileSystem().inputFile(context.fileSystem().predicates().hasPath(issue.filePath));
+    InputFile inputFile = pathResolver.inputFile(issue.filePath);
     if (inputFile == null) {
       unresolvedInputFiles.add(issue.filePath);
       return;
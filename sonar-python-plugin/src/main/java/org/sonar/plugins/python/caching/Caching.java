@@ -19,7 +19,7 @@
  */
 package org.sonar.plugins.python.caching;
 
-import com.google.protobuf.InvalidProtocolBufferException;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
@@ -30,24 +30,16 @@ import javax.annotation.CheckForNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.api.caching.CacheContext;
-import org.sonar.python.index.Descriptor;
-import org.sonar.python.types.protobuf.DescriptorsProtos;
-
-import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
-import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
 
 public class Caching {
 
   private final CacheContext cacheContext;
 
-  public static final String IMPORTS_MAP_CACHE_KEY_PREFIX = "python:imports:";
-  public static final String PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX = "python:descriptors:";
+  public static final String MODULE_RECORD_KEY_PREFIX = "python:module:";
   public static final String PROJECT_FILES_KEY = "python:files";
-  public static final String CONTENT_HASHES_KEY = "python:content_hashes:";
   public static final String TYPESHED_MODULES_KEY = "python:typeshed_modules";
   public static final String CACHE_VERSION_KEY = "python:cache_version";
-  public static final String CPD_TOKENS_CACHE_KEY_PREFIX = "python:cpd:data:";
-  public static final String CPD_TOKENS_STRING_TABLE_KEY_PREFIX = "python:cpd:stringTable:";
+  public static final String CPD_TOKENS_CACHE_KEY_PREFIX = "python:cpd:";
 
   private static final Logger LOG = LoggerFactory.getLogger(Caching.class);
 
@@ -58,15 +50,8 @@ public class Caching {
     this.cacheVersion = cacheVersion;
   }
 
-  public void writeImportsMapEntry(String fileKey, Set<String> imports) {
-    byte[] importData = String.join(";", imports).getBytes(StandardCharsets.UTF_8);
-    String cacheKey = importsMapCacheKey(fileKey);
-    cacheContext.getWriteCache().write(cacheKey, importData);
-  }
-
-  public void writeFileContentHash(String fileKey, byte[] hash) {
-    String cacheKey = fileContentHashCacheKey(fileKey);
-    cacheContext.getWriteCache().write(cacheKey, hash);
+  public void writeModuleRecord(String fileKey, ModuleRecord moduleRecord) {
+    cacheContext.getWriteCache().write(moduleRecordCacheKey(fileKey), moduleRecord.toByteArray());
   }
 
   public void writeFilesList(List<String> mainFiles) {
@@ -83,48 +68,23 @@ public class Caching {
     cacheContext.getWriteCache().write(CACHE_VERSION_KEY, cacheVersion.getBytes(StandardCharsets.UTF_8));
   }
 
-  public void writeProjectLevelSymbolTableEntry(String fileKey, Set<Descriptor> descriptors) {
-    String cacheKey = projectSymbolTableCacheKey(fileKey);
-    cacheContext.getWriteCache().write(cacheKey, toProtobufModuleDescriptor(descriptors).toByteArray());
-  }
-
   public void copyFromPrevious(String fileKey) {
-    cacheContext.getWriteCache().copyFromPrevious(importsMapCacheKey(fileKey));
-    cacheContext.getWriteCache().copyFromPrevious(projectSymbolTableCacheKey(fileKey));
-    cacheContext.getWriteCache().copyFromPrevious(fileContentHashCacheKey(fileKey));
-  }
-
-  @CheckForNull
-  public Set<Descriptor> readProjectLevelSymbolTableEntry(String fileKey) {
-    String key = projectSymbolTableCacheKey(fileKey);
-    if (cacheContext.getReadCache().contains(key)) {
-      byte[] bytes = cacheContext.getReadCache().readBytes(key);
-      if (bytes != null) {
-        try {
-          return fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(bytes));
-        } catch (InvalidProtocolBufferException e) {
-          LOG.debug("Failed to deserialize project level symbol table entry for module: \"{}\"", fileKey);
-        }
-      }
-    }
-    return null;
+    cacheContext.getWriteCache().copyFromPrevious(moduleRecordCacheKey(fileKey));
   }
 
   @CheckForNull
-  public Set<String> readImportMapEntry(String fileKey) {
-    String cacheKey = importsMapCacheKey(fileKey);
-    byte[] bytes = cacheContext.getReadCache().readBytes(cacheKey);
+  public ModuleRecord readModuleRecord(String fileKey) {
+    byte[] bytes = cacheContext.getReadCache().readBytes(moduleRecordCacheKey(fileKey));
     if (bytes != null) {
-      return new HashSet<>(Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split(";")));
+      try {
+        return ModuleRecord.fromByteArray(bytes);
+      } catch (IOException e) {
+        LOG.debug("Failed to deserialize cached record for module: \"{}\"", fileKey);
+      }
     }
     return null;
   }
 
-  public byte[] readFileContentHash(String fileKey) {
-    String cacheKey = fileContentHashCacheKey(fileKey);
-    return cacheContext.getReadCache().readBytes(cacheKey);
-  }
-
   public Set<String> readFilesList() {
     return readSet(PROJECT_FILES_KEY);
   }
@@ -163,15 +123,11 @@ public class Caching {
     return cacheContext;
   }
 
-  public static String importsMapCacheKey(String key) {
-    return IMPORTS_MAP_CACHE_KEY_PREFIX + key.replace('\\', '/');
-  }
-
-  public static String projectSymbolTableCacheKey(String key) {
-    return PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX + key.replace('\\', '/');
+  public static String moduleRecordCacheKey(String key) {
+    return MODULE_RECORD_KEY_PREFIX + key.replace('\\', '/');
   }
 
-  public static  String fileContentHashCacheKey(String key) {
-    return CONTENT_HASHES_KEY + key.replace('\\', '/');
+  public static String cpdTokensCacheKey(String key) {
+    return CPD_TOKENS_CACHE_KEY_PREFIX + key.replace('\\', '/');
   }
 }
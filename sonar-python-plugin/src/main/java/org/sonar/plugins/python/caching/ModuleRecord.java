@@ -0,0 +1,118 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.caching;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
+
+import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
+import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
+
+/**
+ * Everything cached about a module for the computation of the project-level symbol table, stored in a single cache entry.
+ * Layout: format version, content hash, API fingerprint, imported modules, then the serialized descriptors.
+ */
+public class ModuleRecord {
+
+  static final byte FORMAT_VERSION = 1;
+
+  private final byte[] contentHash;
+  private final byte[] apiFingerprint;
+  private final Set<String> imports;
+  private final Set<Descriptor> descriptors;
+
+  public ModuleRecord(byte[] contentHash, byte[] apiFingerprint, Set<String> imports, Set<Descriptor> descriptors) {
+    this.contentHash = contentHash;
+    this.apiFingerprint = apiFingerprint;
+    this.imports = imports;
+    this.descriptors = descriptors;
+  }
+
+  public byte[] contentHash() {
+    return contentHash;
+  }
+
+  public byte[] apiFingerprint() {
+    return apiFingerprint;
+  }
+
+  public Set<String> imports() {
+    return imports;
+  }
+
+  public Set<Descriptor> descriptors() {
+    return descriptors;
+  }
+
+  public byte[] toByteArray() {
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(stream)) {
+      out.writeByte(FORMAT_VERSION);
+      writeBytes(out, contentHash);
+      writeBytes(out, apiFingerprint);
+      out.writeInt(imports.size());
+      for (String importedModule : imports) {
+        out.writeUTF(importedModule);
+      }
+      toProtobufModuleDescriptor(descriptors).writeTo(out);
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to serialize module record", e);
+    }
+    return stream.toByteArray();
+  }
+
+  public static ModuleRecord fromByteArray(byte[] bytes) throws IOException {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      byte formatVersion = in.readByte();
+      if (formatVersion != FORMAT_VERSION) {
+        throw new IOException("Unsupported module record format: " + formatVersion);
+      }
+      byte[] contentHash = readBytes(in);
+      byte[] apiFingerprint = readBytes(in);
+      int importsCount = in.readInt();
+      Set<String> imports = new HashSet<>();
+      for (int i = 0; i < importsCount; i++) {
+        imports.add(in.readUTF());
+      }
+      Set<Descriptor> descriptors = fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(in));
+      return new ModuleRecord(contentHash, apiFingerprint, imports, descriptors);
+    }
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > in.available()) {
+      throw new IOException("Corrupted module record");
+    }
+    return in.readNBytes(length);
+  }
+}
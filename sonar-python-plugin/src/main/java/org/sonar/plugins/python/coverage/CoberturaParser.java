@@ -34,20 +34,25 @@ import org.apache.commons.lang.StringUtils;
 import org.codehaus.staxmate.in.SMInputCursor;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
-import org.sonar.api.batch.sensor.coverage.NewCoverage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.EmptyReportException;
+import org.sonar.plugins.python.ReportPathResolver;
 import org.sonar.plugins.python.parser.StaxParser;
 
 public class CoberturaParser {
 
   private static final Logger LOG = LoggerFactory.getLogger(CoberturaParser.class);
 
+  private final ReportPathResolver pathResolver;
   private final Set<String> errors = new LinkedHashSet<>();
   private int unresolvedFilenameCount;
 
-  public void parseReport(File xmlFile, SensorContext context, final Map<InputFile, NewCoverage> coverageData) throws XMLStreamException {
+  CoberturaParser(ReportPathResolver pathResolver) {
+    this.pathResolver = pathResolver;
+  }
+
+  void parseReport(File xmlFile, SensorContext context, final Map<InputFile, FileCoverage> coverageData) throws XMLStreamException {
     LOG.info("Parsing report '{}'", xmlFile);
     unresolvedFilenameCount = 0;
 
@@ -65,7 +70,7 @@ public class CoberturaParser {
         if ("sources".equals(cursor.getLocalName())) {
           baseDirectories = extractBaseDirectories(cursor, defaultBaseDirectory);
         } else if ("packages".equals(cursor.getLocalName())) {
-          collectFileMeasures(cursor.descendantElementCursor("class"), context, coverageData, baseDirectories);
+          collectFileMeasures(cursor.descendantElementCursor("class"), coverageData, baseDirectories);
         }
       }
     });
@@ -99,13 +104,13 @@ public class CoberturaParser {
     return baseDirectories;
   }
 
-  private void collectFileMeasures(SMInputCursor classCursor, SensorContext context, Map<InputFile, NewCoverage> coverageData, List<File> baseDirectories)
+  private void collectFileMeasures(SMInputCursor classCursor, Map<InputFile, FileCoverage> coverageData, List<File> baseDirectories)
     throws XMLStreamException {
     while (classCursor.getNext() != null) {
       String filename = FilenameUtils.normalize(classCursor.getAttrValue("filename"));
-      InputFile inputFile = resolve(context, baseDirectories, filename);
+      InputFile inputFile = resolve(baseDirectories, filename);
       if (inputFile != null) {
-        NewCoverage coverage = coverageData.computeIfAbsent(inputFile, f -> context.newCoverage().onFile(f));
+        FileCoverage coverage = coverageData.computeIfAbsent(inputFile, FileCoverage::new);
         collectFileData(classCursor, coverage);
       } else {
         classCursor.advance();
@@ -114,18 +119,18 @@ public class CoberturaParser {
   }
 
   @Nullable
-  private InputFile resolve(SensorContext context, List<File> baseDirectories, String filename) {
+  private InputFile resolve(List<File> baseDirectories, String filename) {
     String absolutePath;
     File file = new File(filename);
     if (file.isAbsolute()) {
-      if (!file.exists()) {
+      if (!pathResolver.exists(file)) {
         logUnresolvedFile("Cannot resolve the file path '%s' of the coverage report, the file does not exist in all 'source'.", filename);
       }
       absolutePath = file.getAbsolutePath();
     } else {
       List<File> fileList = baseDirectories.stream()
         .map(base -> new File(base, filename))
-        .filter(File::exists)
+        .filter(pathResolver::exists)
         .toList();
       if (fileList.isEmpty()) {
         logUnresolvedFile("Cannot resolve the file path '%s' of the coverage report, the file does not exist in all 'source'.", filename);
@@ -137,7 +142,7 @@ public class CoberturaParser {
       }
       absolutePath = fileList.get(0).getAbsolutePath();
     }
-    return context.fileSystem().inputFile(context.fileSystem().predicates().hasAbsolutePath(absolutePath));
+    return pathResolver.inputFile(absolutePath);
   }
 
   private void logUnresolvedFile(String message, String filename) {
@@ -149,7 +154,7 @@ public class CoberturaParser {
     }
   }
 
-  private static void collectFileData(SMInputCursor classCursor, NewCoverage coverage) throws XMLStreamException {
+  private static void collectFileData(SMInputCursor classCursor, FileCoverage coverage) throws XMLStreamException {
     SMInputCursor line = classCursor.childElementCursor("lines").advance().childElementCursor("line");
     while (line.getNext() != null) {
       int lineId = Integer.parseInt(line.getAttrValue("number"));
@@ -0,0 +1,100 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.coverage;
+
+import java.util.Arrays;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.sensor.coverage.NewCoverage;
+
+/**
+ * Line hits and conditions of a file, merged from all the coverage reports and saved once in a {@link NewCoverage}.
+ * Values are stored in arrays indexed by line number.
+ */
+class FileCoverage {
+
+  private static final int NO_HITS = -1;
+
+  private final InputFile inputFile;
+  private final int[] hits;
+  private final int[] conditions;
+  private final int[] coveredConditions;
+
+  FileCoverage(InputFile inputFile) {
+    this.inputFile = inputFile;
+    int lines = inputFile.lines();
+    hits = new int[lines + 1];
+    Arrays.fill(hits, NO_HITS);
+    conditions = new int[lines + 1];
+    coveredConditions = new int[lines + 1];
+  }
+
+  /**
+   * As with {@link NewCoverage#lineHits(int, int)}, only the first hits reported for a line are kept.
+   */
+  void lineHits(int line, int lineHits) {
+    checkLine(line);
+    if (hits[line] == NO_HITS) {
+      hits[line] = lineHits;
+    }
+  }
+
+  /**
+   * As with {@link NewCoverage#conditions(int, int, int)}, only the first conditions reported for a line are kept.
+   */
+  void conditions(int line, int conditionCount, int coveredConditionCount) {
+    checkLine(line);
+    if (conditionCount > 0 && conditions[line] == 0) {
+      conditions[line] = conditionCount;
+      coveredConditions[line] = coveredConditionCount;
+    }
+  }
+
+  /**
+   * Adds the coverage of the same file from another report: hits are summed and the highest numbers of conditions are kept,
+   * the same way the coverage saved for a file by several reports is merged.
+   */
+  void merge(FileCoverage other) {
+    for (int line = 1; line < hits.length; line++) {
+      if (other.hits[line] != NO_HITS) {
+        hits[line] = hits[line] == NO_HITS ? other.hits[line] : (hits[line] + other.hits[line]);
+      }
+      conditions[line] = Math.max(conditions[line], other.conditions[line]);
+      coveredConditions[line] = Math.max(coveredConditions[line], other.coveredConditions[line]);
+    }
+  }
+
+  void save(NewCoverage newCoverage) {
+    for (int line = 1; line < hits.length; line++) {
+      if (hits[line] != NO_HITS) {
+        newCoverage.lineHits(line, hits[line]);
+      }
+      if (conditions[line] > 0) {
+        newCoverage.conditions(line, conditions[line], coveredConditions[line]);
+      }
+    }
+    newCoverage.save();
+  }
+
+  private void checkLine(int line) {
+    if (line <= 0 || line >= hits.length) {
+      throw new IllegalStateException(String.format("Line %d is out of range in the file %s (lines: %d)", line, inputFile, hits.length - 1));
+    }
+  }
+}
@@ -20,13 +20,20 @@
 package org.sonar.plugins.python.coverage;
 
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import javax.xml.stream.XMLStreamException;
 import org.slf4j.Logger;
@@ -35,11 +42,12 @@ import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
-import org.sonar.api.batch.sensor.coverage.NewCoverage;
 import org.sonar.api.config.Configuration;
 import org.sonar.plugins.python.EmptyReportException;
 import org.sonar.plugins.python.Python;
 import org.sonar.plugins.python.PythonReportSensor;
+import org.sonar.plugins.python.ReportPathResolver;
+import org.sonar.plugins.python.Scanner;
 import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
 
 public class PythonCoverageSensor implements Sensor {
@@ -73,13 +81,11 @@ public class PythonCoverageSensor implements Sensor {
     warnDeprecatedPropertyUsage(config);
 
     try {
-      HashSet<InputFile> filesCovered = new HashSet<>();
       List<File> reports = getCoverageReports(baseDir, config);
       if (!reports.isEmpty()) {
         LOG.info("Python test coverage");
-        for (File report : uniqueAbsolutePaths(reports)) {
-          importReport(context, report, filesCovered);
-        }
+        Map<InputFile, FileCoverage> coverageByFile = importReports(context, uniqueAbsolutePaths(reports));
+        saveMeasures(context, coverageByFile);
       }
     } catch (Exception e) {
       LOG.warn("Cannot read coverage report, the following exception occurred: '{}'", e.getMessage());
@@ -87,11 +93,69 @@ public class PythonCoverageSensor implements Sensor {
     }
   }
 
-  private void importReport(SensorContext context, File report, HashSet<InputFile> filesCovered) {
+  /**
+   * Reports are parsed concurrently when several threads are configured. Their coverage is then merged on the calling thread,
+   * in the order of the reports, so that the result and the warnings do not depend on thread scheduling. Parsed reports are
+   * released as soon as they are merged, and only a few more reports than threads are submitted ahead of the merge.
+   */
+  private Map<InputFile, FileCoverage> importReports(SensorContext context, Set<File> reports) {
+    Map<InputFile, FileCoverage> coverageByFile = new LinkedHashMap<>();
+    ReportPathResolver pathResolver = new ReportPathResolver(context.fileSystem());
+    int threads = Math.min(context.config().getInt(Scanner.THREADS_PROPERTY_NAME).orElse(1), reports.size());
+    if (threads <= 1) {
+      reports.forEach(report -> importReport(report, () -> parseReport(report, context, pathResolver), coverageByFile));
+      return coverageByFile;
+    }
+    LOG.debug("Parsing {} coverage reports on {} threads", reports.size(), threads);
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new Scanner.WorkerThreadFactory("coverage report parsing"));
+    try {
+      Deque<PendingReport> pendingReports = new ArrayDeque<>();
+      for (File report : reports) {
+        pendingReports.add(new PendingReport(report, executor.submit(() -> parseReport(report, context, pathResolver))));
+        while (pendingReports.size() > threads * 2) {
+          importPendingReport(pendingReports.poll(), coverageByFile);
+        }
+      }
+      while (!pendingReports.isEmpty()) {
+        importPendingReport(pendingReports.poll(), coverageByFile);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return coverageByFile;
+  }
+
+  private void importPendingReport(PendingReport pendingReport, Map<InputFile, FileCoverage> coverageByFile) {
+    importReport(pendingReport.report(), pendingReport.parsing()::get, coverageByFile);
+  }
+
+  private void importReport(File report, Callable<ParsedReport> parsing, Map<InputFile, FileCoverage> coverageByFile) {
     try {
-      Map<InputFile, NewCoverage> coverageMeasures = parseReport(report, context);
-      saveMeasures(coverageMeasures, filesCovered);
+      ParsedReport parsedReport = parsing.call();
+      if (!parsedReport.errors().isEmpty()) {
+        String parseErrors = String.format(String.join("%n", parsedReport.errors()));
+        analysisWarnings.addUnique(String.format("The following error(s) occurred while trying to import coverage report:%n%s",
+          parseErrors));
+      }
+      parsedReport.coverageByFile().forEach((inputFile, coverage) -> coverageByFile.merge(inputFile, coverage, (previous, next) -> {
+        previous.merge(next);
+        return previous;
+      }));
+    } catch (ExecutionException e) {
+      onReportFailure(report, e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      onReportFailure(report, e);
     } catch (Exception e) {
+      onReportFailure(report, e);
+    }
+  }
+
+  private void onReportFailure(File report, Throwable e) {
+    if (e instanceof EmptyReportException) {
+      analysisWarnings.addUnique(String.format("The coverage report '%s' has been ignored because it seems to be empty.", report));
+      LOG.warn("The report '{}' seems to be empty, ignoring. '{}'", report, e);
+    } else {
       LOG.warn("Cannot read coverage report '{}', the following exception occurred: '{}'", report, e.getMessage());
       analysisWarnings.addUnique(String.format("An error occurred while trying to import the coverage report: '%s'", report));
     }
@@ -121,34 +185,30 @@ public class PythonCoverageSensor implements Sensor {
       .collect(Collectors.toCollection(LinkedHashSet::new));
   }
 
-  private Map<InputFile, NewCoverage> parseReport(File report, SensorContext context) {
-    Map<InputFile, NewCoverage> coverageMeasures = new HashMap<>();
+  private static ParsedReport parseReport(File report, SensorContext context, ReportPathResolver pathResolver) {
+    Map<InputFile, FileCoverage> coverageByFile = new HashMap<>();
+    CoberturaParser parser = new CoberturaParser(pathResolver);
     try {
-      CoberturaParser parser = new CoberturaParser();
-      parser.parseReport(report, context, coverageMeasures);
-      if (!parser.errors().isEmpty()) {
-        String parseErrors = String.format(String.join("%n", parser.errors()));
-        analysisWarnings.addUnique(String.format("The following error(s) occurred while trying to import coverage report:%n%s",
-          parseErrors));
-      }
-    } catch (EmptyReportException e) {
-      analysisWarnings.addUnique(String.format("The coverage report '%s' has been ignored because it seems to be empty.", report));
-      LOG.warn("The report '{}' seems to be empty, ignoring. '{}'", report, e);
+      parser.parseReport(report, context, coverageByFile);
     } catch (XMLStreamException e) {
       throw new IllegalStateException("Error parsing the report '" + report + "'", e);
     }
-    return coverageMeasures;
+    return new ParsedReport(coverageByFile, parser.errors());
   }
 
-  private static void saveMeasures(Map<InputFile, NewCoverage> coverageMeasures, HashSet<InputFile> coveredFiles) {
-    for (Map.Entry<InputFile, NewCoverage> entry : coverageMeasures.entrySet()) {
+  private static void saveMeasures(SensorContext context, Map<InputFile, FileCoverage> coverageByFile) {
+    for (Map.Entry<InputFile, FileCoverage> entry : coverageByFile.entrySet()) {
       InputFile inputFile = entry.getKey();
-      coveredFiles.add(inputFile);
       if (LOG.isDebugEnabled()) {
         LOG.debug("Saving coverage measures for file '{}'", inputFile);
       }
-      entry.getValue()
-        .save();
+      entry.getValue().save(context.newCoverage().onFile(inputFile));
     }
   }
+
+  private record PendingReport(File report, Future<ParsedReport> parsing) {
+  }
+
+  private record ParsedReport(Map<InputFile, FileCoverage> coverageByFile, Set<String> errors) {
+  }
 }
@@ -38,8 +38,7 @@ import org.sonar.plugins.python.api.tree.Tree;
 import org.sonar.python.caching.CpdSerializer;
 import org.sonar.python.tree.TreeUtils;
 
-import static org.sonar.plugins.python.caching.Caching.CPD_TOKENS_CACHE_KEY_PREFIX;
-import static org.sonar.plugins.python.caching.Caching.CPD_TOKENS_STRING_TABLE_KEY_PREFIX;
+import static org.sonar.plugins.python.caching.Caching.cpdTokensCacheKey;
 
 public class PythonCpdAnalyzer {
 
@@ -54,45 +53,45 @@ public class PythonCpdAnalyzer {
   public void pushCpdTokens(InputFile inputFile, PythonVisitorContext visitorContext) {
     Tree root = visitorContext.rootTree();
     if (root != null) {
-      NewCpdTokens cpdTokens = context.newCpdTokens().onFile(inputFile);
-      List<Token> tokens = TreeUtils.tokens(root);
-      List<Token> tokensToCache = new ArrayList<>();
-      for (int i = 0; i < tokens.size(); i++) {
-        Token token = tokens.get(i);
-        TokenType currentTokenType = token.type();
-        TokenType nextTokenType = i + 1 < tokens.size() ? tokens.get(i + 1).type() : GenericTokenType.EOF;
-        // INDENT/DEDENT could not be completely ignored during CPD see https://docs.python.org/3/reference/lexical_analysis.html#indentation
-        // Just taking into account DEDENT is enough, but because the DEDENT token has an empty value, it's the
-        // preceding new line which is added in its place to create a difference
-        if (isNewLineWithIndentationChange(currentTokenType, nextTokenType) || !isIgnoredType(currentTokenType)) {
-          TokenLocation location = new TokenLocation(token);
-          cpdTokens.addToken(location.startLine(), location.startLineOffset(), location.endLine(), location.endLineOffset(), token.value());
-          tokensToCache.add(token);
-        }
+      pushCpdTokens(inputFile, visitorContext, TreeUtils.tokens(root));
+    }
+  }
+
+  private void pushCpdTokens(InputFile inputFile, PythonVisitorContext visitorContext, List<Token> tokens) {
+    NewCpdTokens cpdTokens = context.newCpdTokens().onFile(inputFile);
+    List<Token> tokensToCache = new ArrayList<>();
+    for (int i = 0; i < tokens.size(); i++) {
+      Token token = tokens.get(i);
+      TokenType currentTokenType = token.type();
+      TokenType nextTokenType = i + 1 < tokens.size() ? tokens.get(i + 1).type() : GenericTokenType.EOF;
+      // INDENT/DEDENT could not be completely ignored during CPD see https://docs.python.org/3/reference/lexical_analysis.html#indentation
+      // Just taking into account DEDENT is enough, but because the DEDENT token has an empty value, it's the
+      // preceding new line which is added in its place to create a difference
+      if (isNewLineWithIndentationChange(currentTokenType, nextTokenType) || !isIgnoredType(currentTokenType)) {
+        TokenLocation location = new TokenLocation(token);
+        cpdTokens.addToken(location.startLine(), location.startLineOffset(), location.endLine(), location.endLineOffset(), token.value());
+        tokensToCache.add(token);
       }
-      saveTokensToCache(visitorContext, tokensToCache);
-      cpdTokens.save();
     }
+    saveTokensToCache(visitorContext, tokensToCache);
+    cpdTokens.save();
   }
 
   public boolean pushCachedCpdTokens(InputFile inputFile, CacheContext cacheContext) {
-    String dataKey = dataCacheKey(inputFile.key());
-    String tableKey = stringTableCacheKey(inputFile.key());
-    byte[] dataBytes = cacheContext.getReadCache().readBytes(dataKey);
-    byte[] tableBytes = cacheContext.getReadCache().readBytes(tableKey);
-    if (dataBytes == null || tableBytes == null) {
+    String cacheKey = cpdTokensCacheKey(inputFile.key());
+    byte[] bytes = cacheContext.getReadCache().readBytes(cacheKey);
+    if (bytes == null) {
       return false;
     }
 
     try {
-      List<CpdSerializer.TokenInfo> tokens = CpdSerializer.deserialize(dataBytes, tableBytes);
+      List<CpdSerializer.TokenInfo> tokens = CpdSerializer.deserialize(bytes);
 
       NewCpdTokens cpdTokens = context.newCpdTokens().onFile(inputFile);
       tokens.forEach(tokenInfo ->
         cpdTokens.addToken(tokenInfo.startLine, tokenInfo.startLineOffset, tokenInfo.endLine, tokenInfo.endLineOffset, tokenInfo.value));
       cpdTokens.save();
-      cacheContext.getWriteCache().copyFromPrevious(dataKey);
-      cacheContext.getWriteCache().copyFromPrevious(tableKey);
+      cacheContext.getWriteCache().copyFromPrevious(cacheKey);
       return true;
     } catch (IOException e) {
       LOG.warn("Failed to deserialize CPD tokens ({}: {})", e.getClass().getSimpleName(), e.getMessage());
@@ -111,8 +110,7 @@ public class PythonCpdAnalyzer {
       String fileKey = visitorContext.pythonFile().key();
 
       CpdSerializer.SerializationResult result = CpdSerializer.serialize(tokensToCache);
-      cacheContext.getWriteCache().write(stringTableCacheKey(fileKey), result.stringTable);
-      cacheContext.getWriteCache().write(dataCacheKey(fileKey), result.data);
+      cacheContext.getWriteCache().write(cpdTokensCacheKey(fileKey), result.toByteArray());
     } catch (Exception e) {
       LOG.warn("Could not write CPD tokens to cache ({}: {})", e.getClass().getSimpleName(), e.getMessage());
     }
@@ -128,12 +126,4 @@ public class PythonCpdAnalyzer {
       type.equals(PythonTokenType.INDENT) ||
       type.equals(GenericTokenType.EOF);
   }
-
-  private static String dataCacheKey(String fileKey) {
-    return CPD_TOKENS_CACHE_KEY_PREFIX + fileKey.replace('\\', '/');
-  }
-
-  private static String stringTableCacheKey(String fileKey) {
-    return CPD_TOKENS_STRING_TABLE_KEY_PREFIX + fileKey.replace('\\', '/');
-  }
 }
@@ -28,6 +28,7 @@ import org.sonar.api.config.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.ExternalIssuesSensor;
+import org.sonar.plugins.python.ReportPathResolver;
 import org.sonar.plugins.python.TextReportReader;
 import org.sonar.plugins.python.TextReportReader.Issue;
 
@@ -40,9 +41,10 @@ public class Flake8Sensor extends ExternalIssuesSensor {
   public static final String REPORT_PATH_KEY = "sonar.python.flake8.reportPaths";
 
   @Override
-  protected void importReport(File reportPath, SensorContext context, Set<String> unresolvedInputFiles) throws IOException {
+  protected void importReport(File reportPath, SensorContext context, ReportPathResolver pathResolver, Set<String> unresolvedInputFiles)
+    throws IOException {
     List<Issue> issues = new TextReportReader(TextReportReader.COLUMN_ONE_BASED).parse(reportPath, context.fileSystem());
-    issues.forEach(i -> saveIssue(context, i, unresolvedInputFiles, LINTER_KEY));
+    issues.forEach(i -> saveIssue(context, pathResolver, i, unresolvedInputFiles, LINTER_KEY));
   }
 
   @Override
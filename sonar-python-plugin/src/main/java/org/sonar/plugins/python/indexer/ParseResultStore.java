@@ -0,0 +1,111 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.indexer;
+
+import com.sonar.sslr.api.AstNode;
+import java.lang.ref.SoftReference;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.CheckForNull;
+
+/**
+ * Keeps the ASTs produced while computing the project-level symbol table, so that the rules execution step
+ * does not have to lex and parse the same files again.
+ * The amount of retained source code is bounded, and ASTs are only softly referenced: the garbage collector may
+ * reclaim them under memory pressure, in which case the file is simply parsed again.
+ * Each AST is handed out at most once.
+ */
+public class ParseResultStore {
+
+  // Rough estimation of the heap retained by an SSLR AST, relative to the number of characters of its source code
+  private static final int ESTIMATED_AST_BYTES_PER_CHAR = 100;
+
+  private final long maxRetainedChars;
+  private final AtomicLong retainedChars = new AtomicLong();
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+  private final Map<URI, StoredParseResult> parseResults = new ConcurrentHashMap<>();
+
+  public ParseResultStore() {
+    // At most a quarter of the heap is dedicated to retained ASTs
+    this(Runtime.getRuntime().maxMemory() / 4 / ESTIMATED_AST_BYTES_PER_CHAR);
+  }
+
+  ParseResultStore(long maxRetainedChars) {
+    this.maxRetainedChars = maxRetainedChars;
+  }
+
+  public void put(URI uri, String source, AstNode astNode) {
+    evict(uri);
+    if (retainedChars.addAndGet(source.length()) > maxRetainedChars) {
+      retainedChars.addAndGet(-source.length());
+      return;
+    }
+    parseResults.put(uri, new StoredParseResult(new SoftReference<>(astNode), source.length(), source.hashCode()));
+  }
+
+  /**
+   * Returns the AST stored for the given file if it is still available and was computed from the same source code.
+   * The AST is removed from the store in any case.
+   */
+  @CheckForNull
+  public AstNode take(URI uri, String source) {
+    StoredParseResult storedParseResult = evict(uri);
+    AstNode astNode = storedParseResult != null ? storedParseResult.astNode().get() : null;
+    if (astNode == null || storedParseResult.sourceLength() != source.length() || storedParseResult.sourceHash() != source.hashCode()) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return astNode;
+  }
+
+  public void remove(URI uri) {
+    evict(uri);
+  }
+
+  @CheckForNull
+  private StoredParseResult evict(URI uri) {
+    StoredParseResult storedParseResult = parseResults.remove(uri);
+    if (storedParseResult != null) {
+      retainedChars.addAndGet(-storedParseResult.sourceLength());
+    }
+    return storedParseResult;
+  }
+
+  public void clear() {
+    parseResults.clear();
+    retainedChars.set(0);
+  }
+
+  public int hits() {
+    return hits.get();
+  }
+
+  public int misses() {
+    return misses.get();
+  }
+
+  private record StoredParseResult(SoftReference<AstNode> astNode, int sourceLength, int sourceHash) {
+  }
+}
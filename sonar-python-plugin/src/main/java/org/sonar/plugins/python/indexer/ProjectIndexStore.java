@@ -0,0 +1,238 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.indexer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.CheckForNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.semantic.ProjectLevelSymbolTable.ModuleSymbols;
+import org.sonar.python.types.protobuf.DescriptorsProtos;
+
+import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
+import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
+
+/**
+ * On-disk index of the symbols contributed by each module to the project-level symbol table, kept between SonarLint sessions.
+ * Each SonarLint module has its own directory. There is one entry per file, keyed by its URI, which is only used as long as the hash
+ * of the file content is unchanged. That hash is only computed when the last modification time or the size of the file differ from
+ * the ones recorded in the entry, or when no stamp was recorded because the indexed content was not the one saved on disk. Descriptors are stored in the same protobuf format as the SonarQube cache.
+ */
+class ProjectIndexStore {
+
+  static final String DIRECTORY_NAME = "python-project-index";
+  private static final Logger LOG = LoggerFactory.getLogger(ProjectIndexStore.class);
+  private static final int FORMAT_VERSION = 3;
+  private static final String ENTRY_EXTENSION = ".entry";
+
+  private final Path directory;
+  private final String pluginVersion;
+
+  ProjectIndexStore(Path directory, String pluginVersion) {
+    this.directory = directory;
+    this.pluginVersion = pluginVersion;
+  }
+
+  /**
+   * @return the directory of the index of the given module, so that modules sharing the same working directory do not remove the entries
+   * of each other.
+   */
+  static Path moduleDirectory(Path workDir, String moduleKey) {
+    byte[] moduleKeyHash = sha256().digest(moduleKey.getBytes(StandardCharsets.UTF_8));
+    return workDir.resolve(DIRECTORY_NAME).resolve(HexFormat.of().formatHex(moduleKeyHash, 0, 16));
+  }
+
+  /**
+   * @return the symbols stored for the given file, or null when they are missing, outdated or unreadable.
+   */
+  @CheckForNull
+  ModuleSymbols read(URI uri, FileStamp stamp, ContentHashSupplier contentHash) {
+    Path entry = entryPath(uri);
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+      if (in.readInt() != FORMAT_VERSION || !pluginVersion.equals(in.readUTF()) || !uri.toString().equals(in.readUTF())) {
+        return null;
+      }
+      FileStamp storedStamp = new FileStamp(in.readLong(), in.readLong());
+      byte[] storedHash = new byte[in.readUnsignedShort()];
+      in.readFully(storedHash);
+      if ((!stamp.isKnown() || !stamp.equals(storedStamp)) && !MessageDigest.isEqual(storedHash, contentHash.get())) {
+        return null;
+      }
+      String fullyQualifiedModuleName = in.readUTF();
+      Set<String> importedModulesFQN = readStrings(in);
+      Set<String> djangoViewsFQN = readStrings(in);
+      byte[] descriptors = new byte[in.readInt()];
+      in.readFully(descriptors);
+      Set<Descriptor> globalDescriptors = fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(descriptors));
+      return new ModuleSymbols(fullyQualifiedModuleName, globalDescriptors, importedModulesFQN, djangoViewsFQN);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Failed to read the project index entry of \"{}\": {}", uri, e.getMessage());
+      return null;
+    }
+  }
+
+  void write(URI uri, FileStamp stamp, byte[] contentHash, ModuleSymbols moduleSymbols) {
+    Path entry = entryPath(uri);
+    try {
+      Files.createDirectories(directory);
+      Path temporaryEntry = Files.createTempFile(directory, "entry", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryEntry)))) {
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(pluginVersion);
+        out.writeUTF(uri.toString());
+        out.writeLong(stamp.lastModified());
+        out.writeLong(stamp.size());
+        out.writeShort(contentHash.length);
+        out.write(contentHash);
+        out.writeUTF(moduleSymbols.fullyQualifiedModuleName());
+        writeStrings(out, moduleSymbols.importedModulesFQN());
+        writeStrings(out, moduleSymbols.djangoViewsFQN());
+        byte[] descriptors = toProtobufModuleDescriptor(moduleSymbols.globalDescriptors()).toByteArray();
+        out.writeInt(descriptors.length);
+        out.write(descriptors);
+      }
+      Files.move(temporaryEntry, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      LOG.debug("Failed to write the project index entry of \"{}\": {}", uri, e.getMessage());
+    }
+  }
+
+  void remove(URI uri) {
+    try {
+      Files.deleteIfExists(entryPath(uri));
+    } catch (IOException e) {
+      LOG.debug("Failed to remove the project index entry of \"{}\": {}", uri, e.getMessage());
+    }
+  }
+
+  /**
+   * Removes the entries of the files which are not part of the project anymore.
+   */
+  void retainOnly(Collection<URI> uris) {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    Set<Path> retainedEntries = uris.stream().map(this::entryPath).collect(Collectors.toSet());
+    try (Stream<Path> entries = Files.list(directory)) {
+      entries.filter(entry -> !retainedEntries.contains(entry)).forEach(entry -> {
+        try {
+          Files.deleteIfExists(entry);
+        } catch (IOException e) {
+          LOG.debug("Failed to remove the project index entry \"{}\": {}", entry, e.getMessage());
+        }
+      });
+    } catch (IOException e) {
+      LOG.debug("Failed to list the project index entries: {}", e.getMessage());
+    }
+  }
+
+  static byte[] contentHash(String contents) {
+    return sha256().digest(contents.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Path entryPath(URI uri) {
+    byte[] uriHash = sha256().digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+    return directory.resolve(HexFormat.of().formatHex(uriHash) + ENTRY_EXTENSION);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Last modification time and size of a file, which are cheaper to get than the hash of its content.
+   */
+  record FileStamp(long lastModified, long size) {
+
+    static final FileStamp UNKNOWN = new FileStamp(-1, -1);
+
+    static FileStamp of(Path path) {
+      try {
+        return new FileStamp(Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+      } catch (IOException | RuntimeException e) {
+        return UNKNOWN;
+      }
+    }
+
+    /**
+     * @return the stamp of the file, or {@link #UNKNOWN} when the given contents differ from the ones saved on disk (e.g. when they come
+     * from an unsaved editor buffer). The stamp of the file on disk would otherwise validate an entry computed from other contents.
+     */
+    static FileStamp ofSavedContents(Path path, String contents, Charset charset) {
+      FileStamp stamp = of(path);
+      try {
+        return stamp.isKnown() && Files.readString(path, charset).equals(contents) ? stamp : UNKNOWN;
+      } catch (IOException | RuntimeException e) {
+        return UNKNOWN;
+      }
+    }
+
+    boolean isKnown() {
+      return lastModified >= 0 && size >= 0;
+    }
+  }
+
+  @FunctionalInterface
+  interface ContentHashSupplier {
+    byte[] get() throws IOException;
+  }
+
+  private static Set<String> readStrings(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    Set<String> strings = new HashSet<>();
+    for (int i = 0; i < size; i++) {
+      strings.add(in.readUTF());
+    }
+    return strings;
+  }
+
+  private static void writeStrings(DataOutputStream out, Set<String> strings) throws IOException {
+    out.writeInt(strings.size());
+    for (String string : strings) {
+      out.writeUTF(string);
+    }
+  }
+}
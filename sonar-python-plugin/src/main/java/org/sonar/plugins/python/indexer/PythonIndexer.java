@@ -22,9 +22,9 @@ package org.sonar.plugins.python.indexer;
 import com.sonar.sslr.api.AstNode;
 import java.io.IOException;
 import java.net.URI;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
@@ -50,9 +50,10 @@ public abstract class PythonIndexer {
 
   protected String projectBaseDirAbsolutePath;
 
-  private final Map<URI, String> packageNames = new HashMap<>();
-  private final PythonParser parser = PythonParser.create();
+  private final Map<URI, String> packageNames = new ConcurrentHashMap<>();
+  private final ThreadLocal<PythonParser> parsers = ThreadLocal.withInitial(PythonParser::create);
   private final ProjectLevelSymbolTable projectLevelSymbolTable = new ProjectLevelSymbolTable();
+  private final ParseResultStore parseResults = new ParseResultStore();
 
   public ProjectLevelSymbolTable projectLevelSymbolTable() {
     return projectLevelSymbolTable;
@@ -60,12 +61,11 @@ public abstract class PythonIndexer {
 
 
   public String packageName(PythonInputFile inputFile) {
-    if (!packageNames.containsKey(inputFile.wrappedFile().uri())) {
+    return packageNames.computeIfAbsent(inputFile.wrappedFile().uri(), uri -> {
       String name = pythonPackageName(inputFile.wrappedFile().file(), projectBaseDirAbsolutePath);
-      packageNames.put(inputFile.wrappedFile().uri(), name);
       projectLevelSymbolTable.addProjectPackage(name);
-    }
-    return packageNames.get(inputFile.wrappedFile().uri());
+      return name;
+    });
   }
 
   public void collectPackageNames(List<PythonInputFile> inputFiles) {
@@ -83,21 +83,65 @@ public abstract class PythonIndexer {
       return;
     }
     packageNames.remove(inputFile.wrappedFile().uri());
+    parseResults.remove(inputFile.wrappedFile().uri());
     projectLevelSymbolTable.removeModule(packageName, filename);
   }
 
   void addFile(PythonInputFile inputFile) throws IOException {
-    AstNode astNode = parser.parse(inputFile.wrappedFile().contents());
-    FileInput astRoot = new PythonTreeMaker().fileInput(astNode);
+    addIndexedModule(indexModule(inputFile));
+  }
+
+  /**
+   * Parses a file and computes the symbols it contributes to the project-level symbol table, without modifying it.
+   * This can be called from several threads at the same time.
+   */
+  IndexedModule indexModule(PythonInputFile inputFile) throws IOException {
+    String contents = inputFile.wrappedFile().contents();
+    AstNode astNode = parsers.get().parse(contents);
+    FileInput astRoot;
+    if (shouldRetainParseResults()) {
+      parseResults.put(inputFile.wrappedFile().uri(), contents, astNode);
+      astRoot = new PythonTreeMaker().fileInput(astNode);
+    } else {
+      astRoot = new PythonTreeMaker().fileInputReleasingAst(astNode);
+    }
     String packageName = pythonPackageName(inputFile.wrappedFile().file(), projectBaseDirAbsolutePath);
-    packageNames.put(inputFile.wrappedFile().uri(), packageName);
-    projectLevelSymbolTable.addProjectPackage(packageName);
     PythonFile pythonFile = SonarQubePythonFile.create(inputFile.wrappedFile());
-    projectLevelSymbolTable.addModule(astRoot, packageName, pythonFile);
+    return new IndexedModule(inputFile, packageName, ProjectLevelSymbolTable.moduleSymbols(astRoot, packageName, pythonFile));
+  }
+
+  void addIndexedModule(IndexedModule indexedModule) {
+    packageNames.put(indexedModule.inputFile().wrappedFile().uri(), indexedModule.packageName());
+    projectLevelSymbolTable.addProjectPackage(indexedModule.packageName());
+    projectLevelSymbolTable.addModule(indexedModule.moduleSymbols());
   }
 
   public abstract void buildOnce(SensorContext context);
 
+  /**
+   * Whether ASTs computed while indexing should be kept for the rules execution step.
+   * This is only worth it when all indexed files are then analyzed.
+   */
+  protected boolean shouldRetainParseResults() {
+    return false;
+  }
+
+  /**
+   * @return the AST computed for the given file while indexing it, or null if it has not been retained.
+   * A retained AST is returned at most once.
+   */
+  @CheckForNull
+  public AstNode takeParseResult(PythonInputFile inputFile, String contents) {
+    return parseResults.take(inputFile.wrappedFile().uri(), contents);
+  }
+
+  public void clearParseResults() {
+    if (shouldRetainParseResults()) {
+      LOG.debug("Reused {} ASTs computed while indexing, {} files had to be parsed again", parseResults.hits(), parseResults.misses());
+    }
+    parseResults.clear();
+  }
+
   public void setSonarLintCache(@Nullable SonarLintCache sonarLintCache) {
     // no op by default
   }
@@ -131,8 +175,21 @@ public abstract class PythonIndexer {
     return false;
   }
 
+  /**
+   * @param inputFile
+   * @return true if a file is unchanged and does NOT depend on any modified or deleted file, false otherwise
+   * This is stricter than {@link #canBeFullyScannedWithoutParsing(PythonInputFile)}, which also holds for files whose dependencies
+   * were modified without changing the API they export.
+   */
+  public boolean hasUnchangedDependencies(PythonInputFile inputFile) {
+    return false;
+  }
+
   public abstract CacheContext cacheContext();
 
+  record IndexedModule(PythonInputFile inputFile, String packageName, ProjectLevelSymbolTable.ModuleSymbols moduleSymbols) {
+  }
+
   class GlobalSymbolsScanner extends Scanner {
 
     protected GlobalSymbolsScanner(SensorContext context) {
@@ -152,6 +209,26 @@ public abstract class PythonIndexer {
       }
     }
 
+    @Override
+    protected boolean supportsConcurrentScan() {
+      return true;
+    }
+
+    /**
+     * Modules are parsed and their symbols are computed by the worker threads. They are then added to the project-level
+     * symbol table in the order of the input files, so that the resulting table does not depend on thread scheduling.
+     * Building the symbols of a module resolves TypeShed symbols, which are shared by all workers: their lazily resolved
+     * superclasses and types are published safely by {@link org.sonar.python.semantic.ClassSymbolImpl} and friends.
+     */
+    @Override
+    protected ScanResult scanFileConcurrently(PythonInputFile inputFile) throws IOException {
+      if (inputFile.kind() != PythonInputFile.Kind.PYTHON) {
+        return () -> {};
+      }
+      IndexedModule indexedModule = indexModule(inputFile);
+      return () -> addIndexedModule(indexedModule);
+    }
+
     @Override
     protected void processException(Exception e, PythonInputFile file) {
       LOG.debug("Unable to construct project-level symbol table for file: {}", file);
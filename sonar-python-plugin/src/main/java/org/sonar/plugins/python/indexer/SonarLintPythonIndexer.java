@@ -20,11 +20,13 @@
 package org.sonar.plugins.python.indexer;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,9 +37,12 @@ import org.sonar.plugins.python.api.SonarLintCache;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.PythonInputFile;
 import org.sonar.plugins.python.PythonInputFileImpl;
+import org.sonar.plugins.python.indexer.ProjectIndexStore.FileStamp;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.caching.PythonReadCacheImpl;
 import org.sonar.python.caching.PythonWriteCacheImpl;
+import org.sonar.python.semantic.ProjectLevelSymbolTable.ModuleSymbols;
+import org.sonar.python.semantic.SymbolUtils;
 import org.sonarsource.api.sonarlint.SonarLintSide;
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileEvent;
 import org.sonarsource.sonarlint.plugin.api.module.file.ModuleFileListener;
@@ -54,6 +59,10 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
   private boolean shouldBuildProjectSymbolTable = true;
   private static final long DEFAULT_MAX_LINES_FOR_INDEXING = 300_000;
   private static final String MAX_LINES_PROPERTY = "sonar.python.sonarlint.indexing.maxlines";
+  // When enabled, the project symbol table is persisted in the working directory and reused by the next sessions
+  static final String PERSISTENT_INDEX_PROPERTY = "sonar.python.sonarlint.indexing.persistent";
+  @Nullable
+  private ProjectIndexStore projectIndexStore;
 
   public SonarLintPythonIndexer(ModuleFileSystem moduleFileSystem) {
     this.moduleFileSystem = moduleFileSystem;
@@ -68,8 +77,14 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
     shouldBuildProjectSymbolTable = false;
     List<PythonInputFile> files = getInputFiles(moduleFileSystem);
     collectPackageNames(files);
-    long nLines = files.stream().map(PythonInputFile::wrappedFile).map(InputFile::lines).mapToLong(Integer::longValue).sum();
     long maxLinesForIndexing = context.config().getLong(MAX_LINES_PROPERTY).orElse(DEFAULT_MAX_LINES_FOR_INDEXING);
+    if (context.config().getBoolean(PERSISTENT_INDEX_PROPERTY).orElse(false)) {
+      Path indexDirectory = ProjectIndexStore.moduleDirectory(context.fileSystem().workDir().toPath(), projectBaseDirAbsolutePath);
+      projectIndexStore = new ProjectIndexStore(indexDirectory, pluginVersion());
+      buildFromProjectIndex(files, maxLinesForIndexing, context);
+      return;
+    }
+    long nLines = files.stream().map(PythonInputFile::wrappedFile).map(InputFile::lines).mapToLong(Integer::longValue).sum();
     if (nLines > maxLinesForIndexing) {
       // Avoid performance issues for large projects
       LOG.debug("Project symbol table deactivated due to project size (total number of lines is {}, maximum for indexing is {})", nLines, maxLinesForIndexing);
@@ -82,6 +97,58 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
     globalSymbolsStep.execute(files, context);
   }
 
+  /**
+   * Modules which are up to date in the persistent project index are loaded from it, one entry per file, without being parsed.
+   * The maximum number of lines for indexing only applies to the remaining files: when they exceed it, only part of them is parsed,
+   * and the others are indexed in the next sessions.
+   */
+  private void buildFromProjectIndex(List<PythonInputFile> files, long maxLinesForIndexing, SensorContext context) {
+    ProjectIndexStore store = Objects.requireNonNull(projectIndexStore);
+    store.retainOnly(files.stream().map(file -> file.wrappedFile().uri()).toList());
+    List<PythonInputFile> filesToParse = new ArrayList<>();
+    long nLinesToParse = 0;
+    int nLoadedFiles = 0;
+    int nDeferredFiles = 0;
+    for (PythonInputFile file : files) {
+      if (file.kind() != PythonInputFile.Kind.PYTHON) {
+        continue;
+      }
+      if (loadFromProjectIndex(store, file)) {
+        nLoadedFiles++;
+        continue;
+      }
+      long nLines = file.wrappedFile().lines();
+      if (nLinesToParse + nLines > maxLinesForIndexing) {
+        nDeferredFiles++;
+      } else {
+        nLinesToParse += nLines;
+        filesToParse.add(file);
+      }
+    }
+    LOG.debug("Project index: {} modules loaded, {} modules to index", nLoadedFiles, filesToParse.size());
+    if (nDeferredFiles > 0) {
+      LOG.debug("Indexing of {} modules deferred to the next sessions due to project size (maximum for indexing is {} lines)", nDeferredFiles, maxLinesForIndexing);
+    }
+    GlobalSymbolsScanner globalSymbolsStep = new GlobalSymbolsScanner(context);
+    globalSymbolsStep.execute(filesToParse, context);
+  }
+
+  private boolean loadFromProjectIndex(ProjectIndexStore store, PythonInputFile file) {
+    try {
+      String packageName = packageName(file);
+      InputFile inputFile = file.wrappedFile();
+      ModuleSymbols moduleSymbols = store.read(inputFile.uri(), FileStamp.of(inputFile.path()), () -> ProjectIndexStore.contentHash(inputFile.contents()));
+      String fullyQualifiedModuleName = SymbolUtils.fullyQualifiedModuleName(packageName, file.wrappedFile().filename());
+      if (moduleSymbols == null || !moduleSymbols.fullyQualifiedModuleName().equals(fullyQualifiedModuleName)) {
+        return false;
+      }
+      registerIndexedModule(new IndexedModule(file, packageName, moduleSymbols));
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
   // SonarLintCache has to be set lazily because SonarLintPythonIndex is injected in the PythonSensor
   @Override
   public void setSonarLintCache(@Nullable SonarLintCache sonarLintCache) {
@@ -104,6 +171,11 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
     return cacheContext != null ? cacheContext : CacheContextImpl.dummyCache();
   }
 
+  private static String pluginVersion() {
+    String implementationVersion = SonarLintPythonIndexer.class.getPackage().getImplementationVersion();
+    return implementationVersion == null ? "unknownPluginVersion" : implementationVersion;
+  }
+
   private static List<PythonInputFile> getInputFiles(ModuleFileSystem moduleFileSystem) {
     List<PythonInputFile> files = new ArrayList<>();
     moduleFileSystem.files(Python.KEY, InputFile.Type.MAIN).map(PythonInputFileImpl::new).forEach(files::add);
@@ -111,15 +183,34 @@ public class SonarLintPythonIndexer extends PythonIndexer implements ModuleFileL
   }
 
   @Override
-  void addFile(PythonInputFile inputFile) throws IOException {
-    super.addFile(inputFile);
-    indexedFiles.put(inputFile.wrappedFile().absolutePath(), inputFile.wrappedFile());
+  void addIndexedModule(IndexedModule indexedModule) {
+    registerIndexedModule(indexedModule);
+    if (projectIndexStore != null) {
+      InputFile inputFile = indexedModule.inputFile().wrappedFile();
+      try {
+        // contents may be an unsaved editor buffer
+        String contents = inputFile.contents();
+        FileStamp stamp = FileStamp.ofSavedContents(inputFile.path(), contents, inputFile.charset());
+        projectIndexStore.write(inputFile.uri(), stamp, ProjectIndexStore.contentHash(contents), indexedModule.moduleSymbols());
+      } catch (IOException e) {
+        LOG.debug("Failed to add \"{}\" to the project index", inputFile.filename());
+      }
+    }
+  }
+
+  private void registerIndexedModule(IndexedModule indexedModule) {
+    super.addIndexedModule(indexedModule);
+    InputFile inputFile = indexedModule.inputFile().wrappedFile();
+    indexedFiles.put(inputFile.absolutePath(), inputFile);
   }
 
   @Override
   void removeFile(PythonInputFile inputFile) {
     super.removeFile(inputFile);
     indexedFiles.remove(inputFile.wrappedFile().absolutePath());
+    if (projectIndexStore != null) {
+      projectIndexStore.remove(inputFile.wrappedFile().uri());
+    }
   }
 
   @Override
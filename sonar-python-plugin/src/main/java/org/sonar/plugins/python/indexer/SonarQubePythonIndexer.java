@@ -36,7 +36,9 @@ import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.plugins.python.PythonInputFile;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.caching.Caching;
+import org.sonar.plugins.python.caching.ModuleRecord;
 import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.DescriptorFingerprint;
 import org.sonar.python.semantic.DependencyGraph;
 import org.sonar.python.semantic.SymbolUtils;
 import org.sonar.python.types.TypeShed;
@@ -57,6 +59,7 @@ public class SonarQubePythonIndexer extends PythonIndexer {
   private final Caching caching;
   private final Set<PythonInputFile> fullySkippableFiles = new HashSet<>();
   private final Set<PythonInputFile> partiallySkippableFiles = new HashSet<>();
+  private final Set<PythonInputFile> filesWithUnchangedDependencies = new HashSet<>();
   private final List<PythonInputFile> inputFiles = new ArrayList<>();
   private final Map<PythonInputFile, String> inputFileToFQN = new HashMap<>();
 
@@ -82,6 +85,11 @@ public class SonarQubePythonIndexer extends PythonIndexer {
     duration.stop();
   }
 
+  @Override
+  protected boolean shouldRetainParseResults() {
+    return true;
+  }
+
   private boolean shouldOptimizeAnalysis(SensorContext context) {
     return caching.isCacheEnabled()
       && (context.canSkipUnchangedFiles() || context.config().getBoolean(SONAR_CAN_SKIP_UNCHANGED_FILES_KEY).orElse(false))
@@ -111,17 +119,31 @@ public class SonarQubePythonIndexer extends PythonIndexer {
       }
     }
     // Impacted modules are computed from both modified files and deleted ones.
-    Set<String> impactedModulesFQN = DependencyGraph.from(importsByModule, allProjectFilesFQNs).impactedModules(impactfulModulesFQNs);
-    inputFiles.stream().filter(f -> !impactedModulesFQN.contains(inputFileToFQN.get(f))).forEach(fullySkippableFiles::add);
+    DependencyGraph dependencyGraph = DependencyGraph.from(importsByModule, allProjectFilesFQNs);
+    Set<String> impactedModulesFQN = dependencyGraph.impactedModules(impactfulModulesFQNs);
+    inputFiles.stream().filter(f -> !impactedModulesFQN.contains(inputFileToFQN.get(f))).forEach(filesWithUnchangedDependencies::add);
     LOG.info(
       "Cached information of global symbols will be used for {} out of {} main files. Global symbols will be recomputed for the remaining files.",
       inputFiles.size() - impactfulFiles.size(),
       inputFiles.size());
-    LOG.info("Fully optimized analysis can be performed for {} out of {} files.", fullySkippableFiles.size(), inputFiles.size());
-    LOG.info("Partially optimized analysis can be performed for {} out of {} files.", partiallySkippableFiles.size(), inputFiles.size());
     // Although we need to analyze all impacted files, we only need to recompute global symbols for modified files (no cross-file dependencies
     // in the project symbol table)
     computeGlobalSymbols(impactfulFiles, context);
+    // Dependents of a modified module only need to be re-analyzed when the API exported by this module changed.
+    List<String> apiImpactfulModulesFQNs = new ArrayList<>(deletedModulesFQNs);
+    impactfulFiles.stream().filter(this::hasApiChanged).map(inputFileToFQN::get).forEach(apiImpactfulModulesFQNs::add);
+    Set<String> apiImpactedModulesFQN = dependencyGraph.impactedModules(apiImpactfulModulesFQNs);
+    partiallySkippableFiles.stream().filter(f -> !apiImpactedModulesFQN.contains(inputFileToFQN.get(f))).forEach(fullySkippableFiles::add);
+    LOG.info("Fully optimized analysis can be performed for {} out of {} files.", fullySkippableFiles.size(), inputFiles.size());
+    LOG.info("Partially optimized analysis can be performed for {} out of {} files.", partiallySkippableFiles.size(), inputFiles.size());
+    LOG.info("{} out of {} files only depend on modified modules whose API is unchanged.",
+      fullySkippableFiles.size() - filesWithUnchangedDependencies.size(), inputFiles.size());
+  }
+
+  private boolean hasApiChanged(PythonInputFile inputFile) {
+    Set<Descriptor> descriptors = projectLevelSymbolTable().descriptorsForModule(inputFileToFQN.get(inputFile));
+    ModuleRecord previousRecord = caching.readModuleRecord(inputFile.wrappedFile().key());
+    return descriptors == null || previousRecord == null || !MessageDigest.isEqual(previousRecord.apiFingerprint(), DescriptorFingerprint.of(descriptors));
   }
 
   /*
@@ -136,37 +158,20 @@ public class SonarQubePythonIndexer extends PythonIndexer {
   }
 
   private boolean tryToUseCache(Map<String, Set<String>> importsByModule, PythonInputFile inputFile, String currFQN) {
-    if (!fileIsUnchanged(inputFile)) {
-      return false;
-    }
-
-    Set<String> imports = caching.readImportMapEntry(inputFile.wrappedFile().key());
-    if (imports != null) {
-      importsByModule.put(currFQN, imports);
-    }
-    Set<Descriptor> descriptors = caching.readProjectLevelSymbolTableEntry(inputFile.wrappedFile().key());
-    if (descriptors != null && imports != null) {
-      saveRetrievedDescriptors(inputFile.wrappedFile().key(), descriptors, caching);
-      return true;
-    }
-
-    return false;
-  }
-
-  private boolean fileIsUnchanged(PythonInputFile inputFile) {
     if (!inputFile.wrappedFile().status().equals(InputFile.Status.SAME)) {
       return false;
     }
-    byte[] fileHash = caching.readFileContentHash(inputFile.wrappedFile().key());
+    String fileKey = inputFile.wrappedFile().key();
+    ModuleRecord moduleRecord = caching.readModuleRecord(fileKey);
     // InputFile.Status is not reliable in some cases
     // We use the hash of the file's content to double-check the content is the same.
-    var fileInputHash = inputFile.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8);
-    return MessageDigest.isEqual(fileHash, fileInputHash);
-  }
-
-  private void saveRetrievedDescriptors(String fileKey, Set<Descriptor> descriptors, Caching caching) {
-    projectLevelSymbolTable().insertEntry(fileKey, descriptors);
+    if (moduleRecord == null || !MessageDigest.isEqual(moduleRecord.contentHash(), contentHash(inputFile))) {
+      return false;
+    }
+    importsByModule.put(currFQN, moduleRecord.imports());
+    projectLevelSymbolTable().insertEntry(fileKey, moduleRecord.descriptors());
     caching.copyFromPrevious(fileKey);
+    return true;
   }
 
   public void computeGlobalSymbols(List<PythonInputFile> files, SensorContext context) {
@@ -191,17 +196,14 @@ public class SonarQubePythonIndexer extends PythonIndexer {
       if (descriptors != null && imports != null) {
         // Descriptors/imports map may be null if the file failed to parse.
         // We don't try to save information in the cache in that case.
-        writeContentHashToCache(inputFile);
-
-        caching.writeProjectLevelSymbolTableEntry(inputFile.wrappedFile().key(), descriptors);
-        caching.writeImportsMapEntry(inputFile.wrappedFile().key(), imports);
+        ModuleRecord moduleRecord = new ModuleRecord(contentHash(inputFile), DescriptorFingerprint.of(descriptors), imports, descriptors);
+        caching.writeModuleRecord(inputFile.wrappedFile().key(), moduleRecord);
       }
     }
   }
 
-  private void writeContentHashToCache(PythonInputFile inputFile) {
-    var contentHash = inputFile.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8);
-    caching.writeFileContentHash(inputFile.wrappedFile().key(), contentHash);
+  private static byte[] contentHash(PythonInputFile inputFile) {
+    return inputFile.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8);
   }
 
   private Set<String> deletedModulesFQNs(Set<String> projectModulesFQNs) {
@@ -224,6 +226,11 @@ public class SonarQubePythonIndexer extends PythonIndexer {
     return fullySkippableFiles.contains(inputFile);
   }
 
+  @Override
+  public boolean hasUnchangedDependencies(PythonInputFile inputFile) {
+    return filesWithUnchangedDependencies.contains(inputFile);
+  }
+
   @Override
   public CacheContext cacheContext() {
     return caching.cacheContext();
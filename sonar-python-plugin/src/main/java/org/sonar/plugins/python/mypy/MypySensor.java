@@ -34,6 +34,7 @@ import org.sonar.api.config.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.ExternalIssuesSensor;
+import org.sonar.plugins.python.ReportPathResolver;
 import org.sonar.plugins.python.TextReportReader;
 
 public class MypySensor extends ExternalIssuesSensor {
@@ -52,9 +53,10 @@ public class MypySensor extends ExternalIssuesSensor {
     Pattern.compile("^(?<file>[^:]+):(?<startLine>\\d+)(?::(?<startCol>\\d+))?(?::\\d+:\\d+)?: (?<severity>\\S+[^:]): (?<message>.*?)(?: \\[(?<code>.*)])?\\s*$");
 
   @Override
-  protected void importReport(File reportPath, SensorContext context, Set<String> unresolvedInputFiles) throws IOException {
+  protected void importReport(File reportPath, SensorContext context, ReportPathResolver pathResolver, Set<String> unresolvedInputFiles)
+    throws IOException {
     List<TextReportReader.Issue> issues = parse(reportPath, context.fileSystem());
-    issues.forEach(i -> saveIssue(context, i, unresolvedInputFiles, LINTER_KEY));
+    issues.forEach(i -> saveIssue(context, pathResolver, i, unresolvedInputFiles, LINTER_KEY));
   }
 
   private static List<TextReportReader.Issue> parse(File report, FileSystem fileSystem) throws IOException {
@@ -19,25 +19,26 @@
  */
 package org.sonar.plugins.python.ruff;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
-
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.function.Consumer;
-import java.util.stream.Stream;
-
+import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
-import org.sonarsource.analyzer.commons.internal.json.simple.JSONArray;
-import org.sonarsource.analyzer.commons.internal.json.simple.JSONObject;
-import org.sonarsource.analyzer.commons.internal.json.simple.parser.JSONParser;
-import org.sonarsource.analyzer.commons.internal.json.simple.parser.ParseException;
-
+/**
+ * Streams the issues of a Ruff JSON report: only the issue being read is kept in memory, whatever the size of the report.
+ * Issues are passed to the consumer as soon as they are read: when the report is invalid further on (e.g. truncated), the issues
+ * read before are consumed nonetheless, before the exception is thrown.
+ */
 public class RuffJsonReportReader {
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
   private final Consumer<Issue> consumer;
-  private final JSONParser jsonParser;
 
   public static class Issue {
     @Nullable
@@ -56,42 +57,87 @@ public class RuffJsonReportReader {
     Integer endLocationCol;
   }
 
+  private record Location(@Nullable Integer row, @Nullable Integer column) {
+  }
+
   private RuffJsonReportReader(Consumer<Issue> consumer) {
     this.consumer = consumer;
-    this.jsonParser = new JSONParser();
   }
 
-  static void read(InputStream in, Consumer<Issue> consumer) throws IOException, ParseException {
+  public static void read(InputStream in, Consumer<Issue> consumer) throws IOException {
     new RuffJsonReportReader(consumer).read(in);
   }
 
-  private void read(InputStream in) throws IOException, ParseException {
-    JSONArray files = (JSONArray) jsonParser.parse(new InputStreamReader(in, UTF_8));
-    if (files != null) {
-      ((Stream<JSONObject>) files.stream()).forEach(this::onResult);
+  private void read(InputStream in) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+      JsonToken rootToken = parser.nextToken();
+      if (rootToken == JsonToken.VALUE_NULL) {
+        return;
+      }
+      if (rootToken != JsonToken.START_ARRAY) {
+        throw new JsonParseException(parser, "Expected an array at the root of the Ruff report");
+      }
+      JsonToken token;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        if (token != JsonToken.START_OBJECT) {
+          throw new JsonParseException(parser, "Expected an object for each Ruff issue");
+        }
+        onResult(parser);
+      }
     }
   }
 
-  private void onResult(JSONObject result) {
+  private void onResult(JsonParser parser) throws IOException {
     RuffJsonReportReader.Issue issue = new RuffJsonReportReader.Issue();
-    issue.ruleKey = (String) result.get("code");
-    issue.filePath = (String) result.get("filename");
-    issue.message = (String) result.get("message");
-    JSONObject location = (JSONObject) result.get("location");
-    issue.startLocationCol = toInteger(location.get("column"));
-    issue.startLocationRow = toInteger(location.get("row"));
-    JSONObject endLocation = (JSONObject) result.get("end_location");
-    issue.endLocationRow = toInteger(endLocation.get("row"));
-    issue.endLocationCol = correctEndLocationCol(endLocation.get("column"), issue.startLocationCol, issue.startLocationRow, issue.endLocationRow);
+    Location location = null;
+    Location endLocation = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.currentName();
+      parser.nextToken();
+      switch (fieldName) {
+        case "code" -> issue.ruleKey = toText(parser);
+        case "filename" -> issue.filePath = toText(parser);
+        case "message" -> issue.message = toText(parser);
+        case "location" -> location = toLocation(parser);
+        case "end_location" -> endLocation = toLocation(parser);
+        default -> parser.skipChildren();
+      }
+    }
+    if (location == null || endLocation == null) {
+      throw new JsonParseException(parser, "Missing location of a Ruff issue");
+    }
+    issue.startLocationCol = location.column();
+    issue.startLocationRow = location.row();
+    issue.endLocationRow = endLocation.row();
+    issue.endLocationCol = correctEndLocationCol(endLocation.column(), issue.startLocationCol, issue.startLocationRow, issue.endLocationRow);
     consumer.accept(issue);
   }
 
+  @CheckForNull
+  private static Location toLocation(JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return null;
+    }
+    Integer row = null;
+    Integer column = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.currentName();
+      parser.nextToken();
+      switch (fieldName) {
+        case "row" -> row = toInteger(parser);
+        case "column" -> column = toInteger(parser);
+        default -> parser.skipChildren();
+      }
+    }
+    return new Location(row, column);
+  }
+
   /*
     Ruff returns the col number of the last char + 1.
     In order to properly read the col number we need to return the col number of the last char.
    */
-  private static Integer correctEndLocationCol(Object value, int startLocationCol, int startLocationRow, int endLocationRow) {
-    Integer endLocationCol = toInteger(value);
+  private static Integer correctEndLocationCol(@Nullable Integer endLocationCol, int startLocationCol, int startLocationRow, int endLocationRow) {
     if (endLocationCol != null) {
       if (endLocationRow == startLocationRow && endLocationCol <= startLocationCol) {
         return startLocationCol;
@@ -102,10 +148,21 @@ public class RuffJsonReportReader {
     return null;
   }
 
-  private static Integer toInteger(Object value) {
-    if (value instanceof Number number) {
-      return number.intValue();
+  @CheckForNull
+  private static String toText(JsonParser parser) throws IOException {
+    if (parser.currentToken() == JsonToken.VALUE_STRING) {
+      return parser.getText();
+    }
+    parser.skipChildren();
+    return null;
+  }
+
+  @CheckForNull
+  private static Integer toInteger(JsonParser parser) throws IOException {
+    if (parser.currentToken().isNumeric()) {
+      return parser.getNumberValue().intValue();
     }
+    parser.skipChildren();
     return null;
   }
 
@@ -24,6 +24,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.api.batch.fs.InputFile;
@@ -34,7 +35,7 @@ import org.sonar.api.batch.sensor.issue.NewIssueLocation;
 import org.sonar.api.config.Configuration;
 import org.sonar.api.rules.RuleType;
 import org.sonar.plugins.python.ExternalIssuesSensor;
-import org.sonarsource.analyzer.commons.internal.json.simple.parser.ParseException;
+import org.sonar.plugins.python.ReportPathResolver;
 
 import static org.apache.commons.lang.StringUtils.isEmpty;
 
@@ -69,14 +70,24 @@ public class RuffSensor extends ExternalIssuesSensor {
   }
 
   @Override
-  protected void importReport(File reportPath, SensorContext context, Set<String> unresolvedInputFiles)
-    throws IOException, ParseException {
-    InputStream in = new FileInputStream(reportPath);
-    LOG.info("Importing {}", reportPath);
-    RuffJsonReportReader.read(in, issue -> saveIssue(context, issue, unresolvedInputFiles));
+  protected void importReport(File reportPath, SensorContext context, ReportPathResolver pathResolver, Set<String> unresolvedInputFiles)
+    throws IOException {
+    AtomicInteger nReadIssues = new AtomicInteger();
+    try (InputStream in = new FileInputStream(reportPath)) {
+      LOG.info("Importing {}", reportPath);
+      RuffJsonReportReader.read(in, issue -> {
+        nReadIssues.incrementAndGet();
+        saveIssue(context, pathResolver, issue, unresolvedInputFiles);
+      });
+    } catch (IOException | RuntimeException e) {
+      if (nReadIssues.get() == 0) {
+        throw e;
+      }
+      logReportPartiallyRead(e, reportPath, nReadIssues.get());
+    }
   }
 
-  private static void saveIssue(SensorContext context, RuffJsonReportReader.Issue issue,
+  private static void saveIssue(SensorContext context, ReportPathResolver pathResolver, RuffJsonReportReader.Issue issue,
     Set<String> unresolvedInputFiles) {
     if (isEmpty(issue.ruleKey) || isEmpty(issue.filePath) || isEmpty(issue.message)) {
       LOG.debug("Missing information for ruleKey:'{}', filePath:'{}', message:'{}'", issue.ruleKey, issue.filePath,
@@ -84,7 +95,7 @@ public class RuffSensor extends ExternalIssuesSensor {
       return;
     }
 
-    InputFile inputFile = context.fileSystem().inputFile(context.fileSystem().predicates().hasPath(issue.filePath));
+    InputFile inputFile = pathResolver.inputFile(issue.filePath);
     if (inputFile == null) {
       unresolvedInputFiles.add(issue.filePath);
       return;
@@ -37,6 +37,7 @@ import org.sonar.api.measures.CoreMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sonar.plugins.python.PythonReportSensor;
+import org.sonar.plugins.python.ReportPathResolver;
 import org.sonar.plugins.python.parser.StaxParser;
 import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
 
@@ -94,6 +95,7 @@ public class PythonXUnitSensor extends PythonReportSensor {
   }
 
   private void detailedMode(final SensorContext context, List<File> reports) throws XMLStreamException {
+    ReportPathResolver pathResolver = new ReportPathResolver(fileSystem);
     for (File report : reports) {
       TestSuiteParser parserHandler = new TestSuiteParser();
       StaxParser parser = new StaxParser(parserHandler);
@@ -101,12 +103,12 @@ public class PythonXUnitSensor extends PythonReportSensor {
 
       LOG.info("Processing report '{}'", report);
 
-      processReportDetailed(context, parserHandler.getParsedReports());
+      processReportDetailed(context, pathResolver, parserHandler.getParsedReports());
     }
   }
 
-  private void processReportDetailed(SensorContext context, Collection<TestSuite> parsedReports) {
-    Map<InputFile, TestResult> locatedResources = lookupResources(parsedReports);
+  private static void processReportDetailed(SensorContext context, ReportPathResolver pathResolver, Collection<TestSuite> parsedReports) {
+    Map<InputFile, TestResult> locatedResources = lookupResources(pathResolver, parsedReports);
     for (Map.Entry<InputFile, TestResult> entry : locatedResources.entrySet()) {
       InputFile inputFile = entry.getKey();
       TestResult fileTestResult = entry.getValue();
@@ -121,47 +123,47 @@ public class PythonXUnitSensor extends PythonReportSensor {
   }
 
   @CheckForNull
-  private InputFile findResource(TestCase testCase, String fileKey) {
+  private static InputFile findResource(ReportPathResolver pathResolver, TestCase testCase, String fileKey) {
     InputFile unitTestFile = null;
 
     if (testCase.getFile() != null) {
-      unitTestFile = getSonarTestFile(new File(testCase.getFile()));
+      unitTestFile = getSonarTestFile(pathResolver, new File(testCase.getFile()));
     }
 
     if (unitTestFile == null) {
       String testClassname = testCase.getTestClassname();
       String key = testClassname != null ? testClassname : fileKey;
-      return findResourceUsingNoseTestsStrategy(key);
+      return findResourceUsingNoseTestsStrategy(pathResolver, key);
     }
 
     return unitTestFile;
   }
 
-  private InputFile findResourceUsingNoseTestsStrategy(String fileKey) {
+  private static InputFile findResourceUsingNoseTestsStrategy(ReportPathResolver pathResolver, String fileKey) {
     // a) check assuming the key doesnt contain the class name
     String candidateKey = StringUtils.replace(fileKey, ".", "/") + ".py";
 
-    InputFile unitTestFile = getSonarTestFile(new File(candidateKey));
+    InputFile unitTestFile = getSonarTestFile(pathResolver, new File(candidateKey));
 
     if (unitTestFile == null) {
       // b) check assuming the key *does* contain the class name
       String candidateKey2 = StringUtils.replace(StringUtils.substringBeforeLast(fileKey, "."), ".", "/") + ".py";
       if ( !(candidateKey2.equals(candidateKey))) {
-        unitTestFile = getSonarTestFile(new File(candidateKey2));
+        unitTestFile = getSonarTestFile(pathResolver, new File(candidateKey2));
       }
     }
 
     return unitTestFile;
   }
 
-  private Map<InputFile, TestResult> lookupResources(Collection<TestSuite> testReports) {
+  private static Map<InputFile, TestResult> lookupResources(ReportPathResolver pathResolver, Collection<TestSuite> testReports) {
     Map<InputFile, TestResult> testResultsByFile = new HashMap<>();
 
     for (TestSuite testSuite : testReports) {
       testSuite.getTestCases().forEach(testCase -> {
         String testClassname = testCase.getTestClassname();
         LOG.debug("Trying to find a SonarQube resource for test case '{}'", testClassname);
-        InputFile inputFile = findResource(testCase, testSuite.getKey());
+        InputFile inputFile = findResource(pathResolver, testCase, testSuite.getKey());
         if (inputFile != null) {
           LOG.debug("The resource was found '{}'", inputFile);
           testResultsByFile.computeIfAbsent(inputFile, k -> new TestResult()).addTestCase(testCase);
@@ -175,12 +177,9 @@ public class PythonXUnitSensor extends PythonReportSensor {
   }
 
   @CheckForNull
-  private InputFile getSonarTestFile(File file) {
+  private static InputFile getSonarTestFile(ReportPathResolver pathResolver, File file) {
     LOG.debug("Using the key '{}' to lookup the resource in SonarQube", file.getPath());
-    var predicate = file.isAbsolute() ? fileSystem.predicates().hasAbsolutePath(file.getAbsolutePath())
-      : fileSystem.predicates().hasRelativePath(file.getPath());
-
-    return fileSystem.inputFile(predicate);
+    return pathResolver.inputFile(file.isAbsolute() ? file.getAbsolutePath() : file.getPath());
   }
 
   private static void saveMeasure(SensorContext context, InputComponent component, Metric<Integer> metric, int value) {
@@ -88,7 +88,7 @@ import org.sonar.plugins.python.api.SonarLintCache;
 import org.sonar.plugins.python.api.caching.CacheContext;
 import org.sonar.plugins.python.api.internal.EndOfAnalysis;
 import org.sonar.plugins.python.api.tree.Token;
-import org.sonar.plugins.python.caching.Caching;
+import org.sonar.plugins.python.caching.ModuleRecord;
 import org.sonar.plugins.python.caching.TestReadCache;
 import org.sonar.plugins.python.caching.TestWriteCache;
 import org.sonar.plugins.python.indexer.PythonIndexer;
@@ -98,6 +98,8 @@ import org.sonar.plugins.python.warnings.AnalysisWarningsWrapper;
 import org.sonar.python.api.PythonKeyword;
 import org.sonar.python.caching.CpdSerializer;
 import org.sonar.python.checks.CheckList;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.DescriptorFingerprint;
 import org.sonar.python.index.VariableDescriptor;
 import org.sonar.python.tree.TokenImpl;
 import org.sonar.python.types.TypeShed;
@@ -115,14 +117,8 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.sonar.plugins.python.caching.Caching.CACHE_VERSION_KEY;
-import static org.sonar.plugins.python.caching.Caching.CPD_TOKENS_CACHE_KEY_PREFIX;
-import static org.sonar.plugins.python.caching.Caching.CPD_TOKENS_STRING_TABLE_KEY_PREFIX;
-import static org.sonar.plugins.python.caching.Caching.IMPORTS_MAP_CACHE_KEY_PREFIX;
-import static org.sonar.plugins.python.caching.Caching.PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX;
-import static org.sonar.plugins.python.caching.Caching.fileContentHashCacheKey;
-import static org.sonar.plugins.python.caching.Caching.importsMapCacheKey;
-import static org.sonar.plugins.python.caching.Caching.projectSymbolTableCacheKey;
-import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
+import static org.sonar.plugins.python.caching.Caching.cpdTokensCacheKey;
+import static org.sonar.plugins.python.caching.Caching.moduleRecordCacheKey;
 
 class PythonSensorTest {
 
@@ -398,10 +394,102 @@ class PythonSensorTest {
     assertThat(logTester.logs(Level.INFO)).contains("Starting global symbols computation");
     assertThat(logTester.logs(Level.INFO)).contains("Starting rules execution");
     assertThat(logTester.logs(Level.INFO).stream().filter(line -> line.equals("1 source file to be analyzed")).count()).isEqualTo(2);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Reused 1 ASTs computed while indexing, 0 files had to be parsed again");
 
     assertThat(PythonScanner.getWorkingDirectory(context)).isEqualTo(workDir.toFile());
   }
 
+  @Test
+  void test_issues_with_concurrent_analysis() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, FILE_COMPLEXITY_RULE_KEY))
+        .setParam("maximumFileComplexityThreshold", "2")
+        .build())
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CUSTOM_REPOSITORY_KEY, CUSTOM_RULE_KEY))
+        .build())
+      .build();
+
+    PythonInputFile inputFile1 = inputFile(FILE_1);
+    PythonInputFile inputFile2 = inputFile(FILE_2);
+    inputFile("parse_error.py");
+    context.setSettings(new MapSettings().setProperty("sonar.python.analysis.threads", 3));
+    sensor().execute(context);
+
+    assertThat(context.allIssues())
+      .filteredOn(issue -> issue.primaryLocation().inputComponent().equals(inputFile2.wrappedFile()))
+      .extracting(issue -> issue.ruleKey().rule())
+      .containsExactlyInAnyOrder(ONE_STATEMENT_PER_LINE_RULE_KEY, FILE_COMPLEXITY_RULE_KEY);
+    assertThat(context.measure(inputFile1.wrappedFile().key(), CoreMetrics.NCLOC)).isNotNull();
+    assertThat(context.measure(inputFile2.wrappedFile().key(), CoreMetrics.NCLOC)).isNotNull();
+    assertThat(context.allAnalysisErrors()).hasSize(1);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Running rules execution on 3 threads");
+    assertThat(traceLogTester.logs(Level.TRACE)).contains("End of analysis called!");
+  }
+
+  @Test
+  void test_failFast_triggered_with_concurrent_analysis() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, "S5905"))
+        .build())
+      .build();
+
+    inputFile(FILE_1);
+    inputFile(FILE_INVALID_SYNTAX, Type.MAIN);
+    context.setSettings(new MapSettings()
+      .setProperty("sonar.internal.analysis.failFast", true)
+      .setProperty("sonar.python.analysis.threads", 2));
+    PythonSensor sensor = sensor();
+    assertThatThrownBy(() -> sensor.execute(context)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void cancelled_concurrent_analysis() {
+    PythonInputFile inputFile = inputFile(FILE_1);
+    activeRules = (new ActiveRulesBuilder()).build();
+    context.setSettings(new MapSettings().setProperty("sonar.python.analysis.threads", 2));
+    context.setCancelled(true);
+    sensor(null, null, analysisWarning).execute(context);
+    assertThat(context.measure(inputFile.wrappedFile().key(), CoreMetrics.NCLOC)).isNull();
+  }
+
+  @Test
+  void analysis_statistics() throws IOException {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .build();
+
+    inputFile(FILE_1);
+    inputFile(FILE_2);
+    context.setSettings(new MapSettings().setProperty(PythonSensor.ANALYSIS_STATISTICS_PROPERTY, true));
+    sensor().execute(context);
+
+    Path report = workDir.resolve("sonar-python-analysis-statistics.json");
+    assertThat(report).exists();
+    String content = Files.readString(report);
+    assertThat(content)
+      .contains("\"allocatedBytesSupported\"")
+      .contains("\"parse\"", "\"tree\"", "\"symbols\"")
+      .contains("\"rule\" : \"OneStatementPerLine\"")
+      .contains("\"FILE_INPUT\"");
+    assertThat(logTester.logs(Level.INFO)).contains("Python analysis statistics written to " + report);
+  }
+
+  @Test
+  void no_analysis_statistics_by_default() {
+    activeRules = new ActiveRulesBuilder().build();
+    inputFile(FILE_1);
+    sensor().execute(context);
+    assertThat(workDir.resolve("sonar-python-analysis-statistics.json")).doesNotExist();
+  }
+
   @Test
   void cross_files_secondary_locations() {
     activeRules = new ActiveRulesBuilder()
@@ -844,13 +932,9 @@ class PythonSensorTest {
     TestWriteCache writeCache = new TestWriteCache();
     writeCache.bind(readCache);
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
     CpdSerializer.SerializationResult cpdTokens = CpdSerializer.serialize(Collections.emptyList());
-    readCache.put(importsMapCacheKey(inputFile.wrappedFile().key()), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey(inputFile.wrappedFile().key()), serializedSymbolTable);
-    readCache.put(CPD_TOKENS_CACHE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.data);
-    readCache.put(CPD_TOKENS_STRING_TABLE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.stringTable);
-    readCache.put(fileContentHashCacheKey(inputFile.wrappedFile().key()), inputFile.wrappedFile().md5Hash().getBytes(UTF_8));
+    putModuleRecord(readCache, inputFile, Set.of(), Set.of(new VariableDescriptor("x", "main.x", null)));
+    readCache.put(cpdTokensCacheKey(inputFile.wrappedFile().key()), cpdTokens.toByteArray());
     context.setPreviousCache(readCache);
     context.setNextCache(writeCache);
     context.setCacheEnabled(true);
@@ -874,11 +958,8 @@ class PythonSensorTest {
       .build();
 
     PythonInputFile inputFile = inputFile(FILE_TEST_FILE, Type.TEST, InputFile.Status.SAME);
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("test_func", "test_file.test_func", null))).toByteArray();
     TestReadCache readCache = getValidReadCache();
-    readCache.put(fileContentHashCacheKey(inputFile.wrappedFile().key()), inputFile.wrappedFile().md5Hash().getBytes(UTF_8));
-    readCache.put(importsMapCacheKey(inputFile.wrappedFile().key()), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey(inputFile.wrappedFile().key()), serializedSymbolTable);
+    putModuleRecord(readCache, inputFile, Set.of(), Set.of(new VariableDescriptor("test_func", "test_file.test_func", null)));
     TestWriteCache writeCache = new TestWriteCache();
     writeCache.bind(readCache);
 
@@ -907,10 +988,7 @@ class PythonSensorTest {
     TestWriteCache writeCache = new TestWriteCache();
     writeCache.bind(readCache);
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    readCache.put(importsMapCacheKey(inputFile.wrappedFile().key()), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey(inputFile.wrappedFile().key()), serializedSymbolTable);
-    readCache.put(fileContentHashCacheKey(inputFile.wrappedFile().key()), inputFile.wrappedFile().md5Hash().getBytes(UTF_8));
+    putModuleRecord(readCache, inputFile, Set.of(), Set.of(new VariableDescriptor("x", "main.x", null)));
     context.setPreviousCache(readCache);
     context.setNextCache(writeCache);
     context.setCacheEnabled(true);
@@ -939,10 +1017,7 @@ class PythonSensorTest {
     TestWriteCache writeCache = new TestWriteCache();
     writeCache.bind(readCache);
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    readCache.put(importsMapCacheKey(inputFile2.wrappedFile().key()), String.join(";", List.of("file1.py")).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey(inputFile2.wrappedFile().key()), serializedSymbolTable);
-    readCache.put(fileContentHashCacheKey(inputFile2.wrappedFile().key()), inputFile2.wrappedFile().md5Hash().getBytes(UTF_8));
+    putModuleRecord(readCache, inputFile2, Set.of("file1.py"), Set.of(new VariableDescriptor("x", "main.x", null)));
     context.setPreviousCache(readCache);
     context.setNextCache(writeCache);
     context.setCacheEnabled(true);
@@ -954,6 +1029,65 @@ class PythonSensorTest {
       .contains("The Python analyzer was able to leverage cached data from previous analyses for 0 out of 2 files. These files were not parsed.");
   }
 
+  @Test
+  void test_partial_scan_without_parsing_built_in_check_requiring_reanalysis_on_dependency_change() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, "S930"))
+        .build())
+      .build();
+
+    inputFile(FILE_1, Type.MAIN, InputFile.Status.CHANGED);
+    PythonInputFile inputFile2 = inputFile(FILE_2, Type.MAIN, InputFile.Status.SAME);
+    TestReadCache readCache = getValidReadCache();
+    TestWriteCache writeCache = new TestWriteCache();
+    writeCache.bind(readCache);
+
+    CpdSerializer.SerializationResult cpdTokens = CpdSerializer.serialize(Collections.emptyList());
+    putModuleRecord(readCache, inputFile2, Set.of("file1.py"), Set.of(new VariableDescriptor("x", "main.x", null)));
+    readCache.put(cpdTokensCacheKey(inputFile2.wrappedFile().key()), cpdTokens.toByteArray());
+    context.setPreviousCache(readCache);
+    context.setNextCache(writeCache);
+    context.setCacheEnabled(true);
+    context.setSettings(new MapSettings().setProperty("sonar.python.skipUnchanged", true));
+    sensor().execute(context);
+
+    // S930 reports the definition of the called function, which may be located in the modified dependency
+    assertThat(logTester.logs(Level.INFO))
+      .contains("The Python analyzer was able to leverage cached data from previous analyses for 0 out of 2 files. These files were not parsed.");
+  }
+
+  @Test
+  void test_partial_scan_without_parsing_with_concurrent_analysis() {
+    activeRules = new ActiveRulesBuilder()
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CheckList.REPOSITORY_KEY, ONE_STATEMENT_PER_LINE_RULE_KEY))
+        .build())
+      .addRule(new NewActiveRule.Builder()
+        .setRuleKey(RuleKey.of(CUSTOM_REPOSITORY_KEY, CUSTOM_RULE_KEY))
+        .build())
+      .build();
+
+    inputFile(FILE_1, Type.MAIN, InputFile.Status.CHANGED);
+    PythonInputFile inputFile2 = inputFile(FILE_2, Type.MAIN, InputFile.Status.SAME);
+    TestReadCache readCache = getValidReadCache();
+    TestWriteCache writeCache = new TestWriteCache();
+    writeCache.bind(readCache);
+
+    putModuleRecord(readCache, inputFile2, Set.of("file1.py"), Set.of(new VariableDescriptor("x", "main.x", null)));
+    context.setPreviousCache(readCache);
+    context.setNextCache(writeCache);
+    context.setCacheEnabled(true);
+    context.setSettings(new MapSettings()
+      .setProperty("sonar.python.skipUnchanged", true)
+      .setProperty("sonar.python.analysis.threads", 2));
+    sensor().execute(context);
+
+    // the built-in check already executed without parsing is not executed again by the copies of the checks of the worker threads
+    assertThat(context.allIssues()).hasSize(2);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Running rules execution on 2 threads");
+  }
+
   @Test
   void cache_not_enabled_for_older_api_version() {
     SensorContextTester contextMock = spy(context);
@@ -974,9 +1108,6 @@ class PythonSensorTest {
     context.setCacheEnabled(true);
     context.setSettings(new MapSettings().setProperty("sonar.python.skipUnchanged", true));
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    readCache.put(IMPORTS_MAP_CACHE_KEY_PREFIX + "file2", String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX + "file2", serializedSymbolTable);
     sensor().execute(contextMock);
 
     assertThat(context.allIssues()).hasSize(1);
@@ -1002,13 +1133,11 @@ class PythonSensorTest {
     sensor().execute(context);
 
     assertThat(writeCache.getData().keySet()).containsExactlyInAnyOrder(
-      "python:cache_version", "python:files", "python:descriptors:moduleKey:pass.py", "python:imports:moduleKey:pass.py",
-      "python:cpd:data:moduleKey:pass.py", "python:cpd:stringTable:moduleKey:pass.py", "python:content_hashes:moduleKey:pass.py");
+      "python:cache_version", "python:files", "python:module:moduleKey:pass.py", "python:cpd:moduleKey:pass.py");
 
-    byte[] tokenData = writeCache.getData().get("python:cpd:data:moduleKey:pass.py");
-    byte[] stringTable = writeCache.getData().get("python:cpd:stringTable:moduleKey:pass.py");
+    byte[] tokens = writeCache.getData().get("python:cpd:moduleKey:pass.py");
 
-    List<CpdSerializer.TokenInfo> actualTokens = CpdSerializer.deserialize(tokenData, stringTable);
+    List<CpdSerializer.TokenInfo> actualTokens = CpdSerializer.deserialize(tokens);
     assertThat(actualTokens)
       .hasSize(1);
 
@@ -1030,7 +1159,7 @@ class PythonSensorTest {
     writeCache.bind(readCache);
 
     PythonInputFile inputFile = inputFile("pass.py", Type.MAIN, InputFile.Status.ADDED);
-    writeCache.write(CPD_TOKENS_CACHE_KEY_PREFIX + inputFile.wrappedFile().key(), "whatever".getBytes());
+    writeCache.write(cpdTokensCacheKey(inputFile.wrappedFile().key()), "whatever".getBytes());
 
     context.setPreviousCache(readCache);
     context.setNextCache(writeCache);
@@ -1039,7 +1168,7 @@ class PythonSensorTest {
     sensor().execute(context);
 
     assertThat(logTester.logs(Level.WARN))
-      .contains("Could not write CPD tokens to cache (IllegalArgumentException: Same key cannot be written to multiple times (python:cpd:data:moduleKey:pass.py))");
+      .contains("Could not write CPD tokens to cache (IllegalArgumentException: Same key cannot be written to multiple times (python:cpd:moduleKey:pass.py))");
   }
 
   @Test
@@ -1062,15 +1191,13 @@ class PythonSensorTest {
     context.setSettings(new MapSettings().setProperty("sonar.python.skipUnchanged", true));
     sensor().execute(context);
 
-    byte[] mainTokensData = writeCache.getData().get("python:cpd:data:moduleKey:main.py");
-    byte[] mainTokensTable = writeCache.getData().get("python:cpd:stringTable:moduleKey:main.py");
-    List<CpdSerializer.TokenInfo> actualTokensForMain = CpdSerializer.deserialize(mainTokensData, mainTokensTable);
+    byte[] mainTokens = writeCache.getData().get("python:cpd:moduleKey:main.py");
+    List<CpdSerializer.TokenInfo> actualTokensForMain = CpdSerializer.deserialize(mainTokens);
     assertThat(actualTokensForMain)
       .hasSize(14);
 
-    byte[] passTokensData = writeCache.getData().get("python:cpd:data:moduleKey:pass.py");
-    byte[] passTokensTable = writeCache.getData().get("python:cpd:stringTable:moduleKey:pass.py");
-    List<CpdSerializer.TokenInfo> actualTokensForPass = CpdSerializer.deserialize(passTokensData, passTokensTable);
+    byte[] passTokens = writeCache.getData().get("python:cpd:moduleKey:pass.py");
+    List<CpdSerializer.TokenInfo> actualTokensForPass = CpdSerializer.deserialize(passTokens);
     assertThat(actualTokensForPass)
       .hasSize(1);
   }
@@ -1089,12 +1216,8 @@ class PythonSensorTest {
 
     TestReadCache readCache = getValidReadCache();
     CpdSerializer.SerializationResult cpdTokens = CpdSerializer.serialize(tokens);
-    readCache.put(CPD_TOKENS_CACHE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.data);
-    readCache.put(CPD_TOKENS_STRING_TABLE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.stringTable);
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Collections.emptySet()).toByteArray();
-    readCache.put(importsMapCacheKey(inputFile.wrappedFile().key()), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey(inputFile.wrappedFile().key()), serializedSymbolTable);
-    readCache.put(fileContentHashCacheKey(inputFile.wrappedFile().key()), inputFile.wrappedFile().md5Hash().getBytes(UTF_8));
+    readCache.put(cpdTokensCacheKey(inputFile.wrappedFile().key()), cpdTokens.toByteArray());
+    putModuleRecord(readCache, inputFile, Set.of(), Set.of());
 
     TestWriteCache writeCache = new TestWriteCache();
     writeCache.bind(readCache);
@@ -1116,8 +1239,7 @@ class PythonSensorTest {
 
     // Verify that we carried the tokens over to the next cache
     assertThat(writeCache.getData())
-      .containsEntry(CPD_TOKENS_CACHE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.data)
-      .containsEntry(CPD_TOKENS_STRING_TABLE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.stringTable);
+      .containsEntry(cpdTokensCacheKey(inputFile.wrappedFile().key()), cpdTokens.toByteArray());
   }
 
   @Test
@@ -1131,9 +1253,6 @@ class PythonSensorTest {
     PythonInputFile inputFile = inputFile("pass.py", Type.MAIN, InputFile.Status.SAME);
 
     TestReadCache readCache = getValidReadCache();
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Collections.emptySet()).toByteArray();
-    readCache.put(importsMapCacheKey(inputFile.wrappedFile().key()), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey(inputFile.wrappedFile().key()), serializedSymbolTable);
 
     TestWriteCache writeCache = new TestWriteCache();
     writeCache.bind(readCache);
@@ -1158,8 +1277,7 @@ class PythonSensorTest {
     CpdSerializer.SerializationResult cpdTokens = CpdSerializer.serialize(expectedTokens);
 
     assertThat(writeCache.getData())
-      .containsEntry(Caching.CPD_TOKENS_CACHE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.data)
-      .containsEntry(CPD_TOKENS_STRING_TABLE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.stringTable);
+      .containsEntry(cpdTokensCacheKey(inputFile.wrappedFile().key()), cpdTokens.toByteArray());
   }
 
   @Test
@@ -1176,13 +1294,9 @@ class PythonSensorTest {
 
     TestReadCache readCache = getValidReadCache();
 
-    readCache.put(CPD_TOKENS_CACHE_KEY_PREFIX + inputFile.wrappedFile().key(), "not valid data".getBytes(UTF_8));
-    readCache.put(CPD_TOKENS_STRING_TABLE_KEY_PREFIX + inputFile.wrappedFile().key(), "not valid string table".getBytes(UTF_8));
+    readCache.put(cpdTokensCacheKey(inputFile.wrappedFile().key()), "not valid data".getBytes(UTF_8));
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Collections.emptySet()).toByteArray();
-    readCache.put(importsMapCacheKey(inputFile.wrappedFile().key()), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey(inputFile.wrappedFile().key()), serializedSymbolTable);
-    readCache.put(fileContentHashCacheKey(inputFile.wrappedFile().key()), inputFile.wrappedFile().md5Hash().getBytes(UTF_8));
+    putModuleRecord(readCache, inputFile, Set.of(), Set.of());
 
     TestWriteCache writeCache = new TestWriteCache();
     writeCache.bind(readCache);
@@ -1210,8 +1324,7 @@ class PythonSensorTest {
     CpdSerializer.SerializationResult cpdTokens = CpdSerializer.serialize(expectedTokens);
 
     assertThat(writeCache.getData())
-      .containsEntry(Caching.CPD_TOKENS_CACHE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.data)
-      .containsEntry(CPD_TOKENS_STRING_TABLE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.stringTable);
+      .containsEntry(cpdTokensCacheKey(inputFile.wrappedFile().key()), cpdTokens.toByteArray());
   }
 
   @Test
@@ -1252,10 +1365,7 @@ class PythonSensorTest {
     PythonInputFile inputFile = inputFile("pass.py", Type.MAIN, InputFile.Status.SAME);
 
     TestReadCache readCache = getValidReadCache();
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Collections.emptySet()).toByteArray();
-    readCache.put(importsMapCacheKey(inputFile.wrappedFile().key()), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey(inputFile.wrappedFile().key()), serializedSymbolTable);
-    readCache.put(fileContentHashCacheKey(inputFile.wrappedFile().key()), inputFile.wrappedFile().md5Hash().getBytes(UTF_8));
+    putModuleRecord(readCache, inputFile, Set.of(), Set.of());
 
     TestWriteCache writeCache = new TestWriteCache();
     writeCache.bind(readCache);
@@ -1283,8 +1393,7 @@ class PythonSensorTest {
     CpdSerializer.SerializationResult cpdTokens = CpdSerializer.serialize(expectedTokens);
 
     assertThat(writeCache.getData())
-      .containsEntry(Caching.CPD_TOKENS_CACHE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.data)
-      .containsEntry(CPD_TOKENS_STRING_TABLE_KEY_PREFIX + inputFile.wrappedFile().key(), cpdTokens.stringTable);
+      .containsEntry(cpdTokensCacheKey(inputFile.wrappedFile().key()), cpdTokens.toByteArray());
   }
 
   @Test
@@ -1415,4 +1524,10 @@ class PythonSensorTest {
     testReadCache.put(CACHE_VERSION_KEY, "unknownPluginVersion".getBytes(UTF_8));
     return testReadCache;
   }
+
+  private static void putModuleRecord(TestReadCache readCache, PythonInputFile inputFile, Set<String> imports, Set<Descriptor> descriptors) {
+    byte[] contentHash = inputFile.wrappedFile().md5Hash().getBytes(UTF_8);
+    ModuleRecord moduleRecord = new ModuleRecord(contentHash, DescriptorFingerprint.of(descriptors), imports, descriptors);
+    readCache.put(moduleRecordCacheKey(inputFile.wrappedFile().key()), moduleRecord.toByteArray());
+  }
 }
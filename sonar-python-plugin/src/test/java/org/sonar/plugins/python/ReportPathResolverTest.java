@@ -0,0 +1,87 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReportPathResolverTest {
+
+  @TempDir
+  Path baseDir;
+
+  @Test
+  void resolves_absolute_and_relative_paths() {
+    DefaultFileSystem fileSystem = new DefaultFileSystem(baseDir);
+    InputFile inputFile = inputFile("pkg/mod.py");
+    fileSystem.add(inputFile);
+
+    ReportPathResolver resolver = new ReportPathResolver(fileSystem);
+    assertThat(resolver.inputFile("pkg/mod.py")).isSameAs(inputFile);
+    assertThat(resolver.inputFile("pkg/../pkg/./mod.py")).isSameAs(inputFile);
+    assertThat(resolver.inputFile("pkg\\mod.py")).isSameAs(inputFile);
+    assertThat(resolver.inputFile(baseDir.resolve("pkg/mod.py").toString())).isSameAs(inputFile);
+    assertThat(resolver.inputFile("mod.py")).isNull();
+    assertThat(resolver.inputFile("../mod.py")).isNull();
+    assertThat(resolver.inputFile(baseDir.resolve("mod.py").toString())).isNull();
+  }
+
+  @Test
+  void input_files_are_indexed_when_the_resolver_is_created() {
+    DefaultFileSystem fileSystem = new DefaultFileSystem(baseDir);
+    ReportPathResolver resolver = new ReportPathResolver(fileSystem);
+    InputFile inputFile = inputFile("added.py");
+    fileSystem.add(inputFile);
+
+    assertThat(resolver.inputFile("added.py")).isNull();
+    assertThat(new ReportPathResolver(fileSystem).inputFile("added.py")).isSameAs(inputFile);
+  }
+
+  @Test
+  void existence_of_files() throws Exception {
+    DefaultFileSystem fileSystem = new DefaultFileSystem(baseDir);
+    fileSystem.add(inputFile("indexed.py"));
+    Files.createFile(baseDir.resolve("not_indexed.py"));
+
+    ReportPathResolver resolver = new ReportPathResolver(fileSystem);
+    // input files are not looked up on disk
+    assertThat(resolver.exists(baseDir.resolve("indexed.py").toFile())).isTrue();
+    assertThat(resolver.exists(baseDir.resolve("not_indexed.py").toFile())).isTrue();
+    assertThat(resolver.exists(new File(baseDir.toFile(), "unknown.py"))).isFalse();
+
+    // existence is memoized
+    Files.createFile(baseDir.resolve("unknown.py"));
+    assertThat(resolver.exists(new File(baseDir.toFile(), "unknown.py"))).isFalse();
+  }
+
+  private InputFile inputFile(String relativePath) {
+    return TestInputFileBuilder.create("moduleKey", relativePath)
+      .setModuleBaseDir(baseDir)
+      .build();
+  }
+}
@@ -162,6 +162,27 @@ class BanditSensorTest {
       .contains("not-bandit-file.json' can't be read.");
   }
 
+  @Test
+  void no_issues_with_invalid_bandit_results() throws IOException {
+    List<ExternalIssue> externalIssues = executeSensorImporting(7, 9, "bandit-report-invalid-results.json");
+    assertThat(externalIssues).isEmpty();
+    assertThat(onlyOneLogElement(logTester.logs(Level.ERROR)))
+      .startsWith("No issues information will be saved as the report file '")
+      .contains("bandit-report-invalid-results.json' can't be read.")
+      .contains("Expected an object for each Bandit result");
+  }
+
+  @Test
+  void issues_read_before_the_end_of_a_truncated_report_are_saved() throws IOException {
+    List<ExternalIssue> externalIssues = executeSensorImporting(7, 9, "bandit-report-truncated.json");
+    assertThat(externalIssues).hasSize(1);
+    assertThat(externalIssues.get(0).ruleKey()).hasToString(BANDIT_B413);
+    assertThat(externalIssues.get(0).primaryLocation().inputComponent().key()).isEqualTo(BANDIT_FILE);
+    assertThat(onlyOneLogElement(logTester.logs(Level.ERROR)))
+      .startsWith("Only the first 1 issues were read from the report file '")
+      .contains("bandit-report-truncated.json', as the rest of it can't be read.");
+  }
+
   @Test
   void no_issues_with_empty_bandit_file() throws IOException {
     List<ExternalIssue> externalIssues = executeSensorImporting(7, 9, "bandit-report-empty.json");
@@ -20,15 +20,11 @@
 package org.sonar.plugins.python.caching;
 
 
-import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.mockito.Mockito;
@@ -41,17 +37,13 @@ import org.sonar.python.caching.PythonReadCacheImpl;
 import org.sonar.python.caching.PythonWriteCacheImpl;
 import org.sonar.python.index.ClassDescriptor;
 import org.sonar.python.index.Descriptor;
-import org.sonar.python.index.DescriptorsToProtobuf;
 import org.sonar.python.index.FunctionDescriptor;
 import org.sonar.python.index.VariableDescriptor;
-import org.sonar.python.types.protobuf.DescriptorsProtos;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
-import static org.sonar.plugins.python.caching.Caching.IMPORTS_MAP_CACHE_KEY_PREFIX;
-import static org.sonar.plugins.python.caching.Caching.PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX;
-import static org.sonar.python.index.DescriptorsToProtobuf.fromProtobuf;
+import static org.sonar.plugins.python.caching.Caching.MODULE_RECORD_KEY_PREFIX;
 
 class CachingTest {
 
@@ -62,7 +54,7 @@ class CachingTest {
 
 
   @Test
-  void writeProjectLevelSymbolTableEntry() throws InvalidProtocolBufferException {
+  void writeModuleRecord() throws IOException {
     TestWriteCache writeCache = new TestWriteCache();
     PythonWriteCache pythonWriteCache = new PythonWriteCacheImpl(writeCache);
     TestReadCache readCache = new TestReadCache();
@@ -70,22 +62,21 @@ class CachingTest {
     CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
 
     Caching caching = new Caching(cacheContext, CACHE_VERSION);
-    Set<Descriptor> initialDescriptors = Set.of(
-      new ClassDescriptor("C", "mod.C", Collections.emptyList(), Collections.emptySet(), false, null, false, false, null, false),
-      new FunctionDescriptor("foo", "mod.foo", Collections.emptyList(), false, false, Collections.emptyList(), false, null, null),
-      new VariableDescriptor("x", "mod.x", null)
-    );
-    caching.writeProjectLevelSymbolTableEntry("mod", initialDescriptors);
+    Set<Descriptor> initialDescriptors = descriptors();
+    Set<String> imports = Set.of("mod2", "pkg1.mod3", "pkg2.pkg3.mod4");
+    caching.writeModuleRecord("mod", new ModuleRecord(new byte[] {1, 2}, new byte[] {3}, imports, initialDescriptors));
     Map<String, byte[]> data = writeCache.getData();
-    String cacheKey = PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX + "mod";
-    Set<Descriptor> retrievedDescriptors = fromProtobuf(DescriptorsProtos.ModuleDescriptor.parseFrom(data.get(cacheKey)));
+    assertThat(data).containsOnlyKeys(MODULE_RECORD_KEY_PREFIX + "mod");
+    ModuleRecord retrievedRecord = ModuleRecord.fromByteArray(data.get(MODULE_RECORD_KEY_PREFIX + "mod"));
     assertThat(cacheContext.isCacheEnabled()).isTrue();
-    assertThat(retrievedDescriptors).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(initialDescriptors);
+    assertThat(retrievedRecord.contentHash()).containsExactly(1, 2);
+    assertThat(retrievedRecord.apiFingerprint()).containsExactly(3);
+    assertThat(retrievedRecord.imports()).containsExactlyInAnyOrderElementsOf(imports);
+    assertThat(retrievedRecord.descriptors()).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(initialDescriptors);
   }
 
-
   @Test
-  void readProjectLevelSymbolTableEntry() {
+  void readModuleRecord() {
     TestWriteCache writeCache = new TestWriteCache();
     PythonWriteCache pythonWriteCache = new PythonWriteCacheImpl(writeCache);
     TestReadCache readCache = new TestReadCache();
@@ -93,85 +84,53 @@ class CachingTest {
     CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
 
     Caching caching = new Caching(cacheContext, CACHE_VERSION);
-    Set<Descriptor> initialDescriptors = Set.of(
-      new ClassDescriptor("C", "mod.C", Collections.emptyList(), Collections.emptySet(), false, null, false, false, null, false),
-      new FunctionDescriptor("foo", "mod.foo", Collections.emptyList(), false, false, Collections.emptyList(), false, null, null),
-      new VariableDescriptor("x", "mod.x", null)
-    );
-    String cacheKey = PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX + "mod";
-    readCache.put(cacheKey, DescriptorsToProtobuf.toProtobufModuleDescriptor(initialDescriptors).toByteArray());
-    Set<Descriptor> retrievedDescriptorsOptional = caching.readProjectLevelSymbolTableEntry("mod");
-    assertThat(retrievedDescriptorsOptional).isNotNull().usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(initialDescriptors);
+    Set<Descriptor> initialDescriptors = descriptors();
+    readCache.put(MODULE_RECORD_KEY_PREFIX + "mod", new ModuleRecord(new byte[] {1}, new byte[] {2}, Set.of(), initialDescriptors).toByteArray());
+    ModuleRecord retrievedRecord = caching.readModuleRecord("mod");
+    assertThat(retrievedRecord).isNotNull();
+    assertThat(retrievedRecord.contentHash()).containsExactly(1);
+    assertThat(retrievedRecord.imports()).isEmpty();
+    assertThat(retrievedRecord.descriptors()).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(initialDescriptors);
   }
 
   @Test
-  void readProjectLevelSymbolTableMissingEntry() {
+  void readModuleRecordMissingEntry() {
     TestWriteCache writeCache = new TestWriteCache();
     TestReadCache readCache = new TestReadCache();
     CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
 
     Caching caching = new Caching(cacheContext, CACHE_VERSION);
-    assertThat(caching.readProjectLevelSymbolTableEntry("unknown")).isNull();
+    assertThat(caching.readModuleRecord("unknown")).isNull();
   }
 
   @Test
-  void readProjectLevelSymbolTableIOException() throws IOException {
+  void readModuleRecordIOException() throws IOException {
     TestWriteCache writeCache = new TestWriteCache();
     TestReadCache readCache = new TestReadCache();
     InputStream inputStream = mock(InputStream.class);
     when(inputStream.readAllBytes()).thenThrow(new IOException("Boom!"));
     PythonReadCacheImpl pythonReadCache = Mockito.spy(new PythonReadCacheImpl(readCache));
-    String cacheKey = PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX + "mod";
+    String cacheKey = MODULE_RECORD_KEY_PREFIX + "mod";
     readCache.put(cacheKey, new byte[0]);
     Mockito.when(pythonReadCache.read(cacheKey)).thenReturn(inputStream);
 
     CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), pythonReadCache);
     Caching caching = new Caching(cacheContext, CACHE_VERSION);
-    assertThat(caching.readProjectLevelSymbolTableEntry("mod")).isNull();
-    assertThat(logTester.logs(Level.DEBUG)).contains("Unable to read data for key: \"python:descriptors:mod\"");
-  }
-
-  @Test
-  void writeImportsMapEntry() {
-    TestWriteCache writeCache = new TestWriteCache();
-    PythonWriteCache pythonWriteCache = new PythonWriteCacheImpl(writeCache);
-    PythonReadCache pythonReadCache = new PythonReadCacheImpl(new TestReadCache());
-    CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
-
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
-    Set<String> imports = Set.of("mod2", "pkg1.mod3", "pkg2.pkg3.mod4");
-
-    String cacheKey = IMPORTS_MAP_CACHE_KEY_PREFIX + "mod";
-    caching.writeImportsMapEntry("mod", imports);
-    Map<String, byte[]> data = writeCache.getData();
-    Set<String> retrievedDescriptors = Arrays.stream(new String(data.get(cacheKey), StandardCharsets.UTF_8).split(";")).collect(Collectors.toSet());
-    assertThat(retrievedDescriptors).containsExactlyInAnyOrderElementsOf(imports);
+    assertThat(caching.readModuleRecord("mod")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains("Unable to read data for key: \"python:module:mod\"");
   }
 
   @Test
-  void readImportsMapEntry() {
+  void copyFromPrevious() {
     TestWriteCache writeCache = new TestWriteCache();
     TestReadCache readCache = new TestReadCache();
     writeCache.bind(readCache);
-    PythonWriteCache pythonWriteCache = new PythonWriteCacheImpl(writeCache);
-    PythonReadCache pythonReadCache = new PythonReadCacheImpl(readCache);
-    CacheContextImpl cacheContext = new CacheContextImpl(true, pythonWriteCache, pythonReadCache);
-
-    Caching caching = new Caching(cacheContext, CACHE_VERSION);
-    Set<String> imports = Set.of("mod2", "pkg1.mod3", "pkg2.pkg3.mod4");
-    String cacheKey = IMPORTS_MAP_CACHE_KEY_PREFIX + "mod";
-    readCache.put(cacheKey, String.join(";", imports).getBytes(StandardCharsets.UTF_8));
-    assertThat(caching.readImportMapEntry("mod")).containsExactlyInAnyOrderElementsOf(imports);
-  }
-
-  @Test
-  void readImportsMissingEntry() {
-    TestWriteCache writeCache = new TestWriteCache();
-    TestReadCache readCache = new TestReadCache();
     CacheContextImpl cacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(writeCache), new PythonReadCacheImpl(readCache));
+    readCache.put(MODULE_RECORD_KEY_PREFIX + "mod", new byte[] {1});
 
     Caching caching = new Caching(cacheContext, CACHE_VERSION);
-    assertThat(caching.readImportMapEntry("unknown")).isNull();
+    caching.copyFromPrevious("mod");
+    assertThat(writeCache.getData()).containsOnlyKeys(MODULE_RECORD_KEY_PREFIX + "mod");
   }
 
   @Test
@@ -184,9 +143,23 @@ class CachingTest {
 
 
     Caching caching = new Caching(cacheContext, CACHE_VERSION);
-    String module = "mod";
-    readCache.put(PROJECT_SYMBOL_TABLE_CACHE_KEY_PREFIX + "mod", new byte[] {42});
-    assertThat(caching.readProjectLevelSymbolTableEntry(module)).isNull();
-    assertThat(logTester.logs(Level.DEBUG)).contains("Failed to deserialize project level symbol table entry for module: \"mod\"");
+    readCache.put(MODULE_RECORD_KEY_PREFIX + "unsupported", new byte[] {42});
+    readCache.put(MODULE_RECORD_KEY_PREFIX + "truncated", new byte[] {ModuleRecord.FORMAT_VERSION, 0, 0, 0, 9, 1});
+    readCache.put(MODULE_RECORD_KEY_PREFIX + "invalid_descriptors", new byte[] {ModuleRecord.FORMAT_VERSION, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 42});
+    assertThat(caching.readModuleRecord("unsupported")).isNull();
+    assertThat(caching.readModuleRecord("truncated")).isNull();
+    assertThat(caching.readModuleRecord("invalid_descriptors")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).contains(
+      "Failed to deserialize cached record for module: \"unsupported\"",
+      "Failed to deserialize cached record for module: \"truncated\"",
+      "Failed to deserialize cached record for module: \"invalid_descriptors\"");
+  }
+
+  private static Set<Descriptor> descriptors() {
+    return Set.of(
+      new ClassDescriptor("C", "mod.C", Collections.emptyList(), Collections.emptySet(), false, null, false, false, null, false),
+      new FunctionDescriptor("foo", "mod.foo", Collections.emptyList(), false, false, Collections.emptyList(), false, null, null),
+      new VariableDescriptor("x", "mod.x", null)
+    );
   }
 }
@@ -30,6 +30,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
 import org.slf4j.event.Level;
@@ -194,6 +196,23 @@ class PythonCoverageSensorTest {
     assertThat(context.lineHits("moduleKey:sources/folder2/file2.py", 1)).isNull();
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4})
+  void test_merge_of_report_shards(int threads) {
+    settings.setProperty(PythonCoverageSensor.REPORT_PATHS_KEY, "coverage_shard_*.xml");
+    settings.setProperty("sonar.python.analysis.threads", threads);
+    coverageSensor.execute(context);
+
+    assertThat(context.lineHits(FILE1_KEY, 1)).isEqualTo(3);
+    assertThat(context.lineHits(FILE1_KEY, 2)).isNull();
+    assertThat(context.lineHits(FILE1_KEY, 4)).isZero();
+    assertThat(context.lineHits(FILE1_KEY, 6)).isEqualTo(1);
+    assertThat(context.lineHits(FILE2_KEY, 3)).isEqualTo(3);
+    assertThat(context.conditions(FILE2_KEY, 3)).isEqualTo(2);
+    assertThat(context.coveredConditions(FILE2_KEY, 3)).isEqualTo(2);
+    assertThat(logTester.logs(Level.DEBUG)).filteredOn(log -> log.startsWith("Saving coverage measures for file")).hasSize(2);
+  }
+
   @Test
   void test_unique_report() {
     settings.setProperty(PythonCoverageSensor.REPORT_PATHS_KEY, "*coverage.4.4.2*.xml");
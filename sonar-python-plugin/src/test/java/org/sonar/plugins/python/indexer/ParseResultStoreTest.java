@@ -0,0 +1,83 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.indexer;
+
+import com.sonar.sslr.api.AstNode;
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+import org.sonar.python.parser.PythonParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseResultStoreTest {
+
+  private static final URI FILE_URI = URI.create("file:///project/mod.py");
+  private static final String SOURCE = "def foo(): pass\n";
+
+  private final PythonParser parser = PythonParser.create();
+
+  @Test
+  void ast_is_returned_once() {
+    ParseResultStore store = new ParseResultStore();
+    AstNode astNode = parser.parse(SOURCE);
+    store.put(FILE_URI, SOURCE, astNode);
+
+    assertThat(store.take(FILE_URI, SOURCE)).isSameAs(astNode);
+    assertThat(store.take(FILE_URI, SOURCE)).isNull();
+    assertThat(store.hits()).isEqualTo(1);
+    assertThat(store.misses()).isEqualTo(1);
+  }
+
+  @Test
+  void ast_is_not_returned_for_different_source() {
+    ParseResultStore store = new ParseResultStore();
+    store.put(FILE_URI, SOURCE, parser.parse(SOURCE));
+
+    assertThat(store.take(FILE_URI, "def bar(): pass\n")).isNull();
+    assertThat(store.take(URI.create("file:///project/other.py"), SOURCE)).isNull();
+  }
+
+  @Test
+  void ast_is_not_retained_above_budget() {
+    ParseResultStore store = new ParseResultStore(SOURCE.length());
+    URI otherUri = URI.create("file:///project/other.py");
+    store.put(FILE_URI, SOURCE, parser.parse(SOURCE));
+    store.put(otherUri, SOURCE, parser.parse(SOURCE));
+
+    assertThat(store.take(otherUri, SOURCE)).isNull();
+    assertThat(store.take(FILE_URI, SOURCE)).isNotNull();
+
+    // budget is released once the AST has been handed out
+    store.put(otherUri, SOURCE, parser.parse(SOURCE));
+    assertThat(store.take(otherUri, SOURCE)).isNotNull();
+  }
+
+  @Test
+  void removed_and_cleared_asts_are_not_returned() {
+    ParseResultStore store = new ParseResultStore();
+    store.put(FILE_URI, SOURCE, parser.parse(SOURCE));
+    store.remove(FILE_URI);
+    assertThat(store.take(FILE_URI, SOURCE)).isNull();
+
+    store.put(FILE_URI, SOURCE, parser.parse(SOURCE));
+    store.clear();
+    assertThat(store.take(FILE_URI, SOURCE)).isNull();
+  }
+}
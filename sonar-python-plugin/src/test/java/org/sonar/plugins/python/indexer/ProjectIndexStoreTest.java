@@ -0,0 +1,172 @@
+/*
+ * SonarQube Python Plugin
+ * Copyright (C) 2011-2024 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.plugins.python.indexer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+import org.sonar.api.testfixtures.log.LogTesterJUnit5;
+import org.sonar.plugins.python.indexer.ProjectIndexStore.FileStamp;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.VariableDescriptor;
+import org.sonar.python.semantic.ProjectLevelSymbolTable.ModuleSymbols;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectIndexStoreTest {
+
+  private static final URI MOD_URI = URI.create("file:///project/mod.py");
+  private static final URI OTHER_URI = URI.create("file:///project/other.py");
+  private static final FileStamp STAMP = new FileStamp(42L, 10L);
+
+  @RegisterExtension
+  public LogTesterJUnit5 logTester = new LogTesterJUnit5().setLevel(Level.DEBUG);
+
+  @TempDir
+  Path workDir;
+
+  @Test
+  void entries_are_read_back() {
+    ProjectIndexStore store = new ProjectIndexStore(ProjectIndexStore.moduleDirectory(workDir, "module"), "1.0");
+    byte[] hash = ProjectIndexStore.contentHash("x: int = 1");
+    store.write(MOD_URI, STAMP, hash, moduleSymbols());
+
+    ModuleSymbols moduleSymbols = read(store, MOD_URI, hash);
+    assertThat(moduleSymbols.fullyQualifiedModuleName()).isEqualTo("mod");
+    assertThat(moduleSymbols.globalDescriptors()).extracting(Descriptor::fullyQualifiedName).containsExactly("mod.x");
+    assertThat(moduleSymbols.importedModulesFQN()).containsExactlyInAnyOrder("os", "pkg.a");
+    assertThat(moduleSymbols.djangoViewsFQN()).containsExactly("mod.view");
+  }
+
+  @Test
+  void outdated_entries_are_ignored() {
+    ProjectIndexStore store = new ProjectIndexStore(workDir, "1.0");
+    byte[] hash = ProjectIndexStore.contentHash("x: int = 1");
+    store.write(MOD_URI, STAMP, hash, moduleSymbols());
+
+    assertThat(read(store, MOD_URI, ProjectIndexStore.contentHash("x: int = 2"))).isNull();
+    assertThat(read(store, OTHER_URI, hash)).isNull();
+    assertThat(read(new ProjectIndexStore(workDir, "2.0"), MOD_URI, hash)).isNull();
+  }
+
+  @Test
+  void content_hash_is_only_computed_for_modified_files() {
+    ProjectIndexStore store = new ProjectIndexStore(workDir, "1.0");
+    byte[] hash = ProjectIndexStore.contentHash("x: int = 1");
+    store.write(MOD_URI, STAMP, hash, moduleSymbols());
+
+    assertThat(store.read(MOD_URI, STAMP, () -> {
+      throw new IllegalStateException("content hash should not be computed");
+    })).isNotNull();
+    // touched but unchanged file
+    assertThat(store.read(MOD_URI, new FileStamp(43L, 10L), () -> hash)).isNotNull();
+    assertThat(store.read(MOD_URI, new FileStamp(42L, 11L), () -> ProjectIndexStore.contentHash("x: int = 22"))).isNull();
+    assertThat(store.read(MOD_URI, FileStamp.UNKNOWN, () -> hash)).isNotNull();
+  }
+
+  @Test
+  void file_stamp() throws IOException {
+    Path file = Files.writeString(workDir.resolve("mod.py"), "x: int = 1");
+    FileStamp stamp = FileStamp.of(file);
+    assertThat(stamp.isKnown()).isTrue();
+    assertThat(stamp.size()).isEqualTo(10L);
+    assertThat(FileStamp.of(workDir.resolve("missing.py"))).isEqualTo(FileStamp.UNKNOWN);
+    assertThat(FileStamp.UNKNOWN.isKnown()).isFalse();
+  }
+
+  @Test
+  void file_stamp_of_saved_contents() throws IOException {
+    Path file = Files.writeString(workDir.resolve("mod.py"), "x: int = 1");
+    assertThat(FileStamp.ofSavedContents(file, "x: int = 1", StandardCharsets.UTF_8)).isEqualTo(FileStamp.of(file));
+    // unsaved editor buffer
+    assertThat(FileStamp.ofSavedContents(file, "x: int = 2", StandardCharsets.UTF_8)).isEqualTo(FileStamp.UNKNOWN);
+    assertThat(FileStamp.ofSavedContents(workDir.resolve("missing.py"), "x: int = 1", StandardCharsets.UTF_8)).isEqualTo(FileStamp.UNKNOWN);
+  }
+
+  @Test
+  void entries_without_stamp_are_checked_against_content_hash() {
+    ProjectIndexStore store = new ProjectIndexStore(workDir, "1.0");
+    // written from an unsaved buffer, which was later discarded
+    store.write(MOD_URI, FileStamp.UNKNOWN, ProjectIndexStore.contentHash("x: int = 2"), moduleSymbols());
+
+    assertThat(store.read(MOD_URI, STAMP, () -> ProjectIndexStore.contentHash("x: int = 1"))).isNull();
+    assertThat(store.read(MOD_URI, STAMP, () -> ProjectIndexStore.contentHash("x: int = 2"))).isNotNull();
+  }
+
+  @Test
+  void modules_have_their_own_directory() {
+    ProjectIndexStore store = new ProjectIndexStore(ProjectIndexStore.moduleDirectory(workDir, "module"), "1.0");
+    ProjectIndexStore otherModuleStore = new ProjectIndexStore(ProjectIndexStore.moduleDirectory(workDir, "other-module"), "1.0");
+    byte[] hash = ProjectIndexStore.contentHash("x: int = 1");
+    store.write(MOD_URI, STAMP, hash, moduleSymbols());
+    otherModuleStore.write(OTHER_URI, STAMP, hash, moduleSymbols());
+
+    store.retainOnly(List.of());
+    assertThat(read(store, MOD_URI, hash)).isNull();
+    assertThat(read(otherModuleStore, OTHER_URI, hash)).isNotNull();
+  }
+
+  @Test
+  void removed_entries() {
+    ProjectIndexStore store = new ProjectIndexStore(workDir, "1.0");
+    byte[] hash = ProjectIndexStore.contentHash("x: int = 1");
+    store.write(MOD_URI, STAMP, hash, moduleSymbols());
+    store.write(OTHER_URI, STAMP, hash, moduleSymbols());
+
+    store.retainOnly(List.of(OTHER_URI));
+    assertThat(read(store, MOD_URI, hash)).isNull();
+    assertThat(read(store, OTHER_URI, hash)).isNotNull();
+
+    store.remove(OTHER_URI);
+    assertThat(read(store, OTHER_URI, hash)).isNull();
+  }
+
+  @Test
+  void corrupted_entries() throws IOException {
+    ProjectIndexStore store = new ProjectIndexStore(workDir, "1.0");
+    byte[] hash = ProjectIndexStore.contentHash("x: int = 1");
+    store.write(MOD_URI, STAMP, hash, moduleSymbols());
+    try (var entries = Files.list(workDir)) {
+      for (Path entry : entries.toList()) {
+        Files.write(entry, new byte[] {0, 0, 0, 1, 0});
+      }
+    }
+
+    assertThat(read(store, MOD_URI, hash)).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).anyMatch(log -> log.startsWith("Failed to read the project index entry of \"file:///project/mod.py\""));
+  }
+
+  private static ModuleSymbols read(ProjectIndexStore store, URI uri, byte[] contentHash) {
+    // a different stamp than the written one, so that the content hash is compared
+    return store.read(uri, FileStamp.UNKNOWN, () -> contentHash);
+  }
+
+  private static ModuleSymbols moduleSymbols() {
+    return new ModuleSymbols("mod", Set.of(new VariableDescriptor("x", "mod.x", "int")), Set.of("os", "pkg.a"), Set.of("mod.view"));
+  }
+}
@@ -177,6 +177,37 @@ class SonarLintPythonIndexerTest {
     assertThat(modAddSymbol).isNotNull();
   }
 
+  @Test
+  void persistent_project_index() {
+    context.settings().setProperty(SonarLintPythonIndexer.PERSISTENT_INDEX_PROPERTY, true);
+    SonarLintPythonIndexer firstSession = new SonarLintPythonIndexer(moduleFileSystem);
+    firstSession.buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Project index: 0 modules loaded, 2 modules to index");
+
+    // modules are loaded from the index even though the maximum number of lines is reached
+    context.settings().setProperty("sonar.python.sonarlint.indexing.maxlines", 0);
+    logTester.clear();
+    SonarLintPythonIndexer secondSession = new SonarLintPythonIndexer(moduleFileSystem);
+    secondSession.buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG)).contains("Project index: 2 modules loaded, 0 modules to index");
+    assertThat(secondSession.projectLevelSymbolTable().getSymbol("mod.add")).isNotNull();
+    assertThat(secondSession.projectLevelSymbolTable().getSymbolsFromModule("main")).hasSize(1);
+    assertThat(secondSession.getFileWithId(file2.wrappedFile().absolutePath())).isEqualTo(file2.wrappedFile());
+
+    ModuleFileEvent moduleFileEvent = mock(ModuleFileEvent.class);
+    when(moduleFileEvent.getType()).thenReturn(ModuleFileEvent.Type.DELETED);
+    when(moduleFileEvent.getTarget()).thenReturn(file2.wrappedFile());
+    secondSession.process(moduleFileEvent);
+
+    logTester.clear();
+    SonarLintPythonIndexer thirdSession = new SonarLintPythonIndexer(moduleFileSystem);
+    thirdSession.buildOnce(context);
+    assertThat(logTester.logs(Level.DEBUG))
+      .contains("Project index: 1 modules loaded, 0 modules to index")
+      .contains("Indexing of 1 modules deferred to the next sessions due to project size (maximum for indexing is 0 lines)");
+    assertThat(thirdSession.projectLevelSymbolTable().getSymbol("mod.add")).isNull();
+  }
+
   @Test
   void test_indexer_non_python_file() {
     testNonPythonFile("txt");
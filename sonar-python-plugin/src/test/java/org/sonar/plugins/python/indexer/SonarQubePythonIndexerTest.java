@@ -26,7 +26,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -41,12 +40,16 @@ import org.sonar.api.testfixtures.log.LogTesterJUnit5;
 import org.sonar.plugins.python.PythonInputFile;
 import org.sonar.plugins.python.api.caching.PythonReadCache;
 import org.sonar.plugins.python.api.caching.PythonWriteCache;
+import org.sonar.plugins.python.caching.ModuleRecord;
 import org.sonar.plugins.python.caching.TestReadCache;
 import org.sonar.plugins.python.caching.TestWriteCache;
 import org.sonar.python.caching.CacheContextImpl;
 import org.sonar.python.caching.PythonReadCacheImpl;
 import org.sonar.python.caching.PythonWriteCacheImpl;
+import org.sonar.python.index.Descriptor;
+import org.sonar.python.index.DescriptorFingerprint;
 import org.sonar.python.index.VariableDescriptor;
+import org.sonar.python.semantic.ProjectLevelSymbolTable;
 import org.sonar.python.types.TypeShed;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -57,10 +60,7 @@ import static org.sonar.plugins.python.TestUtils.createInputFile;
 import static org.sonar.plugins.python.caching.Caching.CACHE_VERSION_KEY;
 import static org.sonar.plugins.python.caching.Caching.PROJECT_FILES_KEY;
 import static org.sonar.plugins.python.caching.Caching.TYPESHED_MODULES_KEY;
-import static org.sonar.plugins.python.caching.Caching.fileContentHashCacheKey;
-import static org.sonar.plugins.python.caching.Caching.importsMapCacheKey;
-import static org.sonar.plugins.python.caching.Caching.projectSymbolTableCacheKey;
-import static org.sonar.python.index.DescriptorsToProtobuf.toProtobufModuleDescriptor;
+import static org.sonar.plugins.python.caching.Caching.moduleRecordCacheKey;
 
 class SonarQubePythonIndexerTest {
 
@@ -103,14 +103,8 @@ class SonarQubePythonIndexerTest {
 
     List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
-    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
-    readCache.put(importsMapCacheKey("moduleKey:mod.py"), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
-    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), outdatedEntry);
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    putModuleRecord("moduleKey:main.py", contentHash(file1), List.of("mod"), Set.of(new VariableDescriptor("x", "main.x", null)));
+    putModuleRecord("moduleKey:mod.py", contentHash(file2), List.of(), Set.of(new VariableDescriptor("outdated", "mod.outdated", null)));
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     pythonIndexer.buildOnce(context);
 
@@ -133,14 +127,8 @@ class SonarQubePythonIndexerTest {
 
     List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
-    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("unknown", "mod", "other")));
-    readCache.put(importsMapCacheKey("moduleKey:mod.py"), importsAsByteArray(Collections.emptyList()));
-    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
-    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), outdatedEntry);
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    putModuleRecord("moduleKey:main.py", contentHash(file1), List.of("unknown", "mod", "other"), Set.of(new VariableDescriptor("x", "main.x", null)));
+    putModuleRecord("moduleKey:mod.py", contentHash(file2), List.of(), Set.of(new VariableDescriptor("outdated", "mod.outdated", null)));
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     pythonIndexer.buildOnce(context);
 
@@ -154,20 +142,56 @@ class SonarQubePythonIndexerTest {
       .contains("1/1 source file has been analyzed");
   }
 
+  @Test
+  void test_modified_dependency_with_unchanged_api() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
+
+    byte[] apiFingerprint = apiFingerprintOfPreviousAnalysis(file2);
+    putModifiedDependencyEntries(apiFingerprint);
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file1)).isTrue();
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file1)).isTrue();
+    assertThat(pythonIndexer.hasUnchangedDependencies(file1)).isFalse();
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file2)).isFalse();
+    assertThat(apiFingerprint(writeCache, "moduleKey:mod.py")).isEqualTo(apiFingerprint);
+    assertThat(logTester.logs(Level.INFO))
+      .contains("Fully optimized analysis can be performed for 1 out of 2 files.")
+      .contains("Partially optimized analysis can be performed for 1 out of 2 files.")
+      .contains("1 out of 2 files only depend on modified modules whose API is unchanged.");
+  }
+
+  @Test
+  void test_modified_dependency_with_changed_api() {
+    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
+    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.CHANGED, InputFile.Type.MAIN);
+
+    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
+
+    putModifiedDependencyEntries(DescriptorFingerprint.of(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))));
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file1)).isTrue();
+    assertThat(pythonIndexer.canBeFullyScannedWithoutParsing(file1)).isFalse();
+    assertThat(pythonIndexer.hasUnchangedDependencies(file1)).isFalse();
+    assertThat(logTester.logs(Level.INFO))
+      .contains("Fully optimized analysis can be performed for 0 out of 2 files.")
+      .contains("0 out of 2 files only depend on modified modules whose API is unchanged.");
+  }
+
   @Test
   void test_deleted_dependency() {
     file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
 
     List<PythonInputFile> inputFiles = new ArrayList<>(List.of(file1));
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
-    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("unknown", "mod", "other")));
-    readCache.put(importsMapCacheKey("moduleKey:mod.py"), importsAsByteArray(Collections.emptyList()));
     readCache.put(PROJECT_FILES_KEY, importsAsByteArray(List.of("main", "mod")));
-    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
-    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), outdatedEntry);
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    putModuleRecord("moduleKey:main.py", contentHash(file1), List.of("unknown", "mod", "other"), Set.of(new VariableDescriptor("x", "main.x", null)));
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     pythonIndexer.buildOnce(context);
 
@@ -189,14 +213,8 @@ class SonarQubePythonIndexerTest {
 
     List<PythonInputFile> inputFiles = new ArrayList<>(List.of(file1));
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
-    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("unknown", "mod", "other")));
-    readCache.put(importsMapCacheKey("moduleKey:mod.py"), importsAsByteArray(Collections.emptyList()));
     readCache.put(PROJECT_FILES_KEY, importsAsByteArray(List.of("main", "mod")));
-    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
-    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), outdatedEntry);
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    putModuleRecord("moduleKey:mod.py", contentHash(file1), List.of(), Set.of(new VariableDescriptor("outdated", "mod.outdated", null)));
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     pythonIndexer.buildOnce(context);
 
@@ -217,33 +235,6 @@ class SonarQubePythonIndexerTest {
 
     List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
 
-    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-    pythonIndexer.buildOnce(context);
-
-    assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file1)).isFalse();
-    assertThat(pythonIndexer.canBePartiallyScannedWithoutParsing(file2)).isFalse();
-    assertThat(logTester.logs(Level.INFO))
-      .contains("Cached information of global symbols will be used for 0 out of 2 main files. Global symbols will be recomputed for the remaining files.")
-      .contains("Fully optimized analysis can be performed for 0 out of 2 files.")
-      .contains("2/2 source files have been analyzed");
-  }
-
-  @Test
-  void test_no_file_modified_missing_imports() {
-    file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
-    file2 = createInputFile(baseDir, "mod.py", InputFile.Status.SAME, InputFile.Type.MAIN);
-
-    List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
-
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
-    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
-    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), outdatedEntry);
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     pythonIndexer.buildOnce(context);
 
@@ -256,16 +247,14 @@ class SonarQubePythonIndexerTest {
   }
 
   @Test
-  void test_no_file_modified_missing_descriptors() {
+  void test_no_file_modified_corrupted_record() {
     file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.MAIN);
     file2 = createInputFile(baseDir, "mod.py", InputFile.Status.SAME, InputFile.Type.MAIN);
 
     List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
 
-    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
-    readCache.put(importsMapCacheKey("moduleKey:mod.py"), importsAsByteArray(Collections.emptyList()));
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    readCache.put(moduleRecordCacheKey("moduleKey:main.py"), new byte[] {42});
+    readCache.put(moduleRecordCacheKey("moduleKey:mod.py"), new byte[] {42});
 
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     pythonIndexer.buildOnce(context);
@@ -288,14 +277,8 @@ class SonarQubePythonIndexerTest {
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     readCache.put(CACHE_VERSION_KEY, "outdatedVersion".getBytes(StandardCharsets.UTF_8));
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
-    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
-    readCache.put(importsMapCacheKey("moduleKey:mod.py"), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
-    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), outdatedEntry);
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    putModuleRecord("moduleKey:main.py", contentHash(file1), List.of("mod"), Set.of(new VariableDescriptor("x", "main.x", null)));
+    putModuleRecord("moduleKey:mod.py", contentHash(file2), List.of(), Set.of(new VariableDescriptor("outdated", "mod.outdated", null)));
 
     pythonIndexer.buildOnce(context);
 
@@ -317,14 +300,8 @@ class SonarQubePythonIndexerTest {
     context.settings().setProperty("sonar.python.version", "3.11");
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
 
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
-    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
-    readCache.put(importsMapCacheKey("moduleKey:mod.py"), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
-    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), outdatedEntry);
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    putModuleRecord("moduleKey:main.py", contentHash(file1), List.of("mod"), Set.of(new VariableDescriptor("x", "main.x", null)));
+    putModuleRecord("moduleKey:mod.py", contentHash(file2), List.of(), Set.of(new VariableDescriptor("outdated", "mod.outdated", null)));
 
     pythonIndexer.buildOnce(context);
 
@@ -340,14 +317,11 @@ class SonarQubePythonIndexerTest {
   void test_test_files_use_cache() {
     file1 = createInputFile(baseDir, "main.py", InputFile.Status.SAME, InputFile.Type.TEST);
     file2 = createInputFile(baseDir, "mod.py", InputFile.Status.CHANGED, InputFile.Type.TEST);
-    readCache.put(fileContentHashCacheKey("moduleKey:main.py"), file1.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
 
     List<PythonInputFile> inputFiles = new ArrayList<>(Arrays.asList(file1, file2));
 
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
-    byte[] serializedSymbolTable = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("x", "main.x", null))).toByteArray();
-    readCache.put(importsMapCacheKey("moduleKey:main.py"), importsAsByteArray(List.of("mod")));
-    readCache.put(projectSymbolTableCacheKey("moduleKey:main.py"), serializedSymbolTable);
+    putModuleRecord("moduleKey:main.py", contentHash(file1), List.of("mod"), Set.of(new VariableDescriptor("x", "main.x", null)));
 
     pythonIndexer.buildOnce(context);
 
@@ -456,7 +430,7 @@ class SonarQubePythonIndexerTest {
 
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     pythonIndexer.buildOnce(context);
-    assertThat(writeCache.getData().containsKey(projectSymbolTableCacheKey("moduleKey:parse_error.py"))).isFalse();
+    assertThat(writeCache.getData().containsKey(moduleRecordCacheKey("moduleKey:parse_error.py"))).isFalse();
   }
 
   @Test
@@ -466,10 +440,7 @@ class SonarQubePythonIndexerTest {
 
     List<PythonInputFile> inputFiles = new ArrayList<>(List.of(file1));
 
-    byte[] outdatedEntry = toProtobufModuleDescriptor(Set.of(new VariableDescriptor("outdated", "mod.outdated", null))).toByteArray();
-    readCache.put(importsMapCacheKey("moduleKey:mod.py"), String.join(";", Collections.emptyList()).getBytes(StandardCharsets.UTF_8));
-    readCache.put(projectSymbolTableCacheKey("moduleKey:mod.py"), outdatedEntry);
-    readCache.put(fileContentHashCacheKey("moduleKey:mod.py"), file2.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8));
+    putModuleRecord("moduleKey:mod.py", contentHash(file2), List.of(), Set.of(new VariableDescriptor("outdated", "mod.outdated", null)));
     pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
     pythonIndexer.buildOnce(context);
 
@@ -489,6 +460,61 @@ class SonarQubePythonIndexerTest {
     assertThat(pythonIndexer.projectLevelSymbolTable().getSymbolsFromModule("notebook")).isEmpty();
   }
 
+  @Test
+  void concurrent_global_symbols_computation() {
+    context.settings().setProperty("sonar.python.skipUnchanged", false);
+    context.settings().setProperty("sonar.python.analysis.threads", 4);
+    List<PythonInputFile> inputFiles = new ArrayList<>();
+    for (String fileName : List.of("main.py", "mod.py", "added.py", "parse_error.py", "uses_typeshed.py", "notebook.ipynb")) {
+      inputFiles.add(createInputFile(baseDir, fileName, InputFile.Status.CHANGED, InputFile.Type.MAIN));
+    }
+
+    pythonIndexer = new SonarQubePythonIndexer(inputFiles, cacheContext, context);
+    pythonIndexer.buildOnce(context);
+
+    assertThat(logTester.logs(Level.DEBUG)).contains("Running global symbols computation on 4 threads");
+    ProjectLevelSymbolTable projectLevelSymbolTable = pythonIndexer.projectLevelSymbolTable();
+    assertThat(projectLevelSymbolTable.importsByModule()).containsOnlyKeys("main", "mod", "added", "uses_typeshed");
+    assertThat(projectLevelSymbolTable.importsByModule().get("main")).contains("mod");
+    assertThat(projectLevelSymbolTable.getSymbol("mod.add")).isNotNull();
+    assertThat(projectLevelSymbolTable.getSymbol("added.new_func")).isNotNull();
+    assertThat(projectLevelSymbolTable.descriptorsForModule("parse_error")).isNull();
+    assertThat(projectLevelSymbolTable.descriptorsForModule("notebook")).isNull();
+    assertThat(logTester.logs(Level.DEBUG)).anyMatch(log -> log.startsWith("Unable to construct project-level symbol table for file") && log.contains("parse_error.py"));
+  }
+
+  private void putModifiedDependencyEntries(byte[] modApiFingerprint) {
+    putModuleRecord("moduleKey:main.py", contentHash(file1), List.of("mod"), Set.of(new VariableDescriptor("x", "main.x", null)));
+    putModuleRecord("moduleKey:mod.py", new byte[0], List.of(), Set.of(new VariableDescriptor("outdated", "mod.outdated", null)), modApiFingerprint);
+  }
+
+  private void putModuleRecord(String fileKey, byte[] contentHash, List<String> imports, Set<Descriptor> descriptors) {
+    putModuleRecord(fileKey, contentHash, imports, descriptors, DescriptorFingerprint.of(descriptors));
+  }
+
+  private void putModuleRecord(String fileKey, byte[] contentHash, List<String> imports, Set<Descriptor> descriptors, byte[] apiFingerprint) {
+    readCache.put(moduleRecordCacheKey(fileKey), new ModuleRecord(contentHash, apiFingerprint, new HashSet<>(imports), descriptors).toByteArray());
+  }
+
+  private static byte[] contentHash(PythonInputFile inputFile) {
+    return inputFile.wrappedFile().md5Hash().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private byte[] apiFingerprintOfPreviousAnalysis(PythonInputFile inputFile) {
+    TestWriteCache previousWriteCache = new TestWriteCache();
+    CacheContextImpl previousCacheContext = new CacheContextImpl(true, new PythonWriteCacheImpl(previousWriteCache), new PythonReadCacheImpl(new TestReadCache()));
+    new SonarQubePythonIndexer(List.of(inputFile), previousCacheContext, context).buildOnce(context);
+    return apiFingerprint(previousWriteCache, inputFile.wrappedFile().key());
+  }
+
+  private static byte[] apiFingerprint(TestWriteCache writeCache, String fileKey) {
+    try {
+      return ModuleRecord.fromByteArray(writeCache.getData().get(moduleRecordCacheKey(fileKey))).apiFingerprint();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   private byte[] importsAsByteArray(List<String> mod) {
     return String.join(";", mod).getBytes(StandardCharsets.UTF_8);
   }
@@ -272,6 +272,27 @@ class RuffSensorTest {
       .contains("ruff-invalid-file.json' can't be read.");
   }
 
+  @Test
+  void no_issues_when_ruff_report_is_not_an_array() throws IOException {
+    List<ExternalIssue> externalIssues = executeSensorImporting(7, 9, "ruff-not-an-array.json");
+    assertThat(externalIssues).isEmpty();
+    assertThat(onlyOneLogElement(logTester.logs(LoggerLevel.ERROR)))
+      .startsWith("No issues information will be saved as the report file '")
+      .contains("ruff-not-an-array.json' can't be read.")
+      .contains("Expected an array at the root of the Ruff report");
+  }
+
+  @Test
+  void issues_read_before_the_end_of_a_truncated_report_are_saved() throws IOException {
+    List<ExternalIssue> externalIssues = executeSensorImporting(7, 9, "ruff-truncated.json");
+    assertThat(externalIssues).hasSize(1);
+    assertThat(externalIssues.get(0).ruleKey()).hasToString("external_ruff:S107");
+    assertThat(externalIssues.get(0).primaryLocation().inputComponent().key()).isEqualTo(RUFF_FILE);
+    assertThat(onlyOneLogElement(logTester.logs(LoggerLevel.ERROR)))
+      .startsWith("Only the first 1 issues were read from the report file '")
+      .contains("ruff-truncated.json', as the rest of it can't be read.");
+  }
+
   @Test
   void unknown_rule() throws IOException {
     List<ExternalIssue> externalIssues = executeSensorImporting(7, 9, "unknown-rule.json");